@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# Mede o tempo até o primeiro OrderCreatedEvent processado (métrica orders.startup.first-event).
+# Requer Postgres e Kafka no ar (ex.: docker-compose up -d postgres redpanda).
+#
+#   scripts/startup-benchmark.sh [plain|fast-start]
+#
+# plain usa target/order-processing-0.0.1-SNAPSHOT.jar; fast-start usa target/fast-start (make fast-start).
+# Com MAX_FIRST_EVENT_MS definido, sai com código 1 se o tempo medido passar do limite.
+set -euo pipefail
+
+MODE="${1:-plain}"
+RUNS="${RUNS:-3}"
+PORT="${PORT:-18080}"
+BASE_URL="http://localhost:${PORT}"
+JAR_NAME="order-processing-0.0.1-SNAPSHOT.jar"
+
+case "$MODE" in
+  plain)
+    CMD=(java -jar "target/${JAR_NAME}")
+    ;;
+  fast-start)
+    if [[ ! -f target/fast-start/application.jsa ]]; then
+      echo "target/fast-start/application.jsa não encontrado, rode 'make fast-start' antes" >&2
+      exit 2
+    fi
+    CMD=(java -XX:SharedArchiveFile=target/fast-start/application.jsa -Dspring.aot.enabled=true -jar "target/fast-start/${JAR_NAME}")
+    ;;
+  *)
+    echo "modo desconhecido: $MODE (use plain ou fast-start)" >&2
+    exit 2
+    ;;
+esac
+
+metric() {
+  curl -fs "${BASE_URL}/actuator/metrics/$1" 2>/dev/null \
+    | sed -n 's/.*"statistic":"VALUE","value":\([0-9.eE+-]*\).*/\1/p'
+}
+
+stop() {
+  kill "$1" 2>/dev/null || true
+  wait "$1" 2>/dev/null || true
+}
+
+# preenche READY_MS e FIRST_EVENT_MS
+run_once() {
+  local log pid value=""
+  log="$(mktemp)"
+  "${CMD[@]}" --server.port="$PORT" >"$log" 2>&1 &
+  pid=$!
+
+  # publica um pedido assim que a API responde; o consumer pode ainda estar subindo
+  until curl -fs -o /dev/null -XPOST "${BASE_URL}/api/orders" -H 'Content-Type: application/json' \
+      -d '{"customerId":"startup-benchmark","items":[{"productId":"BOOK-CC-001","quantity":1}]}'; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "aplicação encerrou durante a subida, log em $log" >&2
+      exit 1
+    fi
+    sleep 0.1
+  done
+  for _ in $(seq 1 600); do
+    value="$(metric orders.startup.first-event)"
+    [[ -n "$value" && "$value" != "NaN" ]] && break
+    value=""
+    sleep 0.1
+  done
+  if [[ -z "$value" ]]; then
+    stop "$pid"
+    echo "nenhum evento processado em 60s, log em $log" >&2
+    exit 1
+  fi
+  # métricas em segundos
+  READY_MS="$(metric application.ready.time | awk '{ printf "%.0f", $1 * 1000 }')"
+  FIRST_EVENT_MS="$(awk -v v="$value" 'BEGIN { printf "%.0f", v * 1000 }')"
+  stop "$pid"
+  rm -f "$log"
+}
+
+if curl -s -o /dev/null "${BASE_URL}/actuator/health"; then
+  echo "porta ${PORT} já está em uso" >&2
+  exit 2
+fi
+
+total=0
+for run in $(seq 1 "$RUNS"); do
+  run_once
+  echo "run ${run}: ready=${READY_MS}ms first-event=${FIRST_EVENT_MS}ms"
+  total=$((total + FIRST_EVENT_MS))
+done
+average=$((total / RUNS))
+echo "${MODE}: average first-event=${average}ms over ${RUNS} runs"
+
+if [[ -n "${MAX_FIRST_EVENT_MS:-}" && "$average" -gt "$MAX_FIRST_EVENT_MS" ]]; then
+  echo "regressão: ${average}ms > MAX_FIRST_EVENT_MS=${MAX_FIRST_EVENT_MS}ms" >&2
+  exit 1
+fi
@@ -2,8 +2,12 @@ package com.loomi.orders;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class OrderProcessingApplication {
     public static void main(String[] args) {
         SpringApplication.run(OrderProcessingApplication.class, args);
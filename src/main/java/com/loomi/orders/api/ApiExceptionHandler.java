@@ -1,9 +1,15 @@
 package com.loomi.orders.api;
 
+import com.loomi.orders.service.admission.AdmissionRejectedException;
+import com.loomi.orders.service.admission.RejectionReason;
+import com.loomi.orders.service.deadletter.ReplayInProgressException;
 import java.time.OffsetDateTime;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,17 +25,50 @@ public class ApiExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleNotReadable(HttpMessageNotReadableException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "message", "Malformed request payload",
+                "timestamp", OffsetDateTime.now()
+        ));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
         HttpStatus status = ex.getMessage() != null && ex.getMessage().toLowerCase().contains("not found")
                 ? HttpStatus.NOT_FOUND
                 : HttpStatus.BAD_REQUEST;
-        return ResponseEntity.status(status).body(Map.of(
+        // tipo fixo: endpoints SSE negociam text/event-stream e não teriam conversor para o corpo de erro
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(Map.of(
+                "message", ex.getMessage(),
+                "timestamp", OffsetDateTime.now()
+        ));
+    }
+
+    @ExceptionHandler(ReplayInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleReplayInProgress(ReplayInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON).body(Map.of(
                 "message", ex.getMessage(),
                 "timestamp", OffsetDateTime.now()
         ));
     }
 
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        HttpStatus status = ex.reason() == RejectionReason.CUSTOMER_RATE_LIMIT
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        long retryAfterSeconds = Math.max(1L, (ex.retryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                        "message", ex.getMessage(),
+                        "reason", ex.reason().name(),
+                        "timestamp", OffsetDateTime.now()
+                ));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
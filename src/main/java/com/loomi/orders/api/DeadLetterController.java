@@ -0,0 +1,33 @@
+package com.loomi.orders.api;
+
+import com.loomi.orders.service.deadletter.DeadLetterRecord;
+import com.loomi.orders.service.deadletter.DeadLetterReplayResult;
+import com.loomi.orders.service.deadletter.DeadLetterReplayService;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterReplayService replayService;
+
+    public DeadLetterController(DeadLetterReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @GetMapping("/{topic}")
+    public ResponseEntity<List<DeadLetterRecord>> peek(
+            @PathVariable("topic") String topic,
+            @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(replayService.peek(topic, limit));
+    }
+
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<DeadLetterReplayResult> replay(
+            @PathVariable("topic") String topic,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(replayService.replay(topic, limit));
+    }
+}
@@ -2,51 +2,138 @@ package com.loomi.orders.api;
 
 import com.loomi.orders.api.dto.OrderRequest;
 import com.loomi.orders.api.dto.OrderResponse;
+import com.loomi.orders.domain.OrderVersion;
 import com.loomi.orders.service.OrderService;
+import com.loomi.orders.service.admission.AdmissionGate;
+import com.loomi.orders.service.sharding.RecentWrites;
+import com.loomi.orders.service.stream.OrderStatusHub;
+import com.loomi.orders.service.stream.OrderStatusUpdate;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
+    // hora da última escrita do cliente: leva o read-your-writes para qualquer instância atrás do balanceador
+    static final String WRITE_TOKEN_COOKIE = "orders-last-write";
 
     private final OrderService orderService;
+    private final AdmissionGate admissionGate;
+    private final OrderStatusHub orderStatusHub;
+    private final ObservationRegistry observationRegistry;
+    private final RecentWrites recentWrites;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, AdmissionGate admissionGate, OrderStatusHub orderStatusHub,
+                           ObservationRegistry observationRegistry, RecentWrites recentWrites) {
         this.orderService = orderService;
+        this.admissionGate = admissionGate;
+        this.orderStatusHub = orderStatusHub;
+        this.observationRegistry = observationRegistry;
+        this.recentWrites = recentWrites;
     }
 
     @PostMapping
     public ResponseEntity<OrderResponse> create(
             @Valid @RequestBody OrderRequest request,
             @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
-        OrderResponse response = orderService.create(request, idempotencyKey);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // span filho do http.server.requests: separa fila de admissão, gravação e publicação do resto da requisição
+        return Observation.createNotStarted("orders.create", observationRegistry)
+                .contextualName("order create")
+                .lowCardinalityKeyValue("idempotent", String.valueOf(idempotencyKey != null))
+                .observe(() -> {
+                    try (AdmissionGate.Permit ignored = admissionGate.admit(request.getCustomerId())) {
+                        OrderResponse response = orderService.create(request, idempotencyKey);
+                        return ResponseEntity.status(HttpStatus.CREATED)
+                                .header(HttpHeaders.SET_COOKIE, writeTokenCookie().toString())
+                                .body(response);
+                    }
+                });
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getById(@PathVariable("orderId") String orderId) {
-        return ResponseEntity.ok(orderService.findById(orderId));
+    public ResponseEntity<OrderResponse> getById(@PathVariable("orderId") String orderId,
+                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @CookieValue(name = WRITE_TOKEN_COOKIE, required = false) String writeToken,
+                                                 WebRequest request) {
+        // polling comum: responde 304 só com a versão, sem carregar itens nem serializar o pedido
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = orderService.findVersion(orderId, writeToken).map(OrderVersion::eTag);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                // checkNotModified já escreveu o ETag na resposta
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+            }
+        }
+        OrderResponse order = orderService.findById(orderId, writeToken);
+        return ResponseEntity.ok()
+                .eTag(new OrderVersion(order.getVersion(), order.getUpdatedAt()).eTag())
+                .cacheControl(CacheControl.noCache())
+                .body(order);
+    }
+
+    @GetMapping(path = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrder(@PathVariable("orderId") String orderId,
+                                  @CookieValue(name = WRITE_TOKEN_COOKIE, required = false) String writeToken) {
+        return orderStatusHub.subscribeOrder(orderId, () -> {
+            OrderResponse order = orderService.findById(orderId, writeToken);
+            return new OrderStatusUpdate(null, order.getOrderId(), order.getCustomerId(), order.getStatus(), null,
+                    order.getUpdatedAt());
+        });
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCustomer(@RequestParam(name = "customerId", required = false) String customerId) {
+        if (customerId == null || customerId.isBlank()) {
+            throw new IllegalArgumentException("customerId is required");
+        }
+        return orderStatusHub.subscribeCustomer(customerId);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<OrderResponse>> searchByMetadata(
+            @RequestParam(name = "cnpj", required = false) String cnpj,
+            @RequestParam(name = "warehouseLocation", required = false) String warehouseLocation,
+            @RequestParam(name = "preOrderDiscount", defaultValue = "false") boolean preOrderDiscount,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.searchByMetadata(cnpj, warehouseLocation, preOrderDiscount, page, size));
     }
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> getByCustomer(
             @RequestParam(name = "customerId", required = false) String customerId,
             @RequestParam(name = "page", defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "20") int size) {
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @CookieValue(name = WRITE_TOKEN_COOKIE, required = false) String writeToken) {
 
         List<OrderResponse> response;
 
         if (customerId == null || customerId.isBlank()) {
             response = orderService.findAll(page, size);
         } else {
-            response = orderService.findByCustomer(customerId, page, size);
+            response = orderService.findByCustomer(customerId, page, size, writeToken);
         }
 
         return ResponseEntity.ok(response);
     }
 
+    private ResponseCookie writeTokenCookie() {
+        return ResponseCookie.from(WRITE_TOKEN_COOKIE, recentWrites.token())
+                .path("/api/orders")
+                .maxAge(recentWrites.window())
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+    }
 }
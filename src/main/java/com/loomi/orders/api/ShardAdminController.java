@@ -0,0 +1,24 @@
+package com.loomi.orders.api;
+
+import com.loomi.orders.service.sharding.ShardRebalanceResult;
+import com.loomi.orders.service.sharding.ShardRebalancer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/shards")
+public class ShardAdminController {
+
+    private final ShardRebalancer rebalancer;
+
+    public ShardAdminController(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardRebalanceResult> rebalance(
+            @RequestParam(name = "dryRun", defaultValue = "true") boolean dryRun,
+            @RequestParam(name = "batchSize", defaultValue = "500") int batchSize) {
+        return ResponseEntity.ok(rebalancer.rebalance(dryRun, batchSize));
+    }
+}
@@ -0,0 +1,41 @@
+package com.loomi.orders.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.loomi.orders.service.replay.CapturedEvent;
+import com.loomi.orders.service.replay.TrafficCaptureService;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/admin/traffic")
+public class TrafficCaptureController {
+
+    private final TrafficCaptureService captureService;
+    private final ObjectWriter lineWriter;
+
+    public TrafficCaptureController(TrafficCaptureService captureService, ObjectMapper objectMapper) {
+        this.captureService = captureService;
+        this.lineWriter = objectMapper.writer();
+    }
+
+    @GetMapping(path = "/capture", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> capture(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(name = "limit", defaultValue = "10000") int limit) {
+        List<CapturedEvent> events = captureService.capture(from, to == null ? OffsetDateTime.now() : to, limit);
+        StreamingResponseBody body = out -> {
+            for (CapturedEvent event : events) {
+                out.write(lineWriter.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,28 @@
+package com.loomi.orders.api.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.loomi.orders.service.events.RawJsonDeserializer;
+import java.io.IOException;
+
+/**
+ * Captures item metadata as raw JSON text at ingest. Only objects up to {@link #MAX_LENGTH} characters are
+ * accepted; anything else fails binding and the request is answered with 400. The limit is enforced while
+ * copying, so an oversized object is not buffered past it.
+ */
+public class ItemMetadataDeserializer extends RawJsonDeserializer {
+    static final int MAX_LENGTH = 16 * 1024;
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return context.reportInputMismatch(this, "Item metadata must be a JSON object");
+        }
+        try {
+            return copy(parser, MAX_LENGTH);
+        } catch (TooLongException ex) {
+            return context.reportInputMismatch(this, "Item metadata exceeds %d characters", MAX_LENGTH);
+        }
+    }
+}
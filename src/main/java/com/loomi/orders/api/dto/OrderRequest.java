@@ -1,5 +1,7 @@
 package com.loomi.orders.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -36,7 +38,9 @@ public class OrderRequest {
         @Positive
         private int quantity;
 
-        private Object metadata;
+        @JsonRawValue
+        @JsonDeserialize(using = ItemMetadataDeserializer.class)
+        private String metadata;
 
         public String getProductId() {
             return productId;
@@ -54,11 +58,11 @@ public class OrderRequest {
             this.quantity = quantity;
         }
 
-        public Object getMetadata() {
+        public String getMetadata() {
             return metadata;
         }
 
-        public void setMetadata(Object metadata) {
+        public void setMetadata(String metadata) {
             this.metadata = metadata;
         }
     }
@@ -1,5 +1,6 @@
 package com.loomi.orders.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.loomi.orders.domain.OrderStatus;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -13,9 +14,11 @@ public class OrderResponse {
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
     private List<OrderItemResponse> items;
+    @JsonIgnore
+    private Long version;
 
     public OrderResponse(String orderId, String customerId, OrderStatus status, BigDecimal totalAmount,
-                         OffsetDateTime createdAt, OffsetDateTime updatedAt, List<OrderItemResponse> items) {
+                         OffsetDateTime createdAt, OffsetDateTime updatedAt, List<OrderItemResponse> items, Long version) {
         this.orderId = orderId;
         this.customerId = customerId;
         this.status = status;
@@ -23,6 +26,7 @@ public class OrderResponse {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.items = items;
+        this.version = version;
     }
 
     public String getOrderId() {
@@ -53,5 +57,10 @@ public class OrderResponse {
         return items;
     }
 
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
     public record OrderItemResponse(String itemId, String productId, int quantity, BigDecimal priceSnapshot) { }
 }
@@ -3,6 +3,8 @@ package com.loomi.orders.catalog;
 import com.loomi.orders.domain.ProductType;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.stereotype.Component;
@@ -41,6 +43,17 @@ public class ProductCatalog {
         return Optional.ofNullable(products.get(productId));
     }
 
+    /**
+     * Pre-order products whose release date is {@code date} or earlier, oldest release first.
+     */
+    public List<ProductRecord> findReleasedPreOrders(LocalDate date) {
+        return products.values().stream()
+                .filter(product -> product.productType() == ProductType.PRE_ORDER && product.releaseDate() != null
+                        && !product.releaseDate().isAfter(date))
+                .sorted(Comparator.comparing(ProductRecord::releaseDate).thenComparing(ProductRecord::productId))
+                .toList();
+    }
+
     public record ProductRecord(String productId, String name, ProductType productType, BigDecimal price, Integer stock,
                                 boolean active, LocalDate releaseDate, Integer preOrderSlots, Integer licenses) {
     }
@@ -1,14 +1,25 @@
 package com.loomi.orders.config;
 
+import com.loomi.orders.service.dedup.EventDeduplicator;
 import com.loomi.orders.service.events.FraudAlertEvent;
 import com.loomi.orders.service.events.LowStockAlertEvent;
 import com.loomi.orders.service.events.OrderCreatedEvent;
 import com.loomi.orders.service.events.OrderResultEvent;
+import com.loomi.orders.service.events.PreOrderReleasedEvent;
+import com.loomi.orders.service.replay.ReplayProperties;
+import com.loomi.orders.service.scaling.ListenerAutoscalingProperties;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.MockProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
@@ -21,8 +32,15 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
 import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.kafka.support.converter.MessagingMessageConverter;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -30,7 +48,10 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 public class KafkaConfig {
 
     @Bean
-    public ProducerFactory<String, OrderCreatedEvent> orderCreatedProducerFactory(KafkaProperties properties) {
+    public ProducerFactory<String, OrderCreatedEvent> orderCreatedProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new JsonSerializer<>());
+        }
         Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
@@ -39,14 +60,15 @@ public class KafkaConfig {
 
     @Bean
     public KafkaTemplate<String, OrderCreatedEvent> orderCreatedKafkaTemplate(ProducerFactory<String, OrderCreatedEvent> factory) {
-        return new KafkaTemplate<>(factory);
+        return observed(new KafkaTemplate<>(factory));
     }
 
     @Bean
     public ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory(KafkaProperties properties) {
         Map<String, Object> config = new HashMap<>(properties.buildConsumerProperties());
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderCreatedEvent.class.getName());
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         return new DefaultKafkaConsumerFactory<>(config);
@@ -56,24 +78,109 @@ public class KafkaConfig {
     public ConsumerFactory<String, OrderResultEvent> orderResultConsumerFactory(KafkaProperties properties) {
         Map<String, Object> config = new HashMap<>(properties.buildConsumerProperties());
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderResultEvent.class.getName());
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
+    /**
+     * Factory for the order-results broadcast consumer behind the SSE streams. Each instance joins its
+     * own throwaway group from the latest offset and never commits: status pushes are best effort, and
+     * a client that reconnects gets the current status as its first event. Bad records are skipped.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderResultEvent> orderResultBroadcastContainerFactory(
+            ConsumerFactory<String, OrderResultEvent> orderResultConsumerFactory, ReplayProperties replay) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderResultEvent> containerFactory = new ConcurrentKafkaListenerContainerFactory<>();
+        containerFactory.setConsumerFactory(orderResultConsumerFactory);
+        containerFactory.setAutoStartup(!replay.enabled());
+        containerFactory.getContainerProperties().setObservationEnabled(true);
+        containerFactory.getContainerProperties().setKafkaConsumerProperties(broadcastConsumerProperties());
+        containerFactory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerFactory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0L, 0L)));
+        return containerFactory;
+    }
+
+    private static Properties broadcastConsumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return properties;
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderCreatedListenerContainerFactory(
             ConsumerFactory<String, OrderCreatedEvent> factory,
-            ObjectProvider<CommonErrorHandler> errorHandlerProvider) {
+            ObjectProvider<CommonErrorHandler> errorHandlerProvider,
+            ListenerAutoscalingProperties autoscaling,
+            ReplayProperties replay,
+            EventDeduplicator deduplicator) {
+        // ponto de partida; o ListenerAutoscaler ajusta em runtime quando habilitado
+        return orderEventsAsyncContainerFactory(factory, errorHandlerProvider, autoscaling.minConcurrency(), replay, deduplicator);
+    }
+
+    /**
+     * Factory for the order-events-priority lane: same settings as the retail lane, with its own
+     * fixed number of consumers.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderPriorityListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> factory,
+            ObjectProvider<CommonErrorHandler> errorHandlerProvider,
+            OrderLaneProperties lanes,
+            ReplayProperties replay,
+            EventDeduplicator deduplicator) {
+        return orderEventsAsyncContainerFactory(factory, errorHandlerProvider, lanes.priorityConcurrency(), replay, deduplicator);
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderEventsAsyncContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> factory,
+            ObjectProvider<CommonErrorHandler> errorHandlerProvider,
+            int concurrency,
+            ReplayProperties replay,
+            EventDeduplicator deduplicator) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> containerFactory = orderEventsContainerFactory(factory, replay, deduplicator);
+        containerFactory.setCommonErrorHandler(errorHandlerProvider.getIfAvailable(this::defaultErrorHandler));
+        // o listener devolve CompletableFuture; o offset só é comitado quando o processamento termina
+        containerFactory.getContainerProperties().setAsyncAcks(true);
+        containerFactory.setConcurrency(concurrency);
+        return containerFactory;
+    }
+
+    /**
+     * Factory for the order-events retry topics. Async acks stay off here: a record consumed before its
+     * retry is due is paused and re-polled, and an outstanding async ack would keep the partition paused.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderEventsRetryListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> factory, ReplayProperties replay, EventDeduplicator deduplicator) {
+        return orderEventsContainerFactory(factory, replay, deduplicator);
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderEventsContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> factory, ReplayProperties replay, EventDeduplicator deduplicator) {
         ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> containerFactory = new ConcurrentKafkaListenerContainerFactory<>();
         containerFactory.setConsumerFactory(factory);
-        containerFactory.setCommonErrorHandler(errorHandlerProvider.getIfAvailable(this::defaultErrorHandler));
+        // em replay o TrafficReplayer chama o listener direto; nenhum consumer entra nos grupos de produção
+        containerFactory.setAutoStartup(!replay.enabled());
+        // continua o trace do traceparent do registro
+        containerFactory.getContainerProperties().setObservationEnabled(true);
+        // partições recebidas de outra instância reentregam eventos que só o filtro dela conhecia
+        containerFactory.getContainerProperties().setConsumerRebalanceListener(deduplicator);
+        // expõe o ConsumerRecord para o OrderEventsListenerErrorHandler
+        MessagingMessageConverter converter = new MessagingMessageConverter();
+        converter.setRawRecordHeader(true);
+        containerFactory.setRecordMessageConverter(converter);
         return containerFactory;
     }
 
     @Bean
-    public ProducerFactory<String, OrderResultEvent> orderResultProducerFactory(KafkaProperties properties) {
+    public ProducerFactory<String, OrderResultEvent> orderResultProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new JsonSerializer<>());
+        }
         Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
@@ -82,11 +189,14 @@ public class KafkaConfig {
 
     @Bean
     public KafkaTemplate<String, OrderResultEvent> orderResultKafkaTemplate(ProducerFactory<String, OrderResultEvent> factory) {
-        return new KafkaTemplate<>(factory);
+        return observed(new KafkaTemplate<>(factory));
     }
 
     @Bean
-    public ProducerFactory<String, LowStockAlertEvent> lowStockProducerFactory(KafkaProperties properties) {
+    public ProducerFactory<String, LowStockAlertEvent> lowStockProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new JsonSerializer<>());
+        }
         Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
@@ -95,11 +205,14 @@ public class KafkaConfig {
 
     @Bean
     public KafkaTemplate<String, LowStockAlertEvent> lowStockKafkaTemplate(ProducerFactory<String, LowStockAlertEvent> factory) {
-        return new KafkaTemplate<>(factory);
+        return observed(new KafkaTemplate<>(factory));
     }
 
     @Bean
-    public ProducerFactory<String, FraudAlertEvent> fraudAlertProducerFactory(KafkaProperties properties) {
+    public ProducerFactory<String, FraudAlertEvent> fraudAlertProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new JsonSerializer<>());
+        }
         Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
@@ -108,7 +221,109 @@ public class KafkaConfig {
 
     @Bean
     public KafkaTemplate<String, FraudAlertEvent> fraudAlertKafkaTemplate(ProducerFactory<String, FraudAlertEvent> factory) {
-        return new KafkaTemplate<>(factory);
+        return observed(new KafkaTemplate<>(factory));
+    }
+
+    @Bean
+    public ProducerFactory<String, PreOrderReleasedEvent> preOrderReleaseProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new JsonSerializer<>());
+        }
+        Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, PreOrderReleasedEvent> preOrderReleaseKafkaTemplate(ProducerFactory<String, PreOrderReleasedEvent> factory) {
+        return observed(new KafkaTemplate<>(factory));
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory(KafkaProperties properties) {
+        Map<String, Object> config = new HashMap<>(properties.buildConsumerProperties());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> deadLetterReplayProducerFactory(KafkaProperties properties, ReplayProperties replay) {
+        if (replay.enabled()) {
+            return inMemory(new ByteArraySerializer());
+        }
+        Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> deadLetterReplayKafkaTemplate(ProducerFactory<String, byte[]> factory) {
+        return observed(new KafkaTemplate<>(factory));
+    }
+
+    /**
+     * Template used to forward failed records to retry topics and the DLT. Records that could not be
+     * deserialized arrive as raw bytes and are forwarded unchanged; everything else is JSON.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> retryKafkaTemplate(KafkaProperties properties, ReplayProperties replay) {
+        Map<Class<?>, Serializer<?>> delegates = new LinkedHashMap<>();
+        delegates.put(byte[].class, new ByteArraySerializer());
+        delegates.put(Object.class, new JsonSerializer<>());
+        DelegatingByTypeSerializer serializer = new DelegatingByTypeSerializer(delegates, true);
+        if (replay.enabled()) {
+            return observed(new KafkaTemplate<>(inMemory(serializer)));
+        }
+        Map<String, Object> config = new HashMap<>(properties.buildProducerProperties());
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config,
+                new StringSerializer(), serializer);
+        return observed(new KafkaTemplate<>(factory));
+    }
+
+    /**
+     * Non-blocking retries for both order-events lanes: a failed record is moved to
+     * {@code <topic>-retry-N} topics with exponential delays and finally to {@code <topic>-dlt},
+     * so the main partition keeps flowing. The DLT is not consumed by the application; records stay
+     * there until replayed through the admin endpoint.
+     */
+    @Bean
+    public RetryTopicConfiguration orderEventsRetryTopicConfiguration(KafkaTemplate<String, Object> retryKafkaTemplate,
+                                                                      OrderEventsRetryProperties retry,
+                                                                      ReplayProperties replay) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopics(List.of("order-events", "order-events-priority"))
+                .listenerFactory("orderEventsRetryListenerContainerFactory")
+                .maxAttempts(retry.maxAttempts())
+                .exponentialBackoff(retry.initialDelay().toMillis(), retry.multiplier(), retry.maxDelay().toMillis())
+                .retryTopicSuffix("-retry")
+                .dltSuffix("-dlt")
+                .suffixTopicsWithIndexValues()
+                // em replay nenhum tópico é criado no broker
+                .autoCreateTopics(!replay.enabled(), retry.partitions(), retry.replicationFactor())
+                .autoStartDltHandler(false)
+                .create(retryKafkaTemplate);
+    }
+
+    /**
+     * Every template records a producer observation, which writes the current trace into the record's
+     * {@code traceparent} header.
+     */
+    private static <K, V> KafkaTemplate<K, V> observed(KafkaTemplate<K, V> template) {
+        // o MockProducerFactory do replay não tem bootstrap servers para a observação resolver o cluster
+        template.setObservationEnabled(!(template.getProducerFactory() instanceof MockProducerFactory));
+        return template;
+    }
+
+    /**
+     * Producer factory for replay mode: every send completes at once against a {@link MockProducer}
+     * that is dropped afterwards, so replayed results and alerts never reach a broker.
+     */
+    private static <V> ProducerFactory<String, V> inMemory(Serializer<V> valueSerializer) {
+        return new MockProducerFactory<>(() -> new MockProducer<>(true, new StringSerializer(), valueSerializer));
     }
 
     @Bean
@@ -0,0 +1,71 @@
+package com.loomi.orders.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.KafkaListenerErrorHandler;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.retrytopic.RetryTopicBeanNames;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+/**
+ * The order-events listeners complete asynchronously, and failures of the returned future never reach
+ * the container error handler that drives the retry topics. This handler receives them instead and
+ * forwards the record to the next retry topic (or the DLT) using the same destination resolution as
+ * the container would, then acknowledges the original offset. Destinations are resolved per main
+ * listener, which is told apart by the lane's topic prefix.
+ */
+@Component("orderEventsListenerErrorHandler")
+public class OrderEventsListenerErrorHandler implements KafkaListenerErrorHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderEventsListenerErrorHandler.class);
+    public static final String LISTENER_ID = "orderProcessor";
+    public static final String PRIORITY_LISTENER_ID = "orderProcessorPriority";
+    private static final String PRIORITY_TOPIC = "order-events-priority";
+
+    private final BeanFactory beanFactory;
+    private final Map<String, DeadLetterPublishingRecoverer> recoverers = new ConcurrentHashMap<>();
+
+    public OrderEventsListenerErrorHandler(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object handleError(Message<?> message, ListenerExecutionFailedException exception) {
+        throw exception;
+    }
+
+    @Override
+    public Object handleError(Message<?> message, ListenerExecutionFailedException exception,
+                              Consumer<?, ?> consumer, Acknowledgment ack) {
+        ConsumerRecord<?, ?> record = message.getHeaders().get(KafkaHeaders.RAW_DATA, ConsumerRecord.class);
+        if (record == null) {
+            throw exception;
+        }
+        LOG.warn("Order event {} from {}-{}@{} failed, forwarding for retry: {}", record.key(), record.topic(),
+                record.partition(), record.offset(), exception.getMostSpecificCause().getMessage());
+        String listenerId = record.topic().startsWith(PRIORITY_TOPIC) ? PRIORITY_LISTENER_ID : LISTENER_ID;
+        recoverer(listenerId).accept(record, consumer, exception);
+        if (ack != null) {
+            ack.acknowledge();
+        }
+        return null;
+    }
+
+    private DeadLetterPublishingRecoverer recoverer(String listenerId) {
+        return recoverers.computeIfAbsent(listenerId, id -> {
+            DestinationTopicResolver resolver = beanFactory.getBean(
+                    RetryTopicBeanNames.DESTINATION_TOPIC_RESOLVER_BEAN_NAME, DestinationTopicResolver.class);
+            return new DeadLetterPublishingRecovererFactory(resolver).create(id);
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.loomi.orders.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.retry")
+public record OrderEventsRetryProperties(
+        @DefaultValue("4") int maxAttempts,
+        @DefaultValue("PT1S") Duration initialDelay,
+        @DefaultValue("5.0") double multiplier,
+        @DefaultValue("PT1M") Duration maxDelay,
+        @DefaultValue("-1") int partitions,
+        @DefaultValue("-1") short replicationFactor) {
+}
@@ -0,0 +1,19 @@
+package com.loomi.orders.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Capacity of the order-events-priority lane, which carries corporate and high-value orders on a
+ * listener of its own so they neither wait behind nor hold up retail orders.
+ */
+@ConfigurationProperties(prefix = "orders.lanes")
+public record OrderLaneProperties(
+        @DefaultValue("1") int priorityConcurrency) {
+
+    public OrderLaneProperties {
+        if (priorityConcurrency <= 0) {
+            throw new IllegalArgumentException("orders.lanes.priority-concurrency must be positive");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.loomi.orders.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How order checks report rejections. By default processing stops at the first failure; with
+ * {@code collectAllFailures} every global and item check still runs, so the failed result lists all
+ * reasons the order was rejected at once. Orders with at least {@code parallelThreshold} items have their
+ * independent item checks run concurrently on virtual threads.
+ */
+@ConfigurationProperties(prefix = "orders.validation")
+public record OrderValidationProperties(
+        @DefaultValue("false") boolean collectAllFailures,
+        @DefaultValue("16") int parallelThreshold) {
+
+    public OrderValidationProperties {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("orders.validation.parallel-threshold must be positive");
+        }
+    }
+}
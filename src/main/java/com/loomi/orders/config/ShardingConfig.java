@@ -0,0 +1,65 @@
+package com.loomi.orders.config;
+
+import com.loomi.orders.service.sharding.ReadReplica;
+import com.loomi.orders.service.sharding.ReplicaProperties;
+import com.loomi.orders.service.sharding.ShardRoutingDataSource;
+import com.loomi.orders.service.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Replaces the auto-configured pool with one Hikari pool per shard and per read replica behind a
+ * {@link ShardRoutingDataSource}. Every pool gets the {@code spring.datasource.hikari} settings;
+ * pools connect lazily, like the auto-configured one.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties, ShardingProperties sharding,
+                                             ReplicaProperties replicaProperties, Environment environment) {
+        HikariConfig base = new HikariConfig();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(base));
+        base.setDriverClassName(properties.determineDriverClassName());
+
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(pool(base, 0, properties.determineUrl(), properties.determineUsername(), properties.determinePassword()));
+        for (ShardingProperties.Shard shard : sharding.shards()) {
+            shards.add(pool(base, shards.size(), shard.url(), shard.username(), shard.password()));
+        }
+
+        List<ReadReplica> replicas = new ArrayList<>();
+        for (ReplicaProperties.Endpoint endpoint : replicaProperties.endpoints()) {
+            String name = "shard-%d-replica-%d".formatted(endpoint.shard(), replicas.size());
+            HikariDataSource replica = pool(base, name, endpoint.url(), endpoint.username(), endpoint.password());
+            replica.setReadOnly(true);
+            // réplica que não entrega conexão dentro do lag tolerado não serve; também evita travar o scheduler na checagem
+            replica.setConnectionTimeout(Math.max(250L, Math.min(base.getConnectionTimeout(), replicaProperties.maxLag().toMillis())));
+            replicas.add(new ReadReplica(endpoint.shard(), name, replica));
+        }
+        return new ShardRoutingDataSource(shards, replicas);
+    }
+
+    private static HikariDataSource pool(HikariConfig base, int shard, String url, String username, String password) {
+        return pool(base, "shard-" + shard, url, username, password);
+    }
+
+    private static HikariDataSource pool(HikariConfig base, String name, String url, String username, String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        base.copyStateTo(dataSource);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName((base.getPoolName() == null ? "orders" : base.getPoolName()) + "-" + name);
+        return dataSource;
+    }
+}
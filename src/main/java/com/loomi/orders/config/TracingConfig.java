@@ -0,0 +1,26 @@
+package com.loomi.orders.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.tracing.FileSpanExporter;
+import com.loomi.orders.tracing.InMemorySpanExporter;
+import com.loomi.orders.tracing.SpanExporter;
+import com.loomi.orders.tracing.TracingProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the span exporter from {@code orders.tracing.exporter}. A collector client (OTLP, Zipkin) plugs in
+ * by returning its own {@link SpanExporter} here; nothing else depends on where spans go.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        return switch (properties.exporter()) {
+            case NONE -> SpanExporter.NONE;
+            case MEMORY -> new InMemorySpanExporter(properties.memoryCapacity());
+            case FILE -> new FileSpanExporter(properties.file(), objectMapper);
+        };
+    }
+}
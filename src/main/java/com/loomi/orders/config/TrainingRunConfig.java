@@ -0,0 +1,37 @@
+package com.loomi.orders.config;
+
+import com.loomi.orders.service.sharding.ShardRoutingDataSource;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Support for the class-data-sharing training run of the fast-start build. The training run
+ * refreshes the context with {@code spring.context.exit=onRefresh} and no database, so the
+ * migration is skipped there. This is a runtime check on purpose: with Spring AOT the set of
+ * beans is fixed at build time and {@code spring.flyway.enabled} can no longer switch it off.
+ * Outside training the same migrations run on every shard.
+ */
+@Configuration
+public class TrainingRunConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(TrainingRunConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${orders.startup.training:false}") boolean training,
+                                                           ShardRoutingDataSource dataSource) {
+        return flyway -> {
+            if (training) {
+                LOG.info("Training run, skipping Flyway migration");
+                return;
+            }
+            for (DataSource shard : dataSource.shards()) {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            }
+        };
+    }
+}
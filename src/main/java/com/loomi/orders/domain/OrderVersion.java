@@ -0,0 +1,18 @@
+package com.loomi.orders.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * What identifies one state of an order: every write bumps {@code version} and {@code updatedAt}, and items
+ * never change after creation.
+ */
+public record OrderVersion(Long version, OffsetDateTime updatedAt) {
+
+    /**
+     * Strong entity tag for the order representation. Milliseconds only, so the tag of a freshly built
+     * entity matches the one read back from the microsecond column.
+     */
+    public String eTag() {
+        return "\"%d-%d\"".formatted(version, updatedAt.toInstant().toEpochMilli());
+    }
+}
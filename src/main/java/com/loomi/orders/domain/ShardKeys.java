@@ -0,0 +1,44 @@
+package com.loomi.orders.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Maps customers to one of {@value #BUCKETS} virtual buckets and encodes the bucket in the order id
+ * ({@code "3f-<uuid>"}), so an order can be routed from its id alone. The bucket count is fixed:
+ * changing it would move every customer. Which shard owns a bucket is decided by the sharding service.
+ */
+public final class ShardKeys {
+    public static final int BUCKETS = 256;
+    public static final int LEGACY_BUCKET = -1;
+
+    private ShardKeys() {
+    }
+
+    public static int bucketOfCustomer(String customerId) {
+        CRC32 crc = new CRC32();
+        crc.update(customerId.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % BUCKETS);
+    }
+
+    public static String newOrderId(String customerId) {
+        return "%02x-%s".formatted(bucketOfCustomer(customerId), UUID.randomUUID());
+    }
+
+    /**
+     * @return the bucket encoded in {@code orderId}, or {@link #LEGACY_BUCKET} for ids created before sharding
+     */
+    public static int bucketOfOrder(String orderId) {
+        if (orderId == null || orderId.length() < 4 || orderId.charAt(2) != '-'
+                || !HexFormat.isHexDigit(orderId.charAt(0)) || !HexFormat.isHexDigit(orderId.charAt(1))) {
+            return LEGACY_BUCKET;
+        }
+        return HexFormat.fromHexDigits(orderId, 0, 2);
+    }
+
+    public static String orderIdPrefix(int bucket) {
+        return "%02x-".formatted(bucket);
+    }
+}
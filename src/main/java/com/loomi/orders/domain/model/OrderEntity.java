@@ -1,6 +1,7 @@
 package com.loomi.orders.domain.model;
 
 import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.ShardKeys;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,11 +10,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
@@ -38,12 +39,17 @@ public class OrderEntity {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    // wrapper de propósito: versão nula marca entidade nova e save() faz persist em vez de merge (sem SELECT prévio)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItemEntity> items = new ArrayList<>();
 
     public static OrderEntity create(String customerId) {
         OrderEntity entity = new OrderEntity();
-        entity.orderId = UUID.randomUUID().toString();
+        entity.orderId = ShardKeys.newOrderId(customerId);
         entity.customerId = customerId;
         entity.status = OrderStatus.PENDING;
         entity.createdAt = OffsetDateTime.now();
@@ -51,16 +57,25 @@ public class OrderEntity {
         return entity;
     }
 
+    /**
+     * A {@code PENDING} order with an id assigned elsewhere, e.g. one being replayed from a capture.
+     */
+    public static OrderEntity pending(String orderId, String customerId, BigDecimal totalAmount, OffsetDateTime createdAt) {
+        OrderEntity entity = new OrderEntity();
+        entity.orderId = orderId;
+        entity.customerId = customerId;
+        entity.status = OrderStatus.PENDING;
+        entity.totalAmount = totalAmount;
+        entity.createdAt = createdAt;
+        entity.updatedAt = createdAt;
+        return entity;
+    }
+
     public void addItem(OrderItemEntity item) {
         item.setOrder(this);
         this.items.add(item);
     }
 
-    public void updateStatus(OrderStatus status) {
-        this.status = status;
-        this.updatedAt = OffsetDateTime.now();
-    }
-
     public String getOrderId() {
         return orderId;
     }
@@ -89,6 +104,10 @@ public class OrderEntity {
         return updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public List<OrderItemEntity> getItems() {
         return items;
     }
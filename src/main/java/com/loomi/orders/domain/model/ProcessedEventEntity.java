@@ -0,0 +1,37 @@
+package com.loomi.orders.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEventEntity {
+    @Id
+    @Column(name = "event_id", nullable = false, updatable = false)
+    private String eventId;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private String orderId;
+
+    @Column(name = "processed_at", nullable = false, updatable = false)
+    private OffsetDateTime processedAt;
+
+    protected ProcessedEventEntity() {
+        // JPA
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public OffsetDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.loomi.orders.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Event types for high-volume log lines on the processing hot path. {@link SamplingTurboFilter}
+ * samples and rate-limits by marker name, so each constant here can be tuned independently in
+ * {@code logback-spring.xml}.
+ */
+public final class LogMarkers {
+    public static final Marker ORDER_RECEIVED = MarkerFactory.getMarker("ORDER_RECEIVED");
+    public static final Marker ITEM_RESERVED = MarkerFactory.getMarker("ITEM_RESERVED");
+    public static final Marker LICENSE_GENERATED = MarkerFactory.getMarker("LICENSE_GENERATED");
+    public static final Marker DIGITAL_DELIVERY = MarkerFactory.getMarker("DIGITAL_DELIVERY");
+    public static final Marker BILLING_SCHEDULED = MarkerFactory.getMarker("BILLING_SCHEDULED");
+    public static final Marker DISCOUNT_APPLIED = MarkerFactory.getMarker("DISCOUNT_APPLIED");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,56 @@
+package com.loomi.orders.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes how much logging is being shed: events dropped by {@link SamplingTurboFilter} and the
+ * remaining capacity of the async appender queue. Both are looked up on every read because the
+ * logging system is reconfigured during startup.
+ */
+@Component
+public class LoggingMetrics {
+    static final String ASYNC_APPENDER = "ASYNC";
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("orders.logging.suppressed", this, LoggingMetrics::suppressed)
+                .description("Log events dropped by sampling or rate limiting")
+                .register(meterRegistry);
+        Gauge.builder("orders.logging.queue.remaining", this, LoggingMetrics::queueRemaining)
+                .description("Free slots in the async log appender queue")
+                .register(meterRegistry);
+    }
+
+    double suppressed() {
+        LoggerContext context = loggerContext();
+        if (context == null) {
+            return 0;
+        }
+        return context.getTurboFilterList().stream()
+                .filter(SamplingTurboFilter.class::isInstance)
+                .mapToLong(filter -> ((SamplingTurboFilter) filter).suppressedCount())
+                .sum();
+    }
+
+    double queueRemaining() {
+        LoggerContext context = loggerContext();
+        if (context == null) {
+            return Double.NaN;
+        }
+        if (context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).getAppender(ASYNC_APPENDER) instanceof AsyncAppender async) {
+            return async.getRemainingCapacity();
+        }
+        return Double.NaN;
+    }
+
+    private static LoggerContext loggerContext() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        return factory instanceof LoggerContext context ? context : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.loomi.orders.logging;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.slf4j.MDC;
+
+/**
+ * Carries the caller's MDC onto other threads. The context is captured when the executor is
+ * created, not when a task is submitted: {@code CompletableFuture} continuations are submitted
+ * by whichever thread completes the stage (gateway, timer), which never has the order's MDC.
+ */
+public final class MdcPropagation {
+
+    private MdcPropagation() {
+    }
+
+    /**
+     * Returns an executor that runs every task on {@code delegate} with the MDC of the calling
+     * thread, restoring the worker's own context afterwards.
+     */
+    public static Executor withCurrentContext(Executor delegate) {
+        Map<String, String> captured = MDC.getCopyOfContextMap();
+        return task -> delegate.execute(wrap(task, captured));
+    }
+
+    static Runnable wrap(Runnable task, Map<String, String> captured) {
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setContext(captured);
+            try {
+                task.run();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
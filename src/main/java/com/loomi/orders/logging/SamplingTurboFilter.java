@@ -0,0 +1,137 @@
+package com.loomi.orders.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Marker;
+
+/**
+ * Per-event-type sampling and rate limiting, keyed by marker name. Rules are declared in
+ * {@code logback-spring.xml}:
+ * <pre>
+ * &lt;sample&gt;ITEM_RESERVED=100&lt;/sample&gt;        keeps one in every 100 events
+ * &lt;rateLimit&gt;ORDER_RECEIVED=200&lt;/rateLimit&gt;  at most 200 events per second
+ * </pre>
+ * Both can apply to the same marker. WARN and above, unmarked events and events below the
+ * logger's level are never touched, so sampling counters only advance for lines that would
+ * otherwise be written.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private final Clock clock;
+    private final Map<String, Long> sampleEvery = new HashMap<>();
+    private final Map<String, Long> ratePerSecond = new HashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+    private volatile Map<String, Rule> rules = Map.of();
+
+    public SamplingTurboFilter() {
+        this(Clock.systemUTC());
+    }
+
+    SamplingTurboFilter(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void addSample(String spec) {
+        parse(spec, "sample", sampleEvery);
+    }
+
+    public void addRateLimit(String spec) {
+        parse(spec, "rateLimit", ratePerSecond);
+    }
+
+    @Override
+    public void start() {
+        Map<String, Rule> built = new HashMap<>();
+        sampleEvery.forEach((marker, every) -> built.put(marker, new Rule(every, ratePerSecond.getOrDefault(marker, 0L))));
+        ratePerSecond.forEach((marker, limit) -> built.putIfAbsent(marker, new Rule(1, limit)));
+        rules = Map.copyOf(built);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format nulo vem de isXxxEnabled(marker): não consome amostra nem cota
+        if (!isStarted() || marker == null || level == null || format == null
+                || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Rule rule = rules.get(marker.getName());
+        if (rule == null || rule.admit(clock.millis() / 1000)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Events dropped by sampling or rate limiting since startup.
+     */
+    public long suppressedCount() {
+        return suppressed.sum();
+    }
+
+    private void parse(String spec, String element, Map<String, Long> target) {
+        int separator = spec == null ? -1 : spec.indexOf('=');
+        if (separator <= 0) {
+            addError("Invalid <%s> '%s', expected MARKER=value".formatted(element, spec));
+            return;
+        }
+        String marker = spec.substring(0, separator).trim();
+        try {
+            long value = Long.parseLong(spec.substring(separator + 1).trim());
+            if (value <= 0) {
+                addError("Invalid <%s> value for %s, must be positive".formatted(element, marker));
+                return;
+            }
+            target.put(marker, value);
+        } catch (NumberFormatException ex) {
+            addError("Invalid <%s> value for %s: %s".formatted(element, marker, ex.getMessage()));
+        }
+    }
+
+    private static final class Rule {
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final long every;
+        private final long limit;
+        private final AtomicLong seen = new AtomicLong();
+        // segundo corrente nos bits altos, eventos aceitos nesse segundo nos bits baixos
+        private final AtomicLong window = new AtomicLong();
+
+        private Rule(long every, long limit) {
+            this.every = every;
+            this.limit = Math.min(limit, COUNT_MASK);
+        }
+
+        boolean admit(long nowSecond) {
+            if (every > 1 && seen.getAndIncrement() % every != 0) {
+                return false;
+            }
+            return limit == 0 || tryAcquire(nowSecond);
+        }
+
+        private boolean tryAcquire(long nowSecond) {
+            while (true) {
+                long current = window.get();
+                long next;
+                if (current >>> COUNT_BITS != nowSecond) {
+                    next = (nowSecond << COUNT_BITS) | 1;
+                } else if ((current & COUNT_MASK) >= limit) {
+                    return false;
+                } else {
+                    next = current + 1;
+                }
+                if (window.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.loomi.orders.profiling;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/jfr}: {@code POST {"profile":"CPU","duration":"PT30S"}} starts a recording, {@code GET}
+ * reports it, {@code DELETE} stops it early and {@code GET /actuator/jfr/{file}} downloads the finished
+ * {@code .jfr}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+    private final FlightRecorderService recorder;
+
+    public FlightRecorderEndpoint(FlightRecorderService recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> status() {
+        return recorder.status()
+                .<WebEndpointResponse<Object>>map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(Map.of("state", "NONE")));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(String profile, @Nullable String duration) {
+        RecordingProfile preset;
+        Duration length;
+        try {
+            preset = RecordingProfile.valueOf(profile.toUpperCase(Locale.ROOT));
+            length = duration == null ? null : Duration.parse(duration);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, "Unknown profile or malformed duration");
+        }
+        try {
+            return new WebEndpointResponse<>(recorder.start(preset, length));
+        } catch (IllegalArgumentException ex) {
+            return error(WebEndpointResponse.STATUS_BAD_REQUEST, ex.getMessage());
+        } catch (IllegalStateException ex) {
+            return error(409, ex.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> stop() {
+        return recorder.stop()
+                .<WebEndpointResponse<Object>>map(WebEndpointResponse::new)
+                .orElseGet(() -> error(WebEndpointResponse.STATUS_NOT_FOUND, "No recording"));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String file) {
+        if (recorder.isRunning(file)) {
+            return new WebEndpointResponse<>(409);
+        }
+        return recorder.finishedRecording(file)
+                .map(path -> new WebEndpointResponse<Resource>(new FileSystemResource(path)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    private static WebEndpointResponse<Object> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
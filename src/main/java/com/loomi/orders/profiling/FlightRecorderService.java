@@ -0,0 +1,144 @@
+package com.loomi.orders.profiling;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Optional;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs at most one Flight Recorder recording at a time. A recording stops by itself after its duration and
+ * is written to {@code orders.profiling.directory}; starting the next one deletes the previous file.
+ */
+@Component
+public class FlightRecorderService {
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final ProfilingProperties properties;
+    private final Clock clock;
+    private Recording recording;
+    private RecordingProfile profile;
+    private Instant startedAt;
+    private Path file;
+
+    @Autowired
+    public FlightRecorderService(ProfilingProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    FlightRecorderService(ProfilingProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * @param duration null for {@code orders.profiling.default-duration}
+     * @throws IllegalArgumentException when {@code duration} is not positive or above {@code max-duration}
+     * @throws IllegalStateException when a recording is already running
+     */
+    public synchronized RecordingStatus start(RecordingProfile profile, Duration duration) {
+        Duration length = duration == null ? properties.defaultDuration() : duration;
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.maxDuration()) > 0) {
+            throw new IllegalArgumentException("Recording duration must be positive and at most " + properties.maxDuration());
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A %s recording is already running".formatted(this.profile));
+        }
+        discard();
+        Instant now = clock.instant();
+        Path target = properties.directory().resolve("loomi-%s-%s.jfr".formatted(profile.name().toLowerCase(Locale.ROOT), FILE_TIMESTAMP.format(now)));
+        Recording next = new Recording(profile.settings());
+        next.setName("loomi-" + profile.name().toLowerCase(Locale.ROOT));
+        next.setToDisk(true);
+        next.setDuration(length);
+        try {
+            next.setDestination(target);
+        } catch (IOException ex) {
+            next.close();
+            throw new IllegalStateException("Cannot write recordings to " + properties.directory(), ex);
+        }
+        next.start();
+        recording = next;
+        this.profile = profile;
+        startedAt = now;
+        file = target;
+        LOG.info("Started {} flight recording for {} into {}", profile, length, target);
+        return status().orElseThrow();
+    }
+
+    /**
+     * Stops the running recording early; its file is written as if the duration had elapsed.
+     */
+    public synchronized Optional<RecordingStatus> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            LOG.info("Stopped {} flight recording early", profile);
+        }
+        return status();
+    }
+
+    public synchronized Optional<RecordingStatus> status() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RecordingStatus(profile, recording.getState(), startedAt, recording.getDuration(),
+                file.getFileName().toString(), isFinished() ? sizeOf(file) : null));
+    }
+
+    /**
+     * @return the finished recording called {@code name}, empty when there is none or it is still running
+     */
+    public synchronized Optional<Path> finishedRecording(String name) {
+        if (recording == null || !file.getFileName().toString().equals(name) || !isFinished()) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    public synchronized boolean isRunning(String name) {
+        return recording != null && file.getFileName().toString().equals(name) && !isFinished();
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                LOG.warn("Could not delete old recording {}: {}", file, ex.getMessage());
+            }
+            recording = null;
+        }
+    }
+
+    private boolean isFinished() {
+        RecordingState state = recording.getState();
+        return (state == RecordingState.STOPPED || state == RecordingState.CLOSED) && Files.exists(file);
+    }
+
+    private static Long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    public record RecordingStatus(RecordingProfile profile, RecordingState state, Instant startedAt, Duration duration,
+                                  String file, Long sizeBytes) {
+    }
+}
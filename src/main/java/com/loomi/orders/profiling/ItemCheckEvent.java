@@ -0,0 +1,45 @@
+package com.loomi.orders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code ItemHandler.check} call for an order item.
+ */
+@Name("com.loomi.orders.ItemCheck")
+@Label("Item Check")
+@Description("Per-item check run by the handler for the product type")
+@Category({"Loomi", "Orders"})
+@StackTrace(false)
+public class ItemCheckEvent extends jdk.jfr.Event {
+    @Label("Product Id")
+    String productId;
+
+    @Label("Product Type")
+    String productType;
+
+    @Label("Failure")
+    String failure;
+
+    public static ItemCheckEvent start(String productId, String productType) {
+        ItemCheckEvent event = new ItemCheckEvent();
+        event.productId = productId;
+        event.productType = productType;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param failure null when the item was accepted
+     */
+    public void finish(String failure) {
+        end();
+        if (shouldCommit()) {
+            this.failure = failure;
+            commit();
+        }
+    }
+}
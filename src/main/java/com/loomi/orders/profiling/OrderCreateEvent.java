@@ -0,0 +1,45 @@
+package com.loomi.orders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code OrderService.create} call, from the shard write to the recorded order.
+ */
+@Name("com.loomi.orders.OrderCreate")
+@Label("Order Create")
+@Description("Order accepted through the API and written to its shard")
+@Category({"Loomi", "Orders"})
+@StackTrace(false)
+public class OrderCreateEvent extends jdk.jfr.Event {
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Customer Id")
+    String customerId;
+
+    @Label("Items")
+    int items;
+
+    public static OrderCreateEvent start(String customerId, int items) {
+        OrderCreateEvent event = new OrderCreateEvent();
+        event.customerId = customerId;
+        event.items = items;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param orderId null when the call failed
+     */
+    public void finish(String orderId) {
+        end();
+        if (shouldCommit()) {
+            this.orderId = orderId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.loomi.orders.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One order decided by {@code OrderProcessor}, from the payment result to the status transition.
+ */
+@Name("com.loomi.orders.OrderProcessing")
+@Label("Order Processing")
+@Description("Order validated and moved out of PENDING by the processor")
+@Category({"Loomi", "Orders"})
+@StackTrace(false)
+public class OrderProcessingEvent extends jdk.jfr.Event {
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Shard")
+    int shard;
+
+    @Label("Outcome")
+    @Description("Status the order moved to, SKIPPED when another delivery or transition won")
+    String outcome;
+
+    public static OrderProcessingEvent start(String orderId, int shard) {
+        OrderProcessingEvent event = new OrderProcessingEvent();
+        event.orderId = orderId;
+        event.shard = shard;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.loomi.orders.profiling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds for recordings started through the {@code jfr} actuator endpoint. {@code directory} defaults to
+ * the JVM temp dir; only the latest recording is kept there.
+ */
+@ConfigurationProperties(prefix = "orders.profiling")
+public record ProfilingProperties(
+        @DefaultValue("PT1M") Duration defaultDuration,
+        @DefaultValue("PT10M") Duration maxDuration,
+        Path directory) {
+
+    public ProfilingProperties {
+        if (defaultDuration.isNegative() || defaultDuration.isZero() || maxDuration.compareTo(defaultDuration) < 0) {
+            throw new IllegalArgumentException("orders.profiling.default-duration must be positive and not above max-duration");
+        }
+        directory = directory == null ? Path.of(System.getProperty("java.io.tmpdir")) : directory;
+    }
+}
@@ -0,0 +1,56 @@
+package com.loomi.orders.profiling;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+
+/**
+ * Presets for on-demand recordings. Each starts from one of the JDK's bundled configurations and turns up
+ * the events that answer one question; the order events in this package are on in all of them. None of
+ * them records the environment variables or system and security properties the JVM started with, which
+ * carry credentials here.
+ */
+public enum RecordingProfile {
+    /** Where CPU time goes: method samples every 10 ms. */
+    CPU("profile", Map.of(
+            "jdk.ExecutionSample#period", "10 ms",
+            "jdk.NativeMethodSample#period", "20 ms")),
+    /** What allocates: sampled allocation sites and surviving old objects. */
+    ALLOCATION("default", Map.of(
+            "jdk.ObjectAllocationSample#enabled", "true",
+            "jdk.ObjectAllocationSample#throttle", "300/s",
+            "jdk.OldObjectSample#enabled", "true",
+            "jdk.OldObjectSample#cutoff", "0 ns")),
+    /** Who waits on whom: monitor, park and virtual-thread pinning above 1 ms. */
+    LOCKS("default", Map.of(
+            "jdk.JavaMonitorEnter#threshold", "1 ms",
+            "jdk.JavaMonitorWait#threshold", "1 ms",
+            "jdk.ThreadPark#threshold", "1 ms",
+            "jdk.VirtualThreadPinned#enabled", "true",
+            "jdk.VirtualThreadPinned#threshold", "1 ms"));
+
+    private static final Map<String, String> REDACTED = Map.of(
+            "jdk.InitialEnvironmentVariable#enabled", "false",
+            "jdk.InitialSystemProperty#enabled", "false",
+            "jdk.InitialSecurityProperty#enabled", "false");
+
+    private final String base;
+    private final Map<String, String> overrides;
+
+    RecordingProfile(String base, Map<String, String> overrides) {
+        this.base = base;
+        this.overrides = overrides;
+    }
+
+    Map<String, String> settings() {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(base).getSettings());
+            settings.putAll(overrides);
+            settings.putAll(REDACTED);
+            return settings;
+        } catch (java.io.IOException | ParseException ex) {
+            throw new IllegalStateException("JFR configuration " + base + " is not available", ex);
+        }
+    }
+}
@@ -1,14 +1,66 @@
 package com.loomi.orders.repository;
 
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.OrderVersion;
 import com.loomi.orders.domain.model.OrderEntity;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, String> {
     Optional<OrderEntity> findByOrderId(String orderId);
     List<OrderEntity> findByCustomerIdOrderByCreatedAtDesc(String customerId);
     Page<OrderEntity> findByCustomerIdOrderByCreatedAtDesc(String customerId, Pageable pageable);
+    List<OrderEntity> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Newest orders with at least one item whose metadata contains {@code contains}, a JSON object such
+     * as {@code {"cnpj": "..."}}. Served by the GIN index on {@code order_items.metadata}.
+     */
+    @Query(value = "SELECT o.* FROM orders o WHERE o.order_id IN (SELECT i.order_id FROM order_items i "
+            + "WHERE i.metadata @> CAST(:contains AS jsonb)) ORDER BY o.created_at DESC", nativeQuery = true)
+    List<OrderEntity> findByItemMetadata(@Param("contains") String contains, Pageable pageable);
+
+    /**
+     * Like {@link #findByItemMetadata} but only items carrying a {@code preOrderDiscount}.
+     */
+    @Query(value = "SELECT o.* FROM orders o WHERE o.order_id IN (SELECT i.order_id FROM order_items i "
+            + "WHERE (i.metadata ->> 'preOrderDiscount') IS NOT NULL AND i.metadata @> CAST(:contains AS jsonb)) "
+            + "ORDER BY o.created_at DESC", nativeQuery = true)
+    List<OrderEntity> findByItemMetadataWithPreOrderDiscount(@Param("contains") String contains, Pageable pageable);
+
+    @Query("select new com.loomi.orders.domain.OrderVersion(o.version, o.updatedAt) from OrderEntity o where o.orderId = :orderId")
+    Optional<OrderVersion> findVersionByOrderId(@Param("orderId") String orderId);
+
+    @Query("select o.status from OrderEntity o where o.orderId = :orderId")
+    Optional<OrderStatus> findStatusByOrderId(@Param("orderId") String orderId);
+
+    @Query("select o.orderId from OrderEntity o where o.orderId in :orderIds")
+    List<String> findExistingOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    /**
+     * Moves the order from {@code expected} to {@code target} in a single statement.
+     *
+     * @return 1 when this call won the transition, 0 when the order is missing or no longer in {@code expected}
+     */
+    @Modifying
+    @Query("update OrderEntity o set o.status = :target, o.totalAmount = :totalAmount, o.updatedAt = :updatedAt, "
+            + "o.version = o.version + 1 where o.orderId = :orderId and o.status = :expected")
+    int transition(@Param("orderId") String orderId, @Param("expected") OrderStatus expected,
+                   @Param("target") OrderStatus target, @Param("totalAmount") BigDecimal totalAmount,
+                   @Param("updatedAt") OffsetDateTime updatedAt);
+
+    @Modifying
+    @Query("update OrderEntity o set o.status = :target, o.updatedAt = :updatedAt, o.version = o.version + 1 "
+            + "where o.orderId = :orderId and o.status = :expected")
+    int transitionStatus(@Param("orderId") String orderId, @Param("expected") OrderStatus expected,
+                         @Param("target") OrderStatus target, @Param("updatedAt") OffsetDateTime updatedAt);
 }
@@ -0,0 +1,29 @@
+package com.loomi.orders.repository;
+
+import com.loomi.orders.domain.model.ProcessedEventEntity;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEventEntity, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (event_id, order_id, processed_at) VALUES (:eventId, :orderId, :processedAt) "
+            + "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int claim(@Param("eventId") String eventId, @Param("orderId") String orderId,
+              @Param("processedAt") OffsetDateTime processedAt);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.eventId from ProcessedEventEntity p where p.processedAt >= :since")
+    Stream<String> streamEventIdsSince(@Param("since") OffsetDateTime since);
+
+    @Modifying
+    @Query("delete from ProcessedEventEntity p where p.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
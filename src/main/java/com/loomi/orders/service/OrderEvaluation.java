@@ -0,0 +1,20 @@
+package com.loomi.orders.service;
+
+import com.loomi.orders.domain.FailureReason;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of the order checks. Rejections are plain values rather than exceptions, since in a sale
+ * spike a large share of orders fail and none of them should pay for a stack trace.
+ *
+ * @param totalAmount   order total after item discounts
+ * @param failures      reasons the order is rejected, in the order they were found; empty when it passed
+ * @param pendingReason set when the order passed but waits for manual approval
+ */
+public record OrderEvaluation(BigDecimal totalAmount, List<FailureReason> failures, FailureReason pendingReason) {
+
+    public boolean failed() {
+        return !failures.isEmpty();
+    }
+}
@@ -23,7 +23,7 @@ public class OrderMapper {
                 .map(item -> new OrderResponse.OrderItemResponse(item.getItemId(), item.getProductId(), item.getQuantity(), item.getPriceSnapshot()))
                 .collect(Collectors.toList());
         return new OrderResponse(order.getOrderId(), order.getCustomerId(), order.getStatus(), order.getTotalAmount(),
-                order.getCreatedAt(), order.getUpdatedAt(), items);
+                order.getCreatedAt(), order.getUpdatedAt(), items, order.getVersion());
     }
 
     public String metadataToString(Object metadata) {
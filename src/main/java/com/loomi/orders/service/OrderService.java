@@ -4,24 +4,37 @@ import com.loomi.orders.api.dto.OrderRequest;
 import com.loomi.orders.api.dto.OrderResponse;
 import com.loomi.orders.catalog.ProductCatalog;
 import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
-import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.OrderVersion;
 import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.domain.ShardKeys;
 import com.loomi.orders.domain.model.IdempotencyKeyEntity;
 import com.loomi.orders.domain.model.OrderEntity;
 import com.loomi.orders.domain.model.OrderItemEntity;
+import com.loomi.orders.profiling.OrderCreateEvent;
 import com.loomi.orders.repository.IdempotencyKeyRepository;
 import com.loomi.orders.repository.OrderRepository;
 import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import com.loomi.orders.service.sharding.RecentWrites;
+import com.loomi.orders.service.sharding.ShardRebalancer;
+import com.loomi.orders.service.sharding.ShardRouter;
 import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
 
 @Service
 public class OrderService {
@@ -31,33 +44,76 @@ public class OrderService {
     private final IdempotencyKeyRepository idempotencyKeyRepository;
     private final OrderMapper orderMapper;
     private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final ShardRouter shardRouter;
+    private final RecentWrites recentWrites;
+    private final LegacyOrders legacyOrders;
+    private final ShardRebalancer shardRebalancer;
 
     public OrderService(ProductCatalog productCatalog, OrderRepository orderRepository, OrderMapper orderMapper,
                         IdempotencyKeyRepository idempotencyKeyRepository,
-                        KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate) {
+                        KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate,
+                        ShardRouter shardRouter, RecentWrites recentWrites, LegacyOrders legacyOrders,
+                        ShardRebalancer shardRebalancer) {
         this.productCatalog = productCatalog;
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.idempotencyKeyRepository = idempotencyKeyRepository;
         this.kafkaTemplate = kafkaTemplate;
+        this.shardRouter = shardRouter;
+        this.recentWrites = recentWrites;
+        this.legacyOrders = legacyOrders;
+        this.shardRebalancer = shardRebalancer;
     }
 
     public OrderResponse create(OrderRequest request) {
         return create(request, null);
     }
 
-    @Transactional
+    /**
+     * Creates the order on the shard of its customer; the idempotency key is stored and looked up there too.
+     */
     public OrderResponse create(OrderRequest request, String idempotencyKey) {
-        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
-            return idempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
-                    .flatMap(existing -> orderRepository.findByOrderId(existing.getOrderId()))
-                    .map(orderMapper::toResponse)
-                    .orElseGet(() -> createNewOrder(request, idempotencyKey));
+        OrderCreateEvent event = OrderCreateEvent.start(request.getCustomerId(), request.getItems().size());
+        String orderId = null;
+        try {
+            OrderResponse response = shardRouter.write(shardRouter.shardForCustomer(request.getCustomerId()), tx -> {
+                if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                    return idempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                            .flatMap(existing -> orderRepository.findByOrderId(existing.getOrderId()))
+                            .map(orderMapper::toResponse)
+                            .orElseGet(() -> createNewOrder(request, idempotencyKey));
+                }
+                return createNewOrder(request, null);
+            });
+            recentWrites.record(response.getCustomerId(), response.getOrderId());
+            orderId = response.getOrderId();
+            return response;
+        } finally {
+            event.finish(orderId);
         }
-        return createNewOrder(request, null);
+    }
+
+    /**
+     * Validates and prices {@code request} exactly like {@link #create(OrderRequest)} without persisting
+     * or publishing anything.
+     */
+    public OrderResponse preview(OrderRequest request) {
+        return orderMapper.toResponse(buildOrder(request));
     }
 
     private OrderResponse createNewOrder(OrderRequest request, String idempotencyKey) {
+        OrderEntity order = buildOrder(request);
+        orderRepository.save(order);
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            idempotencyKeyRepository.save(IdempotencyKeyEntity.of(idempotencyKey, order.getOrderId()));
+        }
+
+        publishCreatedEvent(order);
+        LOG.info("Order {} created for customer {}", order.getOrderId(), order.getCustomerId());
+        return orderMapper.toResponse(order);
+    }
+
+    private OrderEntity buildOrder(OrderRequest request) {
         OrderEntity order = OrderEntity.create(request.getCustomerId());
         BigDecimal total = BigDecimal.ZERO;
 
@@ -74,53 +130,145 @@ public class OrderService {
             BigDecimal itemTotal = product.price().multiply(BigDecimal.valueOf(item.getQuantity()));
             total = total.add(itemTotal);
             OrderItemEntity entity = OrderItemEntity.from(product.productId(), productType, item.getQuantity(), product.price(),
-                    orderMapper.metadataToString(item.getMetadata()));
+                    item.getMetadata());
             order.addItem(entity);
         }
         order.setTotalAmount(total);
-        orderRepository.save(order);
-        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
-            idempotencyKeyRepository.save(IdempotencyKeyEntity.of(idempotencyKey, order.getOrderId()));
-        }
-
-        publishCreatedEvent(order);
-        LOG.info("Order {} created for customer {}", order.getOrderId(), order.getCustomerId());
-        return orderMapper.toResponse(order);
+        return order;
     }
 
-    public OrderResponse findById(String orderId) {
-        OrderEntity entity = orderRepository.findByOrderId(orderId)
+    /**
+     * @param writeToken the caller's {@link RecentWrites#token()} from its last write, or {@code null}
+     */
+    public OrderResponse findById(String orderId, String writeToken) {
+        return locate(orderId, writeToken, tx -> orderRepository.findByOrderId(orderId).map(orderMapper::toResponse))
                 .orElseThrow(() -> new IllegalArgumentException("Order %s not found".formatted(orderId)));
-        return orderMapper.toResponse(entity);
     }
 
-    public List<OrderResponse> findByCustomer(String customerId, int page, int size) {
-        return orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId, PageRequest.of(page, size)).stream()
-                .map(orderMapper::toResponse)
+    /**
+     * Version of the order as {@link #findById} would currently see it, read without loading items, so
+     * conditional requests can be answered from it alone.
+     */
+    public Optional<OrderVersion> findVersion(String orderId, String writeToken) {
+        return locate(orderId, writeToken, tx -> orderRepository.findVersionByOrderId(orderId));
+    }
+
+    private <T> Optional<T> locate(String orderId, String writeToken, TransactionCallback<Optional<T>> query) {
+        int owner = shardRouter.shardForOrder(orderId);
+        boolean primary = recentWrites.contains(orderId) || recentWrites.pending(writeToken);
+        Optional<T> found = primary ? Optional.empty() : shardRouter.readReplica(owner, query);
+        // réplica atrasada ou pedido criado por outra instância: confirma no primário antes do 404
+        if (found.isEmpty()) {
+            found = shardRouter.read(owner, query);
+        }
+        // só durante a movimentação do bucket o pedido pode estar em outro shard; fora dela um 404 custa duas leituras
+        if (found.isEmpty() && !shardRebalancer.moving(ShardKeys.bucketOfOrder(orderId))) {
+            return found;
+        }
+        for (int shard = 0; found.isEmpty() && shard < shardRouter.shardCount(); shard++) {
+            if (shard != owner) {
+                found = shardRouter.read(shard, query);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Orders of {@code customerId}, newest first, from the customer's shard. While shard 0 may hold orders
+     * created before sharding, both shards return their first {@code (page + 1) * size} orders and the page
+     * is cut from the merged list, like {@link #findAll}.
+     */
+    public List<OrderResponse> findByCustomer(String customerId, int page, int size, String writeToken) {
+        int shard = shardRouter.shardForCustomer(customerId);
+        boolean primary = recentWrites.contains(customerId) || recentWrites.pending(writeToken);
+        if (!legacyOrders.outsideShard(customerId)) {
+            return customerOrders(shard, primary, customerId, PageRequest.of(page, size));
+        }
+        PageRequest head = PageRequest.of(0, (page + 1) * size);
+        Map<String, OrderResponse> merged = new LinkedHashMap<>();
+        // um pedido sendo movido pelo ShardRebalancer pode aparecer nos dois shards por um instante
+        Stream.concat(customerOrders(shard, primary, customerId, head).stream(),
+                        customerOrders(0, false, customerId, head).stream())
+                .forEach(order -> merged.putIfAbsent(order.getOrderId(), order));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(OrderResponse::getCreatedAt).reversed())
+                .skip((long) page * size)
+                .limit(size)
                 .collect(Collectors.toList());
     }
 
+    private List<OrderResponse> customerOrders(int shard, boolean primary, String customerId, Pageable pageable) {
+        TransactionCallback<List<OrderResponse>> query = tx ->
+                orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId, pageable).stream()
+                        .map(orderMapper::toResponse)
+                        .collect(Collectors.toList());
+        return primary ? shardRouter.read(shard, query) : shardRouter.readReplica(shard, query);
+    }
+
     private void publishCreatedEvent(OrderEntity order) {
         List<OrderCreatedEvent.OrderItemPayload> items = order.getItems().stream()
                 .map(item -> new OrderCreatedEvent.OrderItemPayload(item.getProductId(), item.getProductType().name(), item.getQuantity(), item.getPriceSnapshot(), item.getMetadata()))
                 .toList();
         OrderCreatedEvent event = new OrderCreatedEvent(UUID.randomUUID().toString(), order.getOrderId(), order.getCustomerId(),
                 order.getTotalAmount(), order.getCreatedAt(), items);
-        kafkaTemplate.send("order-events", order.getOrderId(), event);
+        kafkaTemplate.send(laneTopic(order), order.getOrderId(), event);
     }
 
-    @Transactional
-    public void updateStatus(String orderId, OrderStatus status) {
-        orderRepository.findByOrderId(orderId).ifPresent(order -> {
-            order.updateStatus(status);
-            orderRepository.save(order);
-        });
+    /**
+     * Corporate and high-value orders go through CNPJ, credit and approval checks; on their own lane
+     * a bulk run of them does not hold up retail orders, and the other way round.
+     */
+    private static String laneTopic(OrderEntity order) {
+        boolean priority = order.getTotalAmount().compareTo(OrderProcessor.HIGH_VALUE_THRESHOLD) > 0
+                || order.getItems().stream().anyMatch(item -> item.getProductType() == ProductType.CORPORATE);
+        return priority ? "order-events-priority" : "order-events";
     }
 
+    /**
+     * Newest orders across all shards. Each shard returns its first {@code (page + 1) * size} orders and
+     * the page is cut from the merged list, so deep pages get more expensive as shards are added.
+     */
     public List<OrderResponse> findAll(int page, int size) {
-        return orderRepository.findAll(PageRequest.of(page, size)).stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .map(orderMapper::toResponse)
+        return newestAcrossShards(orderRepository::findAllByOrderByCreatedAtDesc, page, size);
+    }
+
+    /**
+     * Newest orders with an item matching every given metadata filter, across all shards like
+     * {@link #findAll}. {@code cnpj} and {@code warehouseLocation} match exactly.
+     */
+    public List<OrderResponse> searchByMetadata(String cnpj, String warehouseLocation, boolean withPreOrderDiscount,
+                                                int page, int size) {
+        Map<String, Object> contains = new LinkedHashMap<>();
+        if (cnpj != null && !cnpj.isBlank()) {
+            contains.put("cnpj", cnpj);
+        }
+        if (warehouseLocation != null && !warehouseLocation.isBlank()) {
+            contains.put("warehouseLocation", warehouseLocation);
+        }
+        if (contains.isEmpty() && !withPreOrderDiscount) {
+            throw new IllegalArgumentException("At least one of cnpj, warehouseLocation or preOrderDiscount is required");
+        }
+        String filter = orderMapper.metadataToString(contains);
+        return newestAcrossShards(withPreOrderDiscount
+                ? pageable -> orderRepository.findByItemMetadataWithPreOrderDiscount(filter, pageable)
+                : pageable -> orderRepository.findByItemMetadata(filter, pageable), page, size);
+    }
+
+    private List<OrderResponse> newestAcrossShards(Function<Pageable, List<OrderEntity>> query, int page, int size) {
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.readReplica(0, tx -> query.apply(PageRequest.of(page, size)).stream()
+                    .map(orderMapper::toResponse)
+                    .collect(Collectors.toList()));
+        }
+        PageRequest head = PageRequest.of(0, (page + 1) * size);
+        return shardRouter.readAll(tx -> query.apply(head).stream()
+                        .map(orderMapper::toResponse)
+                        .toList())
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(OrderResponse::getCreatedAt).reversed())
+                .skip((long) page * size)
+                .limit(size)
                 .collect(Collectors.toList());
     }
 }
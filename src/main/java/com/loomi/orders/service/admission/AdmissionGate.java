@@ -0,0 +1,157 @@
+package com.loomi.orders.service.admission;
+
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor.Lane;
+import com.loomi.orders.service.monitoring.DatabasePoolMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control for order creation. Checks run cheapest first: load shedding on the last
+ * consumer-lag sample and the DB pool counters, then a global in-flight limit, then the customer's
+ * token bucket. All state is updated with CAS; no lock is taken on the request path.
+ */
+@Component
+public class AdmissionGate {
+    private static final Duration CONCURRENCY_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AdmissionProperties properties;
+    private final ConsumerLagMonitor lagMonitor;
+    private final DatabasePoolMonitor poolMonitor;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+
+    @Autowired
+    public AdmissionGate(AdmissionProperties properties, ConsumerLagMonitor lagMonitor,
+                         DatabasePoolMonitor poolMonitor, MeterRegistry meterRegistry) {
+        this(properties, lagMonitor, poolMonitor, meterRegistry, Clock.systemUTC());
+    }
+
+    AdmissionGate(AdmissionProperties properties, ConsumerLagMonitor lagMonitor, DatabasePoolMonitor poolMonitor,
+                  MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.lagMonitor = lagMonitor;
+        this.poolMonitor = poolMonitor;
+        this.clock = clock;
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason, Counter.builder("orders.admission.rejected")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits a create request for {@code customerId} or throws {@link AdmissionRejectedException}.
+     * The returned permit must be closed when the request completes.
+     */
+    public Permit admit(String customerId) {
+        if (!properties.enabled()) {
+            return Permit.NOOP;
+        }
+        shedIfOverloaded();
+        acquireConcurrency();
+        try {
+            checkCustomerRate(customerId);
+        } catch (AdmissionRejectedException ex) {
+            inFlight.decrementAndGet();
+            throw ex;
+        }
+        return inFlight::decrementAndGet;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int trackedCustomers() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.admission.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long now = nowMicros();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private void shedIfOverloaded() {
+        // as duas faixas gravam nos mesmos shards; vale a mais atrasada, como na liberação de pré-vendas
+        long lag = ConsumerLagMonitor.UNKNOWN;
+        for (Lane lane : Lane.values()) {
+            lag = Math.max(lag, lagMonitor.currentLag(lane));
+        }
+        if (lag != ConsumerLagMonitor.UNKNOWN && lag > properties.maxConsumerLag()) {
+            throw reject(RejectionReason.CONSUMER_LAG, properties.shedRetryAfter(),
+                    "Order processing is behind (%d events pending)".formatted(lag));
+        }
+        if (poolMonitor.saturation() >= properties.maxPoolSaturation() && poolMonitor.threadsAwaitingConnection() > 0) {
+            throw reject(RejectionReason.DATABASE_SATURATION, properties.shedRetryAfter(),
+                    "Database connection pool is saturated");
+        }
+    }
+
+    private void acquireConcurrency() {
+        int limit = properties.maxConcurrentRequests();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                throw reject(RejectionReason.CONCURRENCY_LIMIT, CONCURRENCY_RETRY_AFTER,
+                        "Too many orders being created concurrently");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void checkCustomerRate(String customerId) {
+        TokenBucket bucket = buckets.get(customerId);
+        if (bucket == null) {
+            if (buckets.size() >= properties.maxTrackedCustomers()) {
+                // sem espaço para novos clientes: admite sem limitar até a próxima evicção
+                return;
+            }
+            bucket = buckets.computeIfAbsent(customerId,
+                    id -> new TokenBucket(properties.emissionIntervalMicros(), properties.customerBurst()));
+        }
+        long waitMicros = bucket.tryAcquire(nowMicros());
+        if (waitMicros > 0) {
+            throw reject(RejectionReason.CUSTOMER_RATE_LIMIT, Duration.ofNanos(waitMicros * 1_000L),
+                    "Rate limit exceeded for customer " + customerId);
+        }
+    }
+
+    private AdmissionRejectedException reject(RejectionReason reason, Duration retryAfter, String message) {
+        rejections.get(reason).increment();
+        return new AdmissionRejectedException(reason, retryAfter, message);
+    }
+
+    private long nowMicros() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000L;
+    }
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        Permit NOOP = () -> {
+        };
+
+        void release();
+
+        @Override
+        default void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.loomi.orders.service.admission;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") double customerRate,
+        @DefaultValue("20") int customerBurst,
+        @DefaultValue("100000") int maxTrackedCustomers,
+        @DefaultValue("256") int maxConcurrentRequests,
+        @DefaultValue("50000") long maxConsumerLag,
+        @DefaultValue("0.95") double maxPoolSaturation,
+        @DefaultValue("PT5S") Duration shedRetryAfter) {
+
+    public AdmissionProperties {
+        if (customerRate <= 0 || customerBurst <= 0) {
+            throw new IllegalArgumentException("orders.admission.customer-rate and customer-burst must be positive");
+        }
+    }
+
+    public long emissionIntervalMicros() {
+        return Math.max(1L, Math.round(1_000_000d / customerRate));
+    }
+}
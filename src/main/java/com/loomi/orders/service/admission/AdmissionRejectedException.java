@@ -0,0 +1,22 @@
+package com.loomi.orders.service.admission;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+    private final RejectionReason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(RejectionReason reason, Duration retryAfter, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public RejectionReason reason() {
+        return reason;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,8 @@
+package com.loomi.orders.service.admission;
+
+public enum RejectionReason {
+    CUSTOMER_RATE_LIMIT,
+    CONCURRENCY_LIMIT,
+    CONSUMER_LAG,
+    DATABASE_SATURATION
+}
@@ -0,0 +1,40 @@
+package com.loomi.orders.service.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket expressed as GCRA: the only state is the theoretical arrival time of the next
+ * request, updated with a CAS. A request is admitted while that time is at most
+ * {@code (burst - 1) * interval} ahead of now.
+ */
+final class TokenBucket {
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(long intervalMicros, int burst) {
+        this.intervalMicros = intervalMicros;
+        this.toleranceMicros = intervalMicros * (burst - 1L);
+    }
+
+    /**
+     * @return 0 when admitted, otherwise the number of microseconds until the next token
+     */
+    long tryAcquire(long nowMicros) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, nowMicros);
+            long ahead = start - nowMicros;
+            if (ahead > toleranceMicros) {
+                return ahead - toleranceMicros;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + intervalMicros)) {
+                return 0L;
+            }
+        }
+    }
+
+    boolean isFull(long nowMicros) {
+        return theoreticalArrival.get() <= nowMicros;
+    }
+}
@@ -0,0 +1,141 @@
+package com.loomi.orders.service.alerts;
+
+import com.loomi.orders.service.events.LowStockAlertEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces low-stock alerts per product. An alert is published immediately when a product
+ * first drops under the threshold and when it reaches zero; everything else in between only
+ * lowers the window minimum, which is published at the end of the window if it is below the
+ * last published stock. A product not seen for a whole window is forgotten, so state is bounded
+ * by the number of SKUs currently low on stock.
+ */
+@Component
+public class LowStockAlertAggregator {
+    static final String TOPIC = "order-alerts";
+
+    private final KafkaTemplate<String, LowStockAlertEvent> kafkaTemplate;
+    private final LowStockAlertProperties properties;
+    private final Counter coalesced;
+    private final Map<String, ProductState> states = new ConcurrentHashMap<>();
+
+    public LowStockAlertAggregator(KafkaTemplate<String, LowStockAlertEvent> kafkaTemplate,
+                                   LowStockAlertProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.coalesced = Counter.builder("orders.alerts.low-stock.coalesced")
+                .description("Low-stock observations folded into an earlier or later alert")
+                .register(meterRegistry);
+    }
+
+    public boolean isLow(int remainingStock) {
+        return remainingStock < properties.threshold();
+    }
+
+    public void record(String orderId, String productId, int remainingStock) {
+        if (!properties.enabled()) {
+            publish(new Alert(orderId, productId, remainingStock));
+            return;
+        }
+        List<Alert> alerts = new ArrayList<>(1);
+        states.compute(productId, (id, state) -> {
+            if (state == null) {
+                alerts.add(new Alert(orderId, id, remainingStock));
+                return new ProductState(remainingStock);
+            }
+            state.seenInWindow = true;
+            if (remainingStock == 0 && state.lastPublished > 0) {
+                alerts.add(new Alert(orderId, id, 0));
+                state.lastPublished = 0;
+            } else if (remainingStock < state.windowMin) {
+                state.windowMin = remainingStock;
+                state.windowMinOrderId = orderId;
+            }
+            return state;
+        });
+        if (alerts.isEmpty()) {
+            coalesced.increment();
+        }
+        alerts.forEach(this::publish);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.alerts.low-stock.window:PT1M}")
+    public void flush() {
+        List<Alert> alerts = new ArrayList<>();
+        for (String productId : states.keySet()) {
+            states.computeIfPresent(productId, (id, state) -> {
+                if (!state.seenInWindow) {
+                    return null;
+                }
+                if (state.windowMin < state.lastPublished) {
+                    alerts.add(new Alert(state.windowMinOrderId, id, state.windowMin));
+                    state.lastPublished = state.windowMin;
+                }
+                state.resetWindow();
+                return state;
+            });
+        }
+        alerts.forEach(this::publish);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    int trackedProducts() {
+        return states.size();
+    }
+
+    private void publish(Alert alert) {
+        LowStockAlertEvent event = new LowStockAlertEvent(
+                UUID.randomUUID().toString(),
+                "LOW_STOCK_ALERT",
+                OffsetDateTime.now(),
+                alert.orderId(),
+                alert.productId(),
+                alert.remainingStock()
+        );
+        // chave por produto: alertas do mesmo SKU ficam ordenados na mesma partição
+        kafkaTemplate.send(TOPIC, alert.productId(), event);
+    }
+
+    private record Alert(String orderId, String productId, int remainingStock) {
+    }
+
+    private static final class ProductState {
+        private int lastPublished;
+        private int windowMin;
+        private String windowMinOrderId;
+        private boolean seenInWindow;
+
+        private ProductState(int published) {
+            this.lastPublished = published;
+            // o alerta de entrada conta como observação da janela corrente
+            this.seenInWindow = true;
+            resetMin();
+        }
+
+        private void resetWindow() {
+            seenInWindow = false;
+            resetMin();
+        }
+
+        private void resetMin() {
+            windowMin = Integer.MAX_VALUE;
+            windowMinOrderId = null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.loomi.orders.service.alerts;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.alerts.low-stock")
+public record LowStockAlertProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") int threshold,
+        @DefaultValue("PT1M") Duration window) {
+
+    public LowStockAlertProperties {
+        if (threshold <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("orders.alerts.low-stock.threshold and window must be positive");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.loomi.orders.service.deadletter;
+
+import java.time.OffsetDateTime;
+
+public record DeadLetterRecord(String topic, int partition, long offset, String key, OffsetDateTime failedAt,
+                               String originalTopic, String exceptionClass, String exceptionMessage) {
+}
@@ -0,0 +1,4 @@
+package com.loomi.orders.service.deadletter;
+
+public record DeadLetterReplayResult(String deadLetterTopic, String targetTopic, int replayed) {
+}
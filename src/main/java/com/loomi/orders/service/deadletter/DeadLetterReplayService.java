@@ -0,0 +1,153 @@
+package com.loomi.orders.service.deadletter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads dead-lettered records with a dedicated consumer group and publishes them back to the topic
+ * they came from. Values are copied byte for byte; DLT and retry bookkeeping headers are dropped so
+ * the replayed record starts a fresh retry cycle.
+ */
+@Service
+public class DeadLetterReplayService {
+    private static final Logger LOG = LoggerFactory.getLogger(DeadLetterReplayService.class);
+    private static final String DLT_SUFFIX = "-dlt";
+    private static final String REPLAY_GROUP = "order-processor-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> replayTemplate;
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    public DeadLetterReplayService(ConsumerFactory<String, byte[]> deadLetterConsumerFactory,
+                                   KafkaTemplate<String, byte[]> deadLetterReplayKafkaTemplate) {
+        this.consumerFactory = deadLetterConsumerFactory;
+        this.replayTemplate = deadLetterReplayKafkaTemplate;
+    }
+
+    public List<DeadLetterRecord> peek(String deadLetterTopic, int limit) {
+        requireDeadLetterTopic(deadLetterTopic);
+        try (Consumer<String, byte[]> consumer = open(deadLetterTopic)) {
+            List<DeadLetterRecord> records = new ArrayList<>();
+            for (ConsumerRecord<String, byte[]> record : poll(consumer, limit)) {
+                records.add(toDeadLetterRecord(record));
+            }
+            return records;
+        }
+    }
+
+    public DeadLetterReplayResult replay(String deadLetterTopic, int limit) {
+        String target = requireDeadLetterTopic(deadLetterTopic);
+        if (!replaying.compareAndSet(false, true)) {
+            throw new ReplayInProgressException("A dead-letter replay is already running");
+        }
+        try (Consumer<String, byte[]> consumer = open(deadLetterTopic)) {
+            List<ConsumerRecord<String, byte[]>> records = poll(consumer, limit);
+            List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            for (ConsumerRecord<String, byte[]> record : records) {
+                ProducerRecord<String, byte[]> replayed = new ProducerRecord<>(target, null, record.key(), record.value());
+                copyPayloadHeaders(record.headers(), replayed.headers());
+                sends.add(replayTemplate.send(replayed));
+                offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            consumer.commitSync(offsets);
+            LOG.info("Replayed {} records from {} to {}", records.size(), deadLetterTopic, target);
+            return new DeadLetterReplayResult(deadLetterTopic, target, records.size());
+        } finally {
+            replaying.set(false);
+        }
+    }
+
+    private Consumer<String, byte[]> open(String topic) {
+        Consumer<String, byte[]> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null);
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : consumer.partitionsFor(topic)) {
+            partitions.add(new TopicPartition(topic, info.partition()));
+        }
+        consumer.assign(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset.offset());
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+        return consumer;
+    }
+
+    private List<ConsumerRecord<String, byte[]>> poll(Consumer<String, byte[]> consumer, int limit) {
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        while (records.size() < limit) {
+            var batch = consumer.poll(POLL_TIMEOUT);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (ConsumerRecord<String, byte[]> record : batch) {
+                if (records.size() == limit) {
+                    // o restante volta a ser lido na próxima chamada, a partir do offset comitado
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static String requireDeadLetterTopic(String topic) {
+        if (topic == null || !topic.endsWith(DLT_SUFFIX) || topic.length() == DLT_SUFFIX.length()) {
+            throw new IllegalArgumentException("Topic %s is not a dead-letter topic".formatted(topic));
+        }
+        return topic.substring(0, topic.length() - DLT_SUFFIX.length());
+    }
+
+    private static void copyPayloadHeaders(Headers source, Headers target) {
+        for (Header header : source) {
+            String key = header.key();
+            if (key.startsWith(KafkaHeaders.PREFIX) || key.startsWith("retry_topic-")) {
+                continue;
+            }
+            target.add(header);
+        }
+    }
+
+    private static DeadLetterRecord toDeadLetterRecord(ConsumerRecord<String, byte[]> record) {
+        return new DeadLetterRecord(record.topic(), record.partition(), record.offset(), record.key(),
+                OffsetDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC),
+                header(record.headers(), KafkaHeaders.ORIGINAL_TOPIC),
+                header(record.headers(), KafkaHeaders.EXCEPTION_FQCN),
+                header(record.headers(), KafkaHeaders.EXCEPTION_MESSAGE));
+    }
+
+    private static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,8 @@
+package com.loomi.orders.service.deadletter;
+
+public class ReplayInProgressException extends RuntimeException {
+
+    public ReplayInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.loomi.orders.service.dedup;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.dedup")
+public record DedupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT24H") Duration retention,
+        @DefaultValue("1000000") int expectedEvents,
+        @DefaultValue("0.01") double falsePositiveRate) {
+
+    public DedupProperties {
+        if (expectedEvents <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("orders.dedup.expected-events must be positive and false-positive-rate in (0, 1)");
+        }
+    }
+}
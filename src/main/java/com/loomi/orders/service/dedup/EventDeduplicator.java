@@ -0,0 +1,192 @@
+package com.loomi.orders.service.dedup;
+
+import com.loomi.orders.repository.ProcessedEventRepository;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops redelivered {@link OrderCreatedEvent}s by event id. A rotating pair of Bloom filters
+ * answers "never seen" without touching the database; a hit is confirmed against the
+ * {@code processed_events} table. Events currently being processed are tracked in memory so a
+ * redelivery that arrives mid-flight is dropped too. The row itself is claimed inside the
+ * processing transaction with {@code ON CONFLICT DO NOTHING}, which is the authoritative check.
+ * Rows live on the shard of their order, so warm-up and purge visit every shard.
+ *
+ * <p>The filter is filled at startup and again whenever the order-events containers are assigned
+ * partitions, before their records are fetched: a partition taken over from another instance
+ * redelivers events that instance processed, and those ids must be in this filter for the miss to be
+ * trusted. Each refill only reads ids processed since the previous one.
+ */
+@Component
+public class EventDeduplicator implements SmartInitializingSingleton, ConsumerRebalanceListener {
+    private static final Logger LOG = LoggerFactory.getLogger(EventDeduplicator.class);
+    // cobre relógios diferentes entre instâncias e claims comitados depois da leitura anterior
+    private static final Duration FILL_OVERLAP = Duration.ofMinutes(5);
+
+    private final ProcessedEventRepository repository;
+    private final DedupProperties properties;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastRotationMillis;
+    private volatile Generations generations;
+    private OffsetDateTime filledThrough;
+
+    @Autowired
+    public EventDeduplicator(ProcessedEventRepository repository, DedupProperties properties,
+                             ShardRouter shardRouter) {
+        this(repository, properties, shardRouter, Clock.systemUTC());
+    }
+
+    EventDeduplicator(ProcessedEventRepository repository, DedupProperties properties,
+                      ShardRouter shardRouter, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+        this.generations = new Generations(newFilter(), newFilter());
+        this.lastRotationMillis = new AtomicLong(clock.millis());
+    }
+
+    /**
+     * @return true when the event was already processed within the retention window
+     */
+    public boolean isDuplicate(String eventId) {
+        if (!properties.enabled() || eventId == null) {
+            return false;
+        }
+        Generations current = generations;
+        if (!current.active().mightContain(eventId) && !current.previous().mightContain(eventId)) {
+            return false;
+        }
+        return repository.existsById(eventId);
+    }
+
+    /**
+     * Marks the event as in flight on this instance.
+     *
+     * @return false when the same event is already being processed
+     */
+    public boolean begin(String eventId) {
+        return !properties.enabled() || eventId == null || inFlight.add(eventId);
+    }
+
+    public void complete(String eventId) {
+        if (eventId != null) {
+            inFlight.remove(eventId);
+        }
+    }
+
+    /**
+     * Claims the event inside the caller's transaction.
+     *
+     * @return false when another delivery already claimed it
+     */
+    public boolean claim(OrderCreatedEvent event) {
+        if (!properties.enabled() || event.eventId() == null) {
+            return true;
+        }
+        boolean claimed = repository.claim(event.eventId(), event.orderId(), OffsetDateTime.now(clock)) == 1;
+        generations.active().put(event.eventId());
+        return claimed;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (properties.enabled()) {
+            fill();
+        }
+    }
+
+    /**
+     * Runs on the consumer thread before records of the new partitions are fetched.
+     */
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        if (properties.enabled() && !partitions.isEmpty()) {
+            fill();
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    }
+
+    private synchronized void fill() {
+        OffsetDateTime started = OffsetDateTime.now(clock);
+        OffsetDateTime since = filledThrough == null
+                ? started.minus(properties.retention())
+                : filledThrough.minus(FILL_OVERLAP);
+        try {
+            BloomFilter active = generations.active();
+            long loaded = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                loaded += shardRouter.read(shard, tx -> {
+                    long count = 0;
+                    try (Stream<String> ids = repository.streamEventIdsSince(since)) {
+                        for (String id : (Iterable<String>) ids::iterator) {
+                            active.put(id);
+                            count++;
+                        }
+                    }
+                    return count;
+                });
+            }
+            filledThrough = started;
+            if (loaded > 0) {
+                LOG.info("Filled event dedup filter with {} event ids processed since {}", loaded, since);
+            }
+        } catch (RuntimeException ex) {
+            // sem o preenchimento o claim no banco continua garantindo a deduplicação; o próximo retoma do último que deu certo
+            LOG.warn("Could not fill event dedup filter: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.dedup.purge-interval:PT10M}")
+    public void purgeAndRotate() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = clock.millis();
+        long last = lastRotationMillis.get();
+        if (now - last >= properties.retention().toMillis() && lastRotationMillis.compareAndSet(last, now)) {
+            Generations current = generations;
+            generations = new Generations(newFilter(), current.active());
+        }
+        OffsetDateTime cutoff = OffsetDateTime.now(clock).minus(properties.retention());
+        int purged = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            purged += shardRouter.write(shard, tx -> repository.deleteProcessedBefore(cutoff));
+        }
+        if (purged > 0) {
+            LOG.info("Purged {} processed event ids past retention", purged);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(properties.expectedEvents(), properties.falsePositiveRate());
+    }
+
+    private record Generations(BloomFilter active, BloomFilter previous) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.loomi.orders.service.events;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -18,6 +20,7 @@ public record OrderCreatedEvent(String eventId, String orderId, String customerI
         timestamp = timestamp == null ? OffsetDateTime.now() : timestamp;
     }
 
-    public record OrderItemPayload(String productId, String productType, int quantity, BigDecimal priceSnapshot, String metadata) {
+    public record OrderItemPayload(String productId, String productType, int quantity, BigDecimal priceSnapshot,
+                                   @JsonRawValue @JsonDeserialize(using = RawJsonDeserializer.class) String metadata) {
     }
 }
@@ -1,13 +1,19 @@
 package com.loomi.orders.service.events;
 
+import com.loomi.orders.domain.FailureReason;
 import java.time.OffsetDateTime;
+import java.util.List;
 
-public record OrderResultEvent(String eventId, String eventType, OffsetDateTime timestamp, Object payload) {
+public record OrderResultEvent(String eventId, String eventType, OffsetDateTime timestamp, String customerId, Object payload) {
 
     public record ProcessedPayload(String orderId, OffsetDateTime processedAt) {
     }
 
-    public record FailedPayload(String orderId, String reason, OffsetDateTime failedAt) {
+    /**
+     * {@code reason} is the first failure found; {@code reasons} has every one, more than one only when
+     * {@code orders.validation.collect-all-failures} is on.
+     */
+    public record FailedPayload(String orderId, String reason, List<FailureReason> reasons, OffsetDateTime failedAt) {
     }
 
     public record PendingApprovalPayload(String orderId, String reason, OffsetDateTime pendingAt) {
@@ -0,0 +1,17 @@
+package com.loomi.orders.service.events;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Published once per order and pre-order product when the product's release date arrives. The
+ * {@code eventId} is derived from product, release date and order, so a chunk published again after a crash
+ * carries the same ids and consumers can drop the duplicates.
+ */
+public record PreOrderReleasedEvent(String eventId, String eventType, OffsetDateTime timestamp, String orderId,
+                                    String customerId, String productId, int quantity, LocalDate releaseDate) {
+    public PreOrderReleasedEvent {
+        eventType = eventType == null ? "PRE_ORDER_RELEASED" : eventType;
+        timestamp = timestamp == null ? OffsetDateTime.now() : timestamp;
+    }
+}
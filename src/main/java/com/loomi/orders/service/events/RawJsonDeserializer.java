@@ -0,0 +1,96 @@
+package com.loomi.orders.service.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Reads a JSON value into its compact text without building a tree, so it can be stored and re-emitted with
+ * {@code @JsonRawValue} as is. A string token is returned unchanged: events published before metadata was
+ * embedded raw carry it as an escaped JSON string.
+ */
+public class RawJsonDeserializer extends StdDeserializer<String> {
+
+    public RawJsonDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return copy(parser);
+    }
+
+    @Override
+    public String getNullValue(DeserializationContext context) {
+        return null;
+    }
+
+    protected static String copy(JsonParser parser) throws IOException {
+        return copy(parser, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #copy(JsonParser)}, but throws {@link TooLongException} as soon as the copy passes
+     * {@code maxLength} characters, without reading the rest of the value.
+     */
+    protected static String copy(JsonParser parser, int maxLength) throws IOException {
+        BoundedWriter out = new BoundedWriter(maxLength);
+        try (JsonGenerator generator = parser.getCodec().getFactory().createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toString();
+    }
+
+    protected static final class TooLongException extends IOException {
+        TooLongException(int maxLength) {
+            super("Raw JSON exceeds " + maxLength + " characters");
+        }
+    }
+
+    private static final class BoundedWriter extends Writer {
+        private final int maxLength;
+        private final StringBuilder buffer = new StringBuilder();
+
+        BoundedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            reserve(length);
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            reserve(length);
+            buffer.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+
+        private void reserve(int length) throws TooLongException {
+            if (length > maxLength - buffer.length()) {
+                throw new TooLongException(maxLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AmountVelocityRule implements FraudRule {
+    private final FraudProperties.AmountThreshold threshold;
+
+    public AmountVelocityRule(FraudProperties properties) {
+        this.threshold = properties.amount();
+    }
+
+    @Override
+    public String name() {
+        return "AMOUNT_VELOCITY";
+    }
+
+    @Override
+    public int score(OrderCreatedEvent event, VelocitySnapshot velocity) {
+        return velocity.amount().compareTo(threshold.limit()) > 0 ? threshold.weight() : 0;
+    }
+}
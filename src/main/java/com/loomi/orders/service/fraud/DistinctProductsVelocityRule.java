@@ -0,0 +1,23 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DistinctProductsVelocityRule implements FraudRule {
+    private final FraudProperties.CountThreshold threshold;
+
+    public DistinctProductsVelocityRule(FraudProperties properties) {
+        this.threshold = properties.distinctProducts();
+    }
+
+    @Override
+    public String name() {
+        return "DISTINCT_PRODUCTS_VELOCITY";
+    }
+
+    @Override
+    public int score(OrderCreatedEvent event, VelocitySnapshot velocity) {
+        return velocity.distinctProducts() > threshold.limit() ? threshold.weight() : 0;
+    }
+}
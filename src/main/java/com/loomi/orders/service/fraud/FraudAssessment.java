@@ -0,0 +1,6 @@
+package com.loomi.orders.service.fraud;
+
+import java.util.List;
+
+public record FraudAssessment(int score, List<String> triggeredRules, boolean suspected) {
+}
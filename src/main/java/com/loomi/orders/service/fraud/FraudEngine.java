@@ -0,0 +1,115 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Velocity-based fraud scoring. Every {@link OrderCreatedEvent} is recorded into an in-memory
+ * sliding window for its customer and then scored against all registered {@link FraudRule}s.
+ * Recording is idempotent by event id: a retry of the same event, after a payment timeout for
+ * instance, is scored again but counted once.
+ * Windows idle for longer than the window length hold no signal and are evicted, and the number
+ * of tracked customers is capped by {@code orders.fraud.max-tracked-customers}.
+ *
+ * <p>Two clocks are involved on purpose. Buckets follow the event's {@code createdAt}, so velocity is
+ * measured on the customer's own timeline and a replayed capture scores as it did when recorded.
+ * Idleness follows the wall clock, since eviction only frees memory; a window fed old events is still
+ * fresh and is not dropped halfway through a replay.
+ */
+@Component
+public class FraudEngine {
+    private static final Logger LOG = LoggerFactory.getLogger(FraudEngine.class);
+
+    private final FraudProperties properties;
+    private final List<FraudRule> rules;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, VelocityWindow> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FraudEngine(FraudProperties properties, List<FraudRule> rules) {
+        this(properties, rules, Clock.systemUTC());
+    }
+
+    FraudEngine(FraudProperties properties, List<FraudRule> rules, Clock clock) {
+        this.properties = properties;
+        this.rules = List.copyOf(rules);
+        this.clock = clock;
+    }
+
+    public FraudAssessment assess(OrderCreatedEvent event) {
+        VelocitySnapshot velocity = record(event);
+        int score = 0;
+        List<String> triggered = new ArrayList<>();
+        for (FraudRule rule : rules) {
+            int weight = rule.score(event, velocity);
+            if (weight > 0) {
+                score += weight;
+                triggered.add(rule.name());
+            }
+        }
+        boolean suspected = score >= properties.alertScore();
+        if (suspected) {
+            LOG.warn("Order {} scored {} for fraud, rules {}", event.orderId(), score, triggered);
+        }
+        return new FraudAssessment(score, List.copyOf(triggered), suspected);
+    }
+
+    int trackedCustomers() {
+        return windows.size();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.fraud.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long cutoff = clock.millis() - properties.window().toMillis();
+        windows.values().removeIf(window -> window.lastSeenMillis() < cutoff);
+    }
+
+    private VelocitySnapshot record(OrderCreatedEvent event) {
+        long now = clock.millis();
+        long timestamp = eventTime(event, now);
+        long cents = event.totalAmount().movePointRight(2).longValue();
+        long products = 0;
+        for (OrderCreatedEvent.OrderItemPayload item : event.items()) {
+            products |= VelocityWindow.productBit(item.productId());
+        }
+        VelocityWindow window = windowFor(event.customerId());
+        if (window == null) {
+            window = newWindow();
+        }
+        return window.record(event.eventId(), timestamp, cents, products, now);
+    }
+
+    private VelocityWindow windowFor(String customerId) {
+        VelocityWindow window = windows.get(customerId);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= properties.maxTrackedCustomers()) {
+            evictIdle();
+            if (windows.size() >= properties.maxTrackedCustomers()) {
+                LOG.warn("Fraud velocity tracking at capacity ({} customers), scoring {} without history",
+                        windows.size(), customerId);
+                return null;
+            }
+        }
+        return windows.computeIfAbsent(customerId, id -> newWindow());
+    }
+
+    private VelocityWindow newWindow() {
+        return new VelocityWindow(properties.buckets(), properties.bucketMillis());
+    }
+
+    private static long eventTime(OrderCreatedEvent event, long fallback) {
+        OffsetDateTime createdAt = event.createdAt();
+        return createdAt != null ? createdAt.toInstant().toEpochMilli() : fallback;
+    }
+}
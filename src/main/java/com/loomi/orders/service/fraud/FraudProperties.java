@@ -0,0 +1,34 @@
+package com.loomi.orders.service.fraud;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.fraud")
+public record FraudProperties(
+        @DefaultValue("PT10M") Duration window,
+        @DefaultValue("10") int buckets,
+        @DefaultValue("100000") int maxTrackedCustomers,
+        @DefaultValue("100") int alertScore,
+        CountThreshold orderCount,
+        AmountThreshold amount,
+        CountThreshold distinctProducts,
+        AmountThreshold highValue) {
+
+    public FraudProperties {
+        if (buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("orders.fraud.window must be split into at least one millisecond per bucket");
+        }
+    }
+
+    public long bucketMillis() {
+        return window.toMillis() / buckets;
+    }
+
+    public record CountThreshold(int limit, int weight) {
+    }
+
+    public record AmountThreshold(BigDecimal limit, int weight) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+
+/**
+ * A single fraud signal. Rules are plain Spring beans; every {@code FraudRule} in the context is
+ * evaluated by {@link FraudEngine} and the returned weights are summed into the order score.
+ */
+public interface FraudRule {
+
+    String name();
+
+    /**
+     * @return the weight contributed to the score, or {@code 0} when the rule does not fire
+     */
+    int score(OrderCreatedEvent event, VelocitySnapshot velocity);
+}
@@ -0,0 +1,23 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HighValueOrderRule implements FraudRule {
+    private final FraudProperties.AmountThreshold threshold;
+
+    public HighValueOrderRule(FraudProperties properties) {
+        this.threshold = properties.highValue();
+    }
+
+    @Override
+    public String name() {
+        return "HIGH_VALUE_ORDER";
+    }
+
+    @Override
+    public int score(OrderCreatedEvent event, VelocitySnapshot velocity) {
+        return event.totalAmount().compareTo(threshold.limit()) > 0 ? threshold.weight() : 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.loomi.orders.service.fraud;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderCountVelocityRule implements FraudRule {
+    private final FraudProperties.CountThreshold threshold;
+
+    public OrderCountVelocityRule(FraudProperties properties) {
+        this.threshold = properties.orderCount();
+    }
+
+    @Override
+    public String name() {
+        return "ORDER_COUNT_VELOCITY";
+    }
+
+    @Override
+    public int score(OrderCreatedEvent event, VelocitySnapshot velocity) {
+        return velocity.orders() > threshold.limit() ? threshold.weight() : 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.loomi.orders.service.fraud;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated activity of a customer inside the sliding window, including the order being scored.
+ */
+public record VelocitySnapshot(int orders, BigDecimal amount, int distinctProducts) {
+}
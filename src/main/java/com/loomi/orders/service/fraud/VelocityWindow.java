@@ -0,0 +1,98 @@
+package com.loomi.orders.service.fraud;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ring of fixed-size time buckets for one customer. Each slot remembers which bucket it currently
+ * holds, so a stale slot is reset lazily when it is reused instead of shifting the whole ring.
+ * Distinct products are tracked as a 64-bit hash bitmap per bucket and estimated by linear counting.
+ * The event ids counted in the window are remembered until their bucket leaves it, so a redelivered
+ * event is scored again without being counted twice.
+ */
+final class VelocityWindow {
+    private static final int BITMAP_SIZE = Long.SIZE;
+
+    private final long bucketMillis;
+    private final long[] bucketIds;
+    private final int[] orders;
+    private final long[] amountCents;
+    private final long[] productBits;
+    private final Map<String, Long> recorded = new HashMap<>();
+    private long newestBucket = Long.MIN_VALUE;
+    private volatile long lastSeenMillis;
+
+    VelocityWindow(int buckets, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.bucketIds = new long[buckets];
+        this.orders = new int[buckets];
+        this.amountCents = new long[buckets];
+        this.productBits = new long[buckets];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+
+    synchronized VelocitySnapshot record(String eventId, long timestampMillis, long cents, long products, long nowMillis) {
+        long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+        if (eventId != null && recorded.containsKey(eventId)) {
+            lastSeenMillis = Math.max(lastSeenMillis, nowMillis);
+            return snapshot();
+        }
+        if (bucket > newestBucket) {
+            newestBucket = bucket;
+            long oldest = bucket - bucketIds.length;
+            recorded.values().removeIf(recordedBucket -> recordedBucket <= oldest);
+        }
+        if (bucket > newestBucket - bucketIds.length) {
+            int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                orders[slot] = 0;
+                amountCents[slot] = 0;
+                productBits[slot] = 0;
+            }
+            orders[slot]++;
+            amountCents[slot] += cents;
+            productBits[slot] |= products;
+            if (eventId != null) {
+                recorded.put(eventId, bucket);
+            }
+        }
+        lastSeenMillis = Math.max(lastSeenMillis, nowMillis);
+        return snapshot();
+    }
+
+    long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    private VelocitySnapshot snapshot() {
+        int totalOrders = 0;
+        long totalCents = 0;
+        long bits = 0;
+        long oldest = newestBucket - bucketIds.length;
+        for (int i = 0; i < bucketIds.length; i++) {
+            if (bucketIds[i] > oldest) {
+                totalOrders += orders[i];
+                totalCents += amountCents[i];
+                bits |= productBits[i];
+            }
+        }
+        return new VelocitySnapshot(totalOrders, BigDecimal.valueOf(totalCents, 2), estimateDistinct(bits));
+    }
+
+    static long productBit(String productId) {
+        int hash = productId.hashCode();
+        hash ^= hash >>> 16;
+        return 1L << (hash & (BITMAP_SIZE - 1));
+    }
+
+    private static int estimateDistinct(long bits) {
+        int set = Long.bitCount(bits);
+        if (set == BITMAP_SIZE) {
+            return (int) Math.round(BITMAP_SIZE * Math.log(BITMAP_SIZE));
+        }
+        return (int) Math.round(-BITMAP_SIZE * Math.log((BITMAP_SIZE - set) / (double) BITMAP_SIZE));
+    }
+}
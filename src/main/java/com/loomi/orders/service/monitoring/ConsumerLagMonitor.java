@@ -0,0 +1,162 @@
+package com.loomi.orders.service.monitoring;
+
+import com.loomi.orders.service.replay.ReplayProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically measures how far each order-events lane is behind: order-processor on order-events and
+ * order-processor-priority on order-events-priority. The last sample of each lane is kept in memory so
+ * request paths can read it without touching Kafka; a sample older than three poll intervals is reported
+ * as unknown. In replay mode nothing is measured and the lag stays unknown.
+ */
+@Component
+public class ConsumerLagMonitor {
+    private static final Logger LOG = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+    public static final long UNKNOWN = -1L;
+
+    public enum Lane {
+        RETAIL("order-events", "order-processor"),
+        PRIORITY("order-events-priority", "order-processor-priority");
+
+        private final String topic;
+        private final String groupId;
+
+        Lane(String topic, String groupId) {
+            this.topic = topic;
+            this.groupId = groupId;
+        }
+
+        public String topic() {
+            return topic;
+        }
+
+        public String groupId() {
+            return groupId;
+        }
+    }
+
+    private final KafkaAdmin kafkaAdmin;
+    private final Duration pollInterval;
+    private final Clock clock;
+    private final boolean replaying;
+    private volatile AdminClient adminClient;
+    private final Map<Lane, Sample> samples = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin,
+                              @Value("${orders.monitoring.lag-poll-interval:PT5S}") Duration pollInterval,
+                              MeterRegistry meterRegistry, ReplayProperties replay) {
+        this(kafkaAdmin, pollInterval, meterRegistry, Clock.systemUTC(), replay.enabled());
+    }
+
+    ConsumerLagMonitor(KafkaAdmin kafkaAdmin, Duration pollInterval, MeterRegistry meterRegistry, Clock clock,
+                       boolean replaying) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.pollInterval = pollInterval;
+        this.clock = clock;
+        this.replaying = replaying;
+        for (Lane lane : Lane.values()) {
+            Gauge.builder("orders.consumer.lag", this, monitor -> monitor.currentLag(lane))
+                    .tag("group", lane.groupId())
+                    .tag("topic", lane.topic())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return total lag of the lane's consumer group on its topic, or {@link #UNKNOWN}
+     */
+    public long currentLag(Lane lane) {
+        Sample current = samples.get(lane);
+        long maxAge = pollInterval.toMillis() * 3;
+        return current == null || clock.millis() - current.takenAtMillis() > maxAge ? UNKNOWN : current.lag();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.monitoring.lag-poll-interval:PT5S}")
+    public void refresh() {
+        if (replaying) {
+            return;
+        }
+        // uma faixa que falha não derruba a medição da outra; a amostra dela envelhece até UNKNOWN
+        for (Lane lane : Lane.values()) {
+            try {
+                samples.put(lane, new Sample(measure(lane), clock.millis()));
+            } catch (Exception ex) {
+                LOG.debug("Could not measure consumer lag for {}: {}", lane.groupId(), ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        AdminClient client = adminClient;
+        if (client != null) {
+            client.close(Duration.ofSeconds(1));
+        }
+    }
+
+    private long measure(Lane lane) throws Exception {
+        AdminClient client = client();
+        long timeout = pollInterval.toMillis();
+        Map<TopicPartition, OffsetAndMetadata> committed = client.listConsumerGroupOffsets(lane.groupId())
+                .partitionsToOffsetAndMetadata().get(timeout, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        committed.forEach((partition, offset) -> {
+            if (offset != null && lane.topic().equals(partition.topic())) {
+                latest.put(partition, OffsetSpec.latest());
+            }
+        });
+        if (latest.isEmpty()) {
+            return 0L;
+        }
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = client.listOffsets(latest)
+                .all().get(timeout, TimeUnit.MILLISECONDS);
+        long lag = 0L;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : ends.entrySet()) {
+            lag += Math.max(0L, end.getValue().offset() - committed.get(end.getKey()).offset());
+        }
+        return lag;
+    }
+
+    private AdminClient client() {
+        AdminClient client = adminClient;
+        if (client == null) {
+            synchronized (this) {
+                client = adminClient;
+                if (client == null) {
+                    Map<String, Object> config = new HashMap<>(kafkaAdmin.getConfigurationProperties());
+                    int timeout = (int) pollInterval.toMillis();
+                    config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, timeout);
+                    config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, timeout);
+                    client = AdminClient.create(config);
+                    adminClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private record Sample(long lag, long takenAtMillis) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.loomi.orders.service.monitoring;
+
+import com.loomi.orders.service.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes how busy the Hikari pool is. The MXBean getters read counters kept by the pool itself,
+ * so this is cheap enough to call on every request. With several shards the busiest pool counts.
+ */
+@Component
+public class DatabasePoolMonitor {
+
+    private final List<HikariDataSource> pools;
+
+    public DatabasePoolMonitor(DataSource dataSource) {
+        List<DataSource> shards = dataSource instanceof ShardRoutingDataSource routing ? routing.shards() : List.of(dataSource);
+        this.pools = shards.stream().map(DatabasePoolMonitor::unwrap).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * @return active connections over the pool maximum of the busiest shard, or 0 when the pools are not
+     *     Hikari or not started
+     */
+    public double saturation() {
+        double saturation = 0d;
+        for (HikariDataSource hikari : pools) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                saturation = Math.max(saturation, (double) pool.getActiveConnections() / hikari.getMaximumPoolSize());
+            }
+        }
+        return saturation;
+    }
+
+    public int threadsAwaitingConnection() {
+        int waiting = 0;
+        for (HikariDataSource hikari : pools) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            waiting += pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        }
+        return waiting;
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
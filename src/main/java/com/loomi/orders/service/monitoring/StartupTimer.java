@@ -0,0 +1,58 @@
+package com.loomi.orders.service.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long after JVM start the first order event finished processing. This is the
+ * number that matters when pods are added on a lag spike, so it is what the fast-start build
+ * and {@code scripts/startup-benchmark.sh} are measured against.
+ */
+@Component
+public class StartupTimer {
+    private static final Logger LOG = LoggerFactory.getLogger(StartupTimer.class);
+    private static final long NOT_YET = -1L;
+
+    private final Clock clock;
+    private final long jvmStartMillis;
+    private final AtomicLong firstEventMillis = new AtomicLong(NOT_YET);
+
+    @Autowired
+    public StartupTimer(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC(), ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    StartupTimer(MeterRegistry meterRegistry, Clock clock, long jvmStartMillis) {
+        this.clock = clock;
+        this.jvmStartMillis = jvmStartMillis;
+        TimeGauge.builder("orders.startup.first-event", this, TimeUnit.MILLISECONDS, StartupTimer::timeToFirstEvent)
+                .description("Time from JVM start until the first order event was processed")
+                .register(meterRegistry);
+    }
+
+    public void firstEventProcessed() {
+        if (firstEventMillis.get() != NOT_YET) {
+            return;
+        }
+        long elapsed = clock.millis() - jvmStartMillis;
+        if (firstEventMillis.compareAndSet(NOT_YET, elapsed)) {
+            LOG.info("First order event processed {} ms after JVM start", elapsed);
+        }
+    }
+
+    /**
+     * @return milliseconds from JVM start to the first processed event, or NaN before it happens
+     */
+    double timeToFirstEvent() {
+        long elapsed = firstEventMillis.get();
+        return elapsed == NOT_YET ? Double.NaN : elapsed;
+    }
+}
@@ -0,0 +1,72 @@
+package com.loomi.orders.service.payment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and rejects calls for {@code openDuration}; then a single trial call is let through
+ * (half-open) and its outcome closes or re-opens the circuit.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private record Snapshot(State state, int failures, long openedAt) {
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(State.CLOSED, 0, 0));
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            switch (current.state()) {
+                case CLOSED -> {
+                    return true;
+                }
+                case HALF_OPEN -> {
+                    return false;
+                }
+                case OPEN -> {
+                    if (clock.millis() - current.openedAt() < openMillis) {
+                        return false;
+                    }
+                    if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, current.failures(), current.openedAt()))) {
+                        return true;
+                    }
+                }
+            }
+        }
+    }
+
+    void onSuccess() {
+        snapshot.set(new Snapshot(State.CLOSED, 0, 0));
+    }
+
+    void onFailure() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            int failures = current.failures() + 1;
+            Snapshot next = current.state() == State.HALF_OPEN || failures >= failureThreshold
+                    ? new Snapshot(State.OPEN, failures, clock.millis())
+                    : new Snapshot(current.state(), failures, current.openedAt());
+            if (snapshot.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    State state() {
+        return snapshot.get().state();
+    }
+}
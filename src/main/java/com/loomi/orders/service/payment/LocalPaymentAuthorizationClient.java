@@ -0,0 +1,37 @@
+package com.loomi.orders.service.payment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the payment gateway. Keeps the previous deterministic decline rule and
+ * answers after {@code orders.payment.stub-latency} without holding any thread while waiting.
+ */
+@Component
+public class LocalPaymentAuthorizationClient implements PaymentAuthorizationClient {
+    private final Executor delayed;
+
+    public LocalPaymentAuthorizationClient(PaymentProperties properties) {
+        this.delayed = CompletableFuture.delayedExecutor(properties.stubLatency().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableFuture<PaymentAuthorization> authorize(PaymentRequest request) {
+        return CompletableFuture.supplyAsync(() -> decide(request), delayed);
+    }
+
+    private PaymentAuthorization decide(PaymentRequest request) {
+        if (request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+            return PaymentAuthorization.declined("INVALID_AMOUNT");
+        }
+        int hash = Math.abs(request.orderId().hashCode());
+        if (hash % 31 == 0) {
+            return PaymentAuthorization.declined("DECLINED_BY_ISSUER");
+        }
+        return PaymentAuthorization.approved(UUID.randomUUID().toString());
+    }
+}
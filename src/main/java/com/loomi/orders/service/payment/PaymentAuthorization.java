@@ -0,0 +1,12 @@
+package com.loomi.orders.service.payment;
+
+public record PaymentAuthorization(boolean approved, String authorizationId, String declineReason) {
+
+    public static PaymentAuthorization approved(String authorizationId) {
+        return new PaymentAuthorization(true, authorizationId, null);
+    }
+
+    public static PaymentAuthorization declined(String reason) {
+        return new PaymentAuthorization(false, null, reason);
+    }
+}
@@ -0,0 +1,13 @@
+package com.loomi.orders.service.payment;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client for the payment gateway. Implementations must not block the caller: the returned future
+ * completes with the gateway decision, or exceptionally when the gateway could not be reached.
+ * A decline is a normal completion, not an exception.
+ */
+public interface PaymentAuthorizationClient {
+
+    CompletableFuture<PaymentAuthorization> authorize(PaymentRequest request);
+}
@@ -0,0 +1,90 @@
+package com.loomi.orders.service.payment;
+
+import com.loomi.orders.logging.MdcPropagation;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resilient front for {@link PaymentAuthorizationClient}: every call is bounded by a bulkhead
+ * (maximum concurrent gateway calls), a per-call timeout and a circuit breaker. Results are
+ * delivered on a dedicated callback executor so the gateway and timer threads never run
+ * order processing; the callback runs with the caller's MDC.
+ */
+@Component
+public class PaymentAuthorizer {
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentAuthorizer.class);
+
+    private final PaymentAuthorizationClient client;
+    private final PaymentProperties properties;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService callbackExecutor;
+
+    @Autowired
+    public PaymentAuthorizer(PaymentAuthorizationClient client, PaymentProperties properties) {
+        this(client, properties, Clock.systemUTC());
+    }
+
+    PaymentAuthorizer(PaymentAuthorizationClient client, PaymentProperties properties, Clock clock) {
+        this.client = client;
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.maxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(properties.circuitFailureThreshold(), properties.circuitOpenDuration(), clock);
+        this.callbackExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("payment-callback-", 0).factory());
+    }
+
+    public CompletableFuture<PaymentAuthorization> authorize(PaymentRequest request) {
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new PaymentUnavailableException("Payment bulkhead full"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(new PaymentUnavailableException("Payment circuit open"));
+        }
+        CompletableFuture<PaymentAuthorization> call;
+        try {
+            call = client.authorize(request);
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+        return call
+                .orTimeout(properties.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handleAsync((authorization, error) -> {
+                    bulkhead.release();
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                        return authorization;
+                    }
+                    circuitBreaker.onFailure();
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    String message = cause instanceof TimeoutException
+                            ? "Payment authorization timed out for order %s".formatted(request.orderId())
+                            : "Payment authorization failed for order %s".formatted(request.orderId());
+                    throw new PaymentUnavailableException(message, cause);
+                }, MdcPropagation.withCurrentContext(callbackExecutor));
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        if (!bulkhead.tryAcquire(properties.maxConcurrentCalls(), properties.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            LOG.warn("Shutting down with payment authorizations still in flight");
+        }
+        callbackExecutor.shutdown();
+        callbackExecutor.awaitTermination(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,15 @@
+package com.loomi.orders.service.payment;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.payment")
+public record PaymentProperties(
+        @DefaultValue("PT2S") Duration timeout,
+        @DefaultValue("64") int maxConcurrentCalls,
+        @DefaultValue("16") int maxInFlightPerConsumer,
+        @DefaultValue("5") int circuitFailureThreshold,
+        @DefaultValue("PT30S") Duration circuitOpenDuration,
+        @DefaultValue("PT0.02S") Duration stubLatency) {
+}
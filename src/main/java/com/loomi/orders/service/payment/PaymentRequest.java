@@ -0,0 +1,6 @@
+package com.loomi.orders.service.payment;
+
+import java.math.BigDecimal;
+
+public record PaymentRequest(String orderId, String customerId, BigDecimal amount) {
+}
@@ -0,0 +1,16 @@
+package com.loomi.orders.service.payment;
+
+/**
+ * The gateway could not give an answer (timeout, open circuit, bulkhead full). The order is left
+ * untouched so the event can be retried.
+ */
+public class PaymentUnavailableException extends RuntimeException {
+
+    public PaymentUnavailableException(String message) {
+        super(message);
+    }
+
+    public PaymentUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
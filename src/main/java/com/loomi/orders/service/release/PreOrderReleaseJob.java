@@ -0,0 +1,255 @@
+package com.loomi.orders.service.release;
+
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.service.events.PreOrderReleasedEvent;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor.Lane;
+import com.loomi.orders.service.replay.ReplayProperties;
+import com.loomi.orders.service.release.PreOrderReleaseStore.Checkpoint;
+import com.loomi.orders.service.release.PreOrderReleaseStore.DueOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns processed pre-orders into fulfillment once their product's release date arrives: every order holding
+ * a released pre-order product gets a {@link PreOrderReleasedEvent} on {@code pre-order-releases}.
+ *
+ * <p>Each product is released shard by shard, at most {@code parallelism} at a time, in keyset chunks by
+ * order id. The checkpoint only moves after the broker acknowledged the whole chunk, so a crash republishes
+ * at most one chunk (with the same event ids) and the next owner of the lease resumes from there. The job
+ * stays under {@code max-rate} and backs off while live orders queue up on either order-events lane.
+ */
+@Component
+public class PreOrderReleaseJob {
+    private static final Logger LOG = LoggerFactory.getLogger(PreOrderReleaseJob.class);
+    static final String TOPIC = "pre-order-releases";
+
+    private final ProductCatalog catalog;
+    private final PreOrderReleaseStore store;
+    private final KafkaTemplate<String, PreOrderReleasedEvent> kafkaTemplate;
+    private final ConsumerLagMonitor lagMonitor;
+    private final PreOrderReleaseProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final boolean replaying;
+    private final String owner = UUID.randomUUID().toString();
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("pre-order-release-", 0).factory();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(threadFactory);
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong nextSlotNanos = new AtomicLong(Long.MIN_VALUE);
+    private volatile boolean stopping;
+
+    @Autowired
+    public PreOrderReleaseJob(ProductCatalog catalog, PreOrderReleaseStore store,
+                              KafkaTemplate<String, PreOrderReleasedEvent> kafkaTemplate, ConsumerLagMonitor lagMonitor,
+                              PreOrderReleaseProperties properties, MeterRegistry meterRegistry, ReplayProperties replay) {
+        this(catalog, store, kafkaTemplate, lagMonitor, properties, meterRegistry, Clock.systemDefaultZone(), replay.enabled());
+    }
+
+    PreOrderReleaseJob(ProductCatalog catalog, PreOrderReleaseStore store,
+                       KafkaTemplate<String, PreOrderReleasedEvent> kafkaTemplate, ConsumerLagMonitor lagMonitor,
+                       PreOrderReleaseProperties properties, MeterRegistry meterRegistry, Clock clock, boolean replaying) {
+        this.catalog = catalog;
+        this.store = store;
+        this.kafkaTemplate = kafkaTemplate;
+        this.lagMonitor = lagMonitor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.replaying = replaying;
+    }
+
+    /**
+     * Starts a release run in the background unless one is still going; a launch can take far longer than
+     * the interval and must not hold the shared scheduler thread. Never runs in replay mode, whose
+     * database holds no real orders.
+     */
+    @Scheduled(fixedDelayString = "${orders.pre-order-release.interval:PT5M}")
+    public void trigger() {
+        if (!properties.enabled() || replaying || stopping || !running.compareAndSet(false, true)) {
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                releaseDue();
+            } catch (RuntimeException ex) {
+                LOG.error("Pre-order release run failed", ex);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Releases every pre-order product whose release date has arrived, on all shards.
+     *
+     * @return orders released by this run
+     */
+    long releaseDue() {
+        List<ProductRecord> due = catalog.findReleasedPreOrders(LocalDate.now(clock));
+        AtomicLong released = new AtomicLong();
+        Semaphore slots = new Semaphore(properties.parallelism());
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(threadFactory)) {
+            for (ProductRecord product : due) {
+                for (int shard = 0; shard < store.shardCount(); shard++) {
+                    if (!acquire(slots)) {
+                        return released.get();
+                    }
+                    int target = shard;
+                    workers.execute(() -> {
+                        try {
+                            released.addAndGet(release(target, product));
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+            }
+        }
+        return released.get();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        runner.shutdown();
+        // os workers devolvem o lease ao perceber o stopping; o checkpoint já está no banco
+        runner.awaitTermination(properties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private long release(int shard, ProductRecord product) {
+        String productId = product.productId();
+        LocalDate releaseDate = product.releaseDate();
+        Optional<Checkpoint> claimed = store.claim(shard, productId, releaseDate, owner, properties.lease());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        String after = claimed.get().lastOrderId();
+        long released = 0;
+        try {
+            while (!stopping) {
+                List<DueOrder> chunk = store.nextChunk(shard, productId, after, properties.chunkSize());
+                if (chunk.isEmpty()) {
+                    store.complete(shard, productId, releaseDate, owner);
+                    LOG.info("Released {} pre-orders of {} on shard {} ({} before this run)", released, productId, shard,
+                            claimed.get().releasedCount());
+                    return released;
+                }
+                if (!awaitLiveTraffic(shard, productId, releaseDate, after)) {
+                    LOG.warn("Lost the release lease of {} on shard {} while backing off", productId, shard);
+                    return released;
+                }
+                throttle(chunk.size());
+                publish(product, chunk);
+                after = chunk.getLast().orderId();
+                if (!store.advance(shard, productId, releaseDate, owner, after, chunk.size(), properties.lease())) {
+                    LOG.warn("Lost the release lease of {} on shard {} after {} orders", productId, shard, released);
+                    return released;
+                }
+                released += chunk.size();
+                meterRegistry.counter("orders.preorder.released", "product", productId).increment(chunk.size());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            LOG.warn("Pre-order release of {} on shard {} stopped after {} orders: {}", productId, shard, released, ex.getMessage());
+        }
+        store.unclaim(shard, productId, releaseDate, owner);
+        return released;
+    }
+
+    /**
+     * Waits while either order-events lane is behind, renewing the lease meanwhile.
+     *
+     * @return false when the lease was lost
+     */
+    private boolean awaitLiveTraffic(int shard, String productId, LocalDate releaseDate, String after) throws InterruptedException {
+        long lag;
+        while (!stopping && (lag = liveLag()) > properties.maxConsumerLag()) {
+            LOG.debug("Order events lag {} above {}, pausing release of {}", lag, properties.maxConsumerLag(), productId);
+            Thread.sleep(properties.pauseInterval());
+            if (!store.advance(shard, productId, releaseDate, owner, after, 0, properties.lease())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // os chunks disputam os mesmos shards com as duas faixas; vale a mais atrasada
+    private long liveLag() {
+        long lag = ConsumerLagMonitor.UNKNOWN;
+        for (Lane lane : Lane.values()) {
+            lag = Math.max(lag, lagMonitor.currentLag(lane));
+        }
+        return lag;
+    }
+
+    /**
+     * Reserves {@code orders} slots of {@code max-rate} shared by all workers and sleeps until the first one.
+     */
+    private void throttle(int orders) throws InterruptedException {
+        long cost = orders * TimeUnit.SECONDS.toNanos(1) / properties.maxRate();
+        long now = System.nanoTime();
+        long reserved = nextSlotNanos.getAndAccumulate(now, (next, current) -> Math.max(next, current) + cost);
+        long wait = Math.max(reserved, now) - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private void publish(ProductRecord product, List<DueOrder> chunk) throws InterruptedException {
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        List<CompletableFuture<?>> acks = new ArrayList<>(chunk.size());
+        for (DueOrder order : chunk) {
+            PreOrderReleasedEvent event = new PreOrderReleasedEvent(eventId(product, order.orderId()), "PRE_ORDER_RELEASED",
+                    now, order.orderId(), order.customerId(), product.productId(), order.quantity(), product.releaseDate());
+            acks.add(kafkaTemplate.send(TOPIC, order.orderId(), event));
+        }
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(properties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Release events were not acknowledged", ex);
+        }
+    }
+
+    private boolean acquire(Semaphore slots) {
+        try {
+            slots.acquire();
+            return !stopping;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static String eventId(ProductRecord product, String orderId) {
+        String key = product.productId() + '|' + product.releaseDate() + '|' + orderId;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -0,0 +1,34 @@
+package com.loomi.orders.service.release;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Release of pre-orders by {@link PreOrderReleaseJob}. {@code max-rate} caps released orders per second for
+ * the whole instance; while the order-processor group lags more than {@code max-consumer-lag} records the job
+ * waits {@code pause-interval} between chunks. {@code lease} is how long a crashed instance keeps a
+ * product/shard before another one resumes it from the checkpoint.
+ */
+@ConfigurationProperties(prefix = "orders.pre-order-release")
+public record PreOrderReleaseProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT5M") Duration interval,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("2") int parallelism,
+        @DefaultValue("500") int maxRate,
+        @DefaultValue("1000") long maxConsumerLag,
+        @DefaultValue("PT5S") Duration pauseInterval,
+        @DefaultValue("PT2M") Duration lease,
+        @DefaultValue("PT30S") Duration sendTimeout) {
+
+    public PreOrderReleaseProperties {
+        if (chunkSize <= 0 || parallelism <= 0 || maxRate <= 0 || maxConsumerLag < 0) {
+            throw new IllegalArgumentException("orders.pre-order-release.chunk-size, parallelism and max-rate must be positive");
+        }
+        if (pauseInterval.isNegative() || pauseInterval.isZero() || lease.compareTo(pauseInterval.multipliedBy(2)) < 0
+                || sendTimeout.compareTo(lease) >= 0) {
+            throw new IllegalArgumentException("orders.pre-order-release.lease must cover two pause intervals and outlast send-timeout");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.loomi.orders.service.release;
+
+import com.loomi.orders.service.sharding.ShardRoutingDataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checkpoints of the pre-order release on each shard ({@code pre_order_releases}) and the keyset scan over
+ * the orders due. A release is owned through a lease that every checkpoint renews; the lease times are
+ * taken from the database clock so instances never compare their own clocks.
+ */
+@Component
+public class PreOrderReleaseStore {
+    private final List<NamedParameterJdbcTemplate> jdbc = new ArrayList<>();
+
+    public PreOrderReleaseStore(ShardRoutingDataSource dataSource) {
+        for (DataSource shard : dataSource.shards()) {
+            jdbc.add(new NamedParameterJdbcTemplate(shard));
+        }
+    }
+
+    public int shardCount() {
+        return jdbc.size();
+    }
+
+    /**
+     * Takes or renews the lease on a release.
+     *
+     * @return where the release stopped, empty when it is complete or leased by another instance
+     */
+    public Optional<Checkpoint> claim(int shard, String productId, LocalDate releaseDate, String owner, Duration lease) {
+        MapSqlParameterSource params = key(productId, releaseDate)
+                .addValue("owner", owner)
+                .addValue("leaseMillis", lease.toMillis());
+        jdbc.get(shard).update("INSERT INTO pre_order_releases (product_id, release_date, updated_at) "
+                + "VALUES (:productId, :releaseDate, now()) ON CONFLICT DO NOTHING", params);
+        return jdbc.get(shard).query("UPDATE pre_order_releases SET claimed_by = :owner, "
+                        + "claimed_until = now() + :leaseMillis * interval '1 millisecond', updated_at = now() "
+                        + "WHERE product_id = :productId AND release_date = :releaseDate AND completed_at IS NULL "
+                        + "AND (claimed_by IS NULL OR claimed_by = :owner OR claimed_until < now()) "
+                        + "RETURNING last_order_id, released_count", params,
+                (rs, row) -> new Checkpoint(rs.getString("last_order_id"), rs.getLong("released_count")))
+                .stream().findFirst();
+    }
+
+    /**
+     * Next {@code limit} processed orders holding {@code productId}, by order id after {@code afterOrderId}.
+     * Quantities of the same product on several lines of one order are added up.
+     */
+    public List<DueOrder> nextChunk(int shard, String productId, String afterOrderId, int limit) {
+        return jdbc.get(shard).query("SELECT i.order_id, o.customer_id, SUM(i.quantity) AS quantity "
+                        + "FROM order_items i JOIN orders o ON o.order_id = i.order_id "
+                        + "WHERE i.product_type = 'PRE_ORDER' AND i.product_id = :productId AND i.order_id > :after "
+                        + "AND o.status = 'PROCESSED' "
+                        + "GROUP BY i.order_id, o.customer_id ORDER BY i.order_id LIMIT :limit",
+                Map.of("productId", productId, "after", afterOrderId, "limit", limit),
+                (rs, row) -> new DueOrder(rs.getString("order_id"), rs.getString("customer_id"), rs.getInt("quantity")));
+    }
+
+    /**
+     * Moves the checkpoint past {@code lastOrderId} and renews the lease.
+     *
+     * @return false when the lease was lost to another instance; the caller must stop
+     */
+    public boolean advance(int shard, String productId, LocalDate releaseDate, String owner, String lastOrderId,
+                           int released, Duration lease) {
+        MapSqlParameterSource params = key(productId, releaseDate)
+                .addValue("owner", owner)
+                .addValue("last", lastOrderId)
+                .addValue("released", released)
+                .addValue("leaseMillis", lease.toMillis());
+        return jdbc.get(shard).update("UPDATE pre_order_releases SET last_order_id = :last, "
+                + "released_count = released_count + :released, "
+                + "claimed_until = now() + :leaseMillis * interval '1 millisecond', updated_at = now() "
+                + "WHERE product_id = :productId AND release_date = :releaseDate AND claimed_by = :owner", params) == 1;
+    }
+
+    public void complete(int shard, String productId, LocalDate releaseDate, String owner) {
+        jdbc.get(shard).update("UPDATE pre_order_releases SET completed_at = now(), claimed_by = NULL, claimed_until = NULL, "
+                + "updated_at = now() WHERE product_id = :productId AND release_date = :releaseDate AND claimed_by = :owner",
+                key(productId, releaseDate).addValue("owner", owner));
+    }
+
+    /**
+     * Gives the lease up so another instance can resume right away instead of waiting for it to expire.
+     */
+    public void unclaim(int shard, String productId, LocalDate releaseDate, String owner) {
+        jdbc.get(shard).update("UPDATE pre_order_releases SET claimed_by = NULL, claimed_until = NULL, updated_at = now() "
+                + "WHERE product_id = :productId AND release_date = :releaseDate AND claimed_by = :owner",
+                key(productId, releaseDate).addValue("owner", owner));
+    }
+
+    private static MapSqlParameterSource key(String productId, LocalDate releaseDate) {
+        return new MapSqlParameterSource("productId", productId).addValue("releaseDate", releaseDate);
+    }
+
+    /**
+     * @param lastOrderId   last order already published, empty before the first chunk
+     * @param releasedCount orders published so far on this shard
+     */
+    public record Checkpoint(String lastOrderId, long releasedCount) {
+    }
+
+    public record DueOrder(String orderId, String customerId, int quantity) {
+    }
+}
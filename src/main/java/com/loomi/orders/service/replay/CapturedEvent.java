@@ -0,0 +1,12 @@
+package com.loomi.orders.service.replay;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import java.time.OffsetDateTime;
+
+/**
+ * One line of a capture file: an order event as it was on the topic, and the status its order had
+ * when the window was captured ({@code null} when unknown, e.g. in a plain export of event values).
+ */
+public record CapturedEvent(String topic, OffsetDateTime recordedAt, OrderCreatedEvent event, OrderStatus recordedStatus) {
+}
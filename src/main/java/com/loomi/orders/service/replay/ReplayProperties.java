@@ -0,0 +1,39 @@
+package com.loomi.orders.service.replay;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Replay of a capture file by {@link ReplayRunner}. Without {@code input} nothing is replayed; with it
+ * the instance runs in replay mode (see {@link #enabled()}). {@code RECORDED} pacing keeps the original
+ * gaps between events, divided by {@code speed}.
+ */
+@ConfigurationProperties(prefix = "orders.replay")
+public record ReplayProperties(
+        Path input,
+        @DefaultValue("MAX") Pacing pacing,
+        @DefaultValue("1.0") double speed,
+        @DefaultValue("replay-report.json") Path report,
+        @DefaultValue("PT5M") Duration completionTimeout) {
+
+    public ReplayProperties {
+        if (speed <= 0 || completionTimeout.isNegative() || completionTimeout.isZero()) {
+            throw new IllegalArgumentException("orders.replay.speed and completion-timeout must be positive");
+        }
+    }
+
+    /**
+     * Replay mode: listeners do not start, producers keep their records in memory and the jobs that
+     * talk to Kafka or move real orders stay idle, so the instance never touches live traffic.
+     */
+    public boolean enabled() {
+        return input != null;
+    }
+
+    public enum Pacing {
+        MAX,
+        RECORDED
+    }
+}
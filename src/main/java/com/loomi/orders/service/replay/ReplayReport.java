@@ -0,0 +1,28 @@
+package com.loomi.orders.service.replay;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a replay. Stage latencies are in milliseconds; {@code mismatches} lists at most the
+ * first hundred orders whose replayed status differs from the recorded one.
+ */
+public record ReplayReport(
+        String pacing,
+        double speed,
+        int events,
+        int errors,
+        long wallTimeMillis,
+        double throughputPerSecond,
+        Map<String, StageLatency> stages,
+        Map<String, Long> recordedStatuses,
+        Map<String, Long> replayedStatuses,
+        int mismatchCount,
+        List<StatusMismatch> mismatches) {
+
+    public record StageLatency(int count, double p50, double p95, double p99, double max) {
+    }
+
+    public record StatusMismatch(String orderId, String recorded, String replayed) {
+    }
+}
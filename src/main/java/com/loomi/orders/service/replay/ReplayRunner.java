@@ -0,0 +1,96 @@
+package com.loomi.orders.service.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch mode for {@link TrafficReplayer}: with {@code orders.replay.input} set, the instance replays
+ * the file once, writes the report to {@code orders.replay.report} and exits. Input lines are either
+ * {@link CapturedEvent}s, as written by the capture endpoint, or bare {@link OrderCreatedEvent}s as
+ * exported from the topic; those have no recorded status and are paced by their event timestamp.
+ * Refuses to start if any Kafka listener is running, since the replayed events would then race live
+ * consumers of the production groups.
+ */
+@Component
+public class ReplayRunner implements ApplicationRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private final ReplayProperties properties;
+    private final TrafficReplayer replayer;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    public ReplayRunner(ReplayProperties properties, TrafficReplayer replayer, ObjectMapper objectMapper,
+                        ConfigurableApplicationContext context, KafkaListenerEndpointRegistry listenerRegistry) {
+        this.properties = properties;
+        this.replayer = replayer;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!properties.enabled()) {
+            return;
+        }
+        requireIsolated();
+        List<CapturedEvent> events = read();
+        LOG.info("Replaying {} order events from {} ({} pacing)", events.size(), properties.input(), properties.pacing());
+        ReplayReport report = replayer.replay(events, properties.pacing(), properties.speed(), properties.completionTimeout());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(properties.report().toFile(), report);
+        LOG.info("Replay finished: {} events in {} ms ({} events/s), {} errors, {} status mismatches; report at {}",
+                report.events(), report.wallTimeMillis(), report.throughputPerSecond(), report.errors(),
+                report.mismatchCount(), properties.report());
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private void requireIsolated() {
+        List<String> running = listenerRegistry.getAllListenerContainers().stream()
+                .filter(MessageListenerContainer::isRunning)
+                .map(MessageListenerContainer::getListenerId)
+                .toList();
+        if (!running.isEmpty()) {
+            throw new IllegalStateException("Replay needs an isolated instance, but listeners %s are consuming".formatted(running));
+        }
+    }
+
+    private List<CapturedEvent> read() throws IOException {
+        List<CapturedEvent> events = new ArrayList<>();
+        try (var lines = Files.lines(properties.input())) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> events.add(parse(line)));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return events;
+    }
+
+    private CapturedEvent parse(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.has("event")) {
+                return objectMapper.treeToValue(node, CapturedEvent.class);
+            }
+            OrderCreatedEvent event = objectMapper.treeToValue(node, OrderCreatedEvent.class);
+            return new CapturedEvent(null, event.timestamp(), event, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.loomi.orders.service.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads a time window of both order-events lanes for {@link TrafficReplayer}, together with the
+ * status each order has now. Partitions are assigned and positioned by timestamp, and no offsets are
+ * committed, so capturing never moves any consumer group.
+ */
+@Service
+public class TrafficCaptureService {
+    private static final Logger LOG = LoggerFactory.getLogger(TrafficCaptureService.class);
+    private static final List<String> TOPICS = List.of("order-events", "order-events-priority");
+    private static final String CAPTURE_GROUP = "order-processor-capture";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    static final int MAX_EVENTS = 100_000;
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final ObjectMapper objectMapper;
+    private final OrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+
+    public TrafficCaptureService(ConsumerFactory<String, byte[]> deadLetterConsumerFactory, ObjectMapper objectMapper,
+                                 OrderRepository orderRepository, ShardRouter shardRouter) {
+        this.consumerFactory = deadLetterConsumerFactory;
+        this.objectMapper = objectMapper;
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * @return up to {@code limit} events recorded in {@code [from, to]}, oldest first
+     */
+    public List<CapturedEvent> capture(OffsetDateTime from, OffsetDateTime to, int limit) {
+        if (limit <= 0 || limit > MAX_EVENTS) {
+            throw new IllegalArgumentException("limit must be between 1 and %d".formatted(MAX_EVENTS));
+        }
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long fromMillis = from.toInstant().toEpochMilli();
+        long toMillis = to.toInstant().toEpochMilli();
+        List<CapturedEvent> captured = new ArrayList<>();
+        int unreadable = 0;
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(CAPTURE_GROUP, null)) {
+            Set<TopicPartition> active = position(consumer, fromMillis);
+            while (!active.isEmpty() && captured.size() < limit) {
+                var batch = consumer.poll(POLL_TIMEOUT);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : batch) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.timestamp() > toMillis) {
+                        // passou do fim da janela nesta partição; as demais seguem
+                        active.remove(partition);
+                        consumer.pause(List.of(partition));
+                        continue;
+                    }
+                    if (!active.contains(partition) || captured.size() == limit) {
+                        continue;
+                    }
+                    try {
+                        OrderCreatedEvent event = objectMapper.readValue(record.value(), OrderCreatedEvent.class);
+                        captured.add(new CapturedEvent(record.topic(),
+                                OffsetDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC), event, null));
+                    } catch (IOException ex) {
+                        unreadable++;
+                    }
+                }
+            }
+        }
+        List<CapturedEvent> result = captured.stream()
+                .sorted(Comparator.comparing(CapturedEvent::recordedAt))
+                .map(event -> new CapturedEvent(event.topic(), event.recordedAt(), event.event(), currentStatus(event.event().orderId())))
+                .toList();
+        LOG.info("Captured {} order events between {} and {} ({} unreadable records skipped)", result.size(), from, to, unreadable);
+        return result;
+    }
+
+    private Set<TopicPartition> position(Consumer<String, byte[]> consumer, long fromMillis) {
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        for (String topic : TOPICS) {
+            for (PartitionInfo info : consumer.partitionsFor(topic)) {
+                timestamps.put(new TopicPartition(topic, info.partition()), fromMillis);
+            }
+        }
+        consumer.assign(timestamps.keySet());
+        Set<TopicPartition> active = new HashSet<>();
+        for (Map.Entry<TopicPartition, OffsetAndTimestamp> entry : consumer.offsetsForTimes(timestamps).entrySet()) {
+            if (entry.getValue() == null) {
+                // nada gravado depois de from
+                consumer.pause(List.of(entry.getKey()));
+                continue;
+            }
+            consumer.seek(entry.getKey(), entry.getValue().offset());
+            active.add(entry.getKey());
+        }
+        return active;
+    }
+
+    private OrderStatus currentStatus(String orderId) {
+        return shardRouter.on(shardRouter.shardForOrder(orderId), () -> orderRepository.findStatusByOrderId(orderId))
+                .orElse(null);
+    }
+}
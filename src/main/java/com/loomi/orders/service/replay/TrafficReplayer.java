@@ -0,0 +1,214 @@
+package com.loomi.orders.service.replay;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.domain.model.OrderEntity;
+import com.loomi.orders.domain.model.OrderItemEntity;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.OrderProcessor;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replays captured order events through {@link OrderProcessor} as a single listener thread would:
+ * each order is first inserted as {@code PENDING} on its shard, then handed to the listener method
+ * of its lane; an order captured more than once is seeded once and dispatched every time. Before
+ * seeding anything it checks every order id on its shard and refuses to run if any of them exists, so
+ * it cannot touch a database holding real orders.
+ *
+ * <p>Stages: {@code seed} is the insert, {@code dispatch} the listener call (dedup, status lookup,
+ * fraud, payment submission), {@code completion} the rest until the returned future completes
+ * (payment, status write, result publishing) and {@code end-to-end} runs from when the event was due
+ * to its completion, so it also shows the replay falling behind the recorded pacing.
+ */
+@Service
+public class TrafficReplayer {
+    private static final Logger LOG = LoggerFactory.getLogger(TrafficReplayer.class);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+    private static final String MISSING = "MISSING";
+    private static final int EXISTENCE_CHECK_BATCH = 1000;
+
+    private final OrderProcessor orderProcessor;
+    private final OrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+
+    public TrafficReplayer(OrderProcessor orderProcessor, OrderRepository orderRepository, ShardRouter shardRouter) {
+        this.orderProcessor = orderProcessor;
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    public ReplayReport replay(List<CapturedEvent> captured, ReplayProperties.Pacing pacing, double speed,
+                               Duration completionTimeout) {
+        List<CapturedEvent> events = captured.stream().sorted(Comparator.comparing(CapturedEvent::recordedAt)).toList();
+        requireUnknownOrders(events);
+        Set<String> seededIds = new HashSet<>();
+        int count = events.size();
+        long[] seed = new long[count];
+        long[] dispatch = new long[count];
+        long[] completion = new long[count];
+        long[] endToEnd = new long[count];
+        Arrays.fill(completion, -1L);
+        Arrays.fill(endToEnd, -1L);
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> pending = new ArrayList<>(count);
+
+        long start = System.nanoTime();
+        long firstRecordedMillis = count == 0 ? 0L : events.get(0).recordedAt().toInstant().toEpochMilli();
+        for (int i = 0; i < count; i++) {
+            CapturedEvent record = events.get(i);
+            long due = System.nanoTime();
+            if (pacing == ReplayProperties.Pacing.RECORDED) {
+                long offsetMillis = record.recordedAt().toInstant().toEpochMilli() - firstRecordedMillis;
+                due = start + (long) (TimeUnit.MILLISECONDS.toNanos(offsetMillis) / speed);
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            OrderCreatedEvent event = record.event();
+            long seeded = System.nanoTime();
+            if (seededIds.add(event.orderId())) {
+                seed(event);
+            }
+            long dispatched = System.nanoTime();
+            seed[i] = dispatched - seeded;
+            CompletableFuture<Void> result;
+            try {
+                result = isPriority(record) ? orderProcessor.consumePriority(event) : orderProcessor.consume(event);
+            } catch (RuntimeException ex) {
+                result = CompletableFuture.failedFuture(ex);
+            }
+            long returned = System.nanoTime();
+            dispatch[i] = returned - dispatched;
+            int index = i;
+            long dueAt = due;
+            pending.add(result.handle((ignored, error) -> {
+                long now = System.nanoTime();
+                completion[index] = now - returned;
+                endToEnd[index] = now - dueAt;
+                if (error != null) {
+                    // em produção iria para o tópico de retry; aqui só entra na contagem
+                    errors.incrementAndGet();
+                    LOG.debug("Replayed order {} failed: {}", event.orderId(), error.getMessage());
+                }
+                return null;
+            }));
+        }
+        awaitAll(pending, completionTimeout);
+        long wallNanos = System.nanoTime() - start;
+
+        Map<String, Long> recorded = new TreeMap<>();
+        Map<String, Long> replayed = new TreeMap<>();
+        List<ReplayReport.StatusMismatch> mismatches = new ArrayList<>();
+        int mismatchCount = 0;
+        for (CapturedEvent record : events) {
+            String orderId = record.event().orderId();
+            String status = shardRouter.on(shardRouter.shardForOrder(orderId), () -> orderRepository.findStatusByOrderId(orderId))
+                    .map(OrderStatus::name).orElse(MISSING);
+            replayed.merge(status, 1L, Long::sum);
+            if (record.recordedStatus() == null) {
+                continue;
+            }
+            recorded.merge(record.recordedStatus().name(), 1L, Long::sum);
+            if (!record.recordedStatus().name().equals(status)) {
+                mismatchCount++;
+                if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                    mismatches.add(new ReplayReport.StatusMismatch(orderId, record.recordedStatus().name(), status));
+                }
+            }
+        }
+
+        Map<String, ReplayReport.StageLatency> stages = new LinkedHashMap<>();
+        stages.put("seed", latency(seed));
+        stages.put("dispatch", latency(dispatch));
+        stages.put("completion", latency(completion));
+        stages.put("end-to-end", latency(endToEnd));
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(wallNanos);
+        double throughput = wallNanos == 0 ? 0 : count / (wallNanos / 1_000_000_000.0);
+        return new ReplayReport(pacing.name(), speed, count, errors.get(), wallMillis, round(throughput), stages,
+                recorded, replayed, mismatchCount, mismatches);
+    }
+
+    private void seed(OrderCreatedEvent event) {
+        OrderEntity order = OrderEntity.pending(event.orderId(), event.customerId(), event.totalAmount(), event.createdAt());
+        for (OrderCreatedEvent.OrderItemPayload item : event.items()) {
+            order.addItem(OrderItemEntity.from(item.productId(), ProductType.valueOf(item.productType()), item.quantity(),
+                    item.priceSnapshot(), item.metadata()));
+        }
+        shardRouter.write(shardRouter.shardForOrder(event.orderId()), tx -> orderRepository.save(order));
+    }
+
+    private void requireUnknownOrders(List<CapturedEvent> events) {
+        Map<Integer, Set<String>> idsByShard = new TreeMap<>();
+        for (CapturedEvent record : events) {
+            String orderId = record.event().orderId();
+            idsByShard.computeIfAbsent(shardRouter.shardForOrder(orderId), shard -> new LinkedHashSet<>()).add(orderId);
+        }
+        List<String> existing = new ArrayList<>();
+        idsByShard.forEach((shard, ids) -> {
+            List<String> pendingIds = List.copyOf(ids);
+            for (int from = 0; from < pendingIds.size(); from += EXISTENCE_CHECK_BATCH) {
+                List<String> batch = pendingIds.subList(from, Math.min(from + EXISTENCE_CHECK_BATCH, pendingIds.size()));
+                existing.addAll(shardRouter.read(shard, tx -> orderRepository.findExistingOrderIds(batch)));
+            }
+        });
+        if (!existing.isEmpty()) {
+            throw new IllegalStateException("%d captured orders already exist (e.g. %s); replay needs an empty scratch database"
+                    .formatted(existing.size(), existing.subList(0, Math.min(5, existing.size()))));
+        }
+    }
+
+    private static boolean isPriority(CapturedEvent event) {
+        return event.topic() != null && event.topic().startsWith("order-events-priority");
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> pending, Duration timeout) {
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            LOG.warn("Replay: {} events still running after {}", pending.stream().filter(future -> !future.isDone()).count(), timeout);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            // cada futuro já trata o próprio erro em handle()
+        }
+    }
+
+    static ReplayReport.StageLatency latency(long[] nanos) {
+        long[] done = Arrays.stream(nanos).filter(value -> value >= 0).sorted().toArray();
+        if (done.length == 0) {
+            return new ReplayReport.StageLatency(0, 0, 0, 0, 0);
+        }
+        return new ReplayReport.StageLatency(done.length, percentile(done, 0.50), percentile(done, 0.95),
+                percentile(done, 0.99), round(done[done.length - 1] / 1_000_000.0));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.loomi.orders.service.scaling;
+
+import com.loomi.orders.config.OrderEventsListenerErrorHandler;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor.Lane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resizes the order-events listener from the retail lane lag reported by {@link ConsumerLagMonitor} and the
+ * records this instance finished since the last check. The backlog is expected to drain at the
+ * measured rate; when that would take longer than the target drain time, consumers are added in
+ * proportion, and when it would take less than half of it one consumer is removed.
+ *
+ * <p>The container is restarted to apply a new concurrency, which rebalances the group and
+ * redelivers uncommitted records (the deduplicator skips them), so nothing changes within a cooldown
+ * of the previous change or of startup. The lag is the whole group's, so with several instances each
+ * one scales as if it were alone; the cooldown and bounds limit that.
+ *
+ * <p>Only the retail listener is resized. The priority lane keeps {@code orders.lanes.priority-concurrency}
+ * consumers: its volume is small, and restarting its container would only add rebalances.
+ */
+@Component
+public class ListenerAutoscaler {
+    private static final Logger LOG = LoggerFactory.getLogger(ListenerAutoscaler.class);
+
+    private final ListenerAutoscalingProperties properties;
+    private final Supplier<ConcurrentMessageListenerContainer<?, ?>> container;
+    private final LongSupplier lag;
+    private final Clock clock;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+    private final Counter scaledUp;
+    private final Counter scaledDown;
+    private volatile double processingMillis = Double.NaN;
+    private long windowStartMillis;
+    private long lastChangeMillis;
+
+    @Autowired
+    public ListenerAutoscaler(ListenerAutoscalingProperties properties, KafkaListenerEndpointRegistry registry,
+                              ConsumerLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this(properties, () -> registry.getListenerContainer(OrderEventsListenerErrorHandler.LISTENER_ID)
+                        instanceof ConcurrentMessageListenerContainer<?, ?> concurrent ? concurrent : null,
+                () -> lagMonitor.currentLag(Lane.RETAIL), meterRegistry, Clock.systemUTC());
+    }
+
+    ListenerAutoscaler(ListenerAutoscalingProperties properties, Supplier<ConcurrentMessageListenerContainer<?, ?>> container,
+                       LongSupplier lag, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.container = container;
+        this.lag = lag;
+        this.clock = clock;
+        this.windowStartMillis = clock.millis();
+        this.lastChangeMillis = windowStartMillis;
+        Gauge.builder("orders.listener.concurrency", this, ListenerAutoscaler::concurrency)
+                .description("Consumer threads of the order-events listener")
+                .register(meterRegistry);
+        TimeGauge.builder("orders.listener.processing-time", this, TimeUnit.MILLISECONDS, scaler -> scaler.processingMillis)
+                .description("Mean time to process an order event over the last autoscaling window")
+                .register(meterRegistry);
+        this.scaledUp = Counter.builder("orders.listener.scaling").tag("direction", "up")
+                .description("Concurrency changes of the order-events listener")
+                .register(meterRegistry);
+        this.scaledDown = Counter.builder("orders.listener.scaling").tag("direction", "down")
+                .description("Concurrency changes of the order-events listener")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called by the listener when an order event finishes processing, successfully or not.
+     */
+    public void recordProcessed(long elapsedNanos) {
+        completed.increment();
+        processingNanos.add(elapsedNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.listener.autoscaling.interval:PT15S}")
+    public synchronized void evaluate() {
+        long now = clock.millis();
+        long elapsedMillis = Math.max(1L, now - windowStartMillis);
+        long records = completed.sumThenReset();
+        long nanos = processingNanos.sumThenReset();
+        windowStartMillis = now;
+        processingMillis = records == 0 ? Double.NaN : nanos / 1_000_000.0 / records;
+
+        ConcurrentMessageListenerContainer<?, ?> target = container.get();
+        long currentLag = lag.getAsLong();
+        if (!properties.enabled() || target == null || !target.isRunning() || target.isPauseRequested()
+                || currentLag == ConsumerLagMonitor.UNKNOWN || now - lastChangeMillis < properties.cooldown().toMillis()) {
+            return;
+        }
+        int current = target.getConcurrency();
+        double perSecond = records * 1000.0 / elapsedMillis;
+        int desired = desiredConcurrency(current, currentLag, perSecond);
+        if (desired == current) {
+            return;
+        }
+        LOG.info("Scaling order-events listener from {} to {} consumers (lag {}, {} records/s, {} ms per record)",
+                current, desired, currentLag, String.format("%.1f", perSecond), String.format("%.0f", processingMillis));
+        target.stop();
+        target.setConcurrency(desired);
+        target.start();
+        (desired > current ? scaledUp : scaledDown).increment();
+        lastChangeMillis = now;
+    }
+
+    int desiredConcurrency(int current, long lag, double perSecond) {
+        int desired = current;
+        if (lag == 0) {
+            desired = current - 1;
+        } else if (perSecond > 0) {
+            double target = properties.targetDrainTime().toMillis() / 1000.0;
+            double drainSeconds = lag / perSecond;
+            if (drainSeconds > target) {
+                desired = (int) Math.ceil(current * drainSeconds / target);
+            } else if (drainSeconds < target / 2) {
+                desired = current - 1;
+            }
+        }
+        // lag sem nada processado na janela é listener travado (pagamento fora, rebalance); mais consumers não ajudam
+        return Math.max(properties.minConcurrency(), Math.min(properties.maxConcurrency(), desired));
+    }
+
+    private double concurrency() {
+        ConcurrentMessageListenerContainer<?, ?> target = container.get();
+        return target == null ? Double.NaN : target.getConcurrency();
+    }
+}
@@ -0,0 +1,28 @@
+package com.loomi.orders.service.scaling;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Consumer threads of the order-events listener. The container starts with {@code minConcurrency};
+ * when {@code enabled}, {@link ListenerAutoscaler} moves it between the bounds so the backlog drains
+ * within {@code targetDrainTime}, changing it at most once per {@code cooldown}.
+ */
+@ConfigurationProperties(prefix = "orders.listener.autoscaling")
+public record ListenerAutoscalingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1") int minConcurrency,
+        @DefaultValue("4") int maxConcurrency,
+        @DefaultValue("PT30S") Duration targetDrainTime,
+        @DefaultValue("PT1M") Duration cooldown) {
+
+    public ListenerAutoscalingProperties {
+        if (minConcurrency <= 0 || maxConcurrency < minConcurrency) {
+            throw new IllegalArgumentException("orders.listener.autoscaling needs 0 < min-concurrency <= max-concurrency");
+        }
+        if (targetDrainTime.isNegative() || targetDrainTime.isZero() || cooldown.isNegative()) {
+            throw new IllegalArgumentException("orders.listener.autoscaling.target-drain-time must be positive");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.loomi.orders.service.sharding;
+
+import com.loomi.orders.domain.OrderStatus;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders created before sharding keep their old ids and so stay on shard 0, whatever shard their customer
+ * maps to now: lookups by id route them there, and the {@link ShardRebalancer} leaves them alone. Reads by
+ * customer use this to look at shard 0 as well, until {@code orders.sharding.legacy-orders} is turned off
+ * once no such orders are left.
+ */
+@Component
+public class LegacyOrders {
+    static final int SHARD = 0;
+
+    private final ShardRouter router;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+
+    public LegacyOrders(ShardRoutingDataSource dataSource, ShardRouter router, ShardingProperties properties) {
+        this.router = router;
+        this.jdbc = new NamedParameterJdbcTemplate(dataSource.shards().get(SHARD));
+        this.enabled = properties.legacyOrders();
+    }
+
+    /**
+     * @return true when some orders of {@code customerId} may sit on shard 0 instead of the customer's own shard
+     */
+    public boolean outsideShard(String customerId) {
+        return enabled && router.shardForCustomer(customerId) != SHARD;
+    }
+
+    /**
+     * Products of the customer's orders on shard 0 that are in one of {@code statuses}. Runs on its own
+     * shard 0 connection, so it can be called inside a transaction on the customer's shard.
+     */
+    public Set<String> productIds(String customerId, Collection<OrderStatus> statuses) {
+        Map<String, Object> params = Map.of("customerId", customerId,
+                "statuses", statuses.stream().map(OrderStatus::name).toList());
+        return new HashSet<>(jdbc.queryForList("SELECT DISTINCT i.product_id FROM orders o "
+                + "JOIN order_items i ON i.order_id = o.order_id "
+                + "WHERE o.customer_id = :customerId AND o.status IN (:statuses)", params, String.class));
+    }
+}
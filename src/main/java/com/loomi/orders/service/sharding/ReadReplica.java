@@ -0,0 +1,46 @@
+package com.loomi.orders.service.sharding;
+
+import javax.sql.DataSource;
+
+/**
+ * Read-only copy of one shard. Starts out of service until {@link ReplicaLagMonitor} has measured
+ * its lag.
+ */
+public final class ReadReplica {
+    private final int shard;
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean inSync;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReadReplica(int shard, String name, DataSource dataSource) {
+        this.shard = shard;
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public int shard() {
+        return shard;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean inSync() {
+        return inSync;
+    }
+
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    void update(double lagSeconds, boolean inSync) {
+        this.lagSeconds = lagSeconds;
+        this.inSync = inSync;
+    }
+}
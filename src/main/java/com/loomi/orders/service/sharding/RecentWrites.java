@@ -0,0 +1,96 @@
+package com.loomi.orders.service.sharding;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-your-writes for replica reads: keys (customer and order ids) written by this instance within
+ * {@code orders.replicas.sticky-window} are read from the primary. That tracking is per instance, so
+ * writers also get a {@link #token() token} with the write time; a request carrying a token younger
+ * than the window is read from the primary on any instance. A lookup by id that misses on a replica
+ * is retried on the primary anyway.
+ */
+@Component
+public class RecentWrites {
+    private final long windowMillis;
+    private final Clock clock;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RecentWrites(ReplicaProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    RecentWrites(ReplicaProperties properties, Clock clock) {
+        this.windowMillis = properties.stickyWindow().toMillis();
+        this.clock = clock;
+    }
+
+    public void record(String... keys) {
+        if (windowMillis == 0) {
+            return;
+        }
+        long expiry = clock.millis() + windowMillis;
+        for (String key : keys) {
+            expiries.put(key, expiry);
+        }
+    }
+
+    public boolean contains(String key) {
+        Long expiry = key == null ? null : expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry <= clock.millis()) {
+            expiries.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Write time to hand back to the client, for {@link #pending(String)} on its next reads.
+     */
+    public String token() {
+        return Long.toString(clock.millis());
+    }
+
+    /**
+     * Whether a client presenting {@code token} wrote within the sticky window. Replicas lagging more
+     * than {@code max-lag} are out of rotation, so an older write is visible on every replica still
+     * serving reads. Missing or unreadable tokens count as no recent write.
+     */
+    public boolean pending(String token) {
+        if (token == null || windowMillis == 0) {
+            return false;
+        }
+        long writtenAt;
+        try {
+            writtenAt = Long.parseLong(token);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        long age = clock.millis() - writtenAt;
+        // relógios das instâncias divergem um pouco; token mais no futuro que a janela é inválido
+        return age < windowMillis && age > -windowMillis;
+    }
+
+    public Duration window() {
+        return Duration.ofMillis(windowMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.replicas.purge-interval:PT1M}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        expiries.values().removeIf(expiry -> expiry <= now);
+    }
+
+    int size() {
+        return expiries.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.loomi.orders.service.sharding;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures replication lag of each read replica and takes replicas out of rotation while they lag
+ * more than {@code orders.replicas.max-lag} or do not answer.
+ */
+@Component
+public class ReplicaLagMonitor {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    // réplica sem nada pendente para aplicar não está atrasada, mesmo sem escrita recente no primário;
+    // fora de recovery (banco que não é réplica) as funções devolvem null e o lag é 0
+    static final String LAG_SQL = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final ShardRoutingDataSource dataSource;
+    private final double maxLagSeconds;
+
+    public ReplicaLagMonitor(ShardRoutingDataSource dataSource, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.maxLagSeconds = properties.maxLag().toMillis() / 1000d;
+        for (ReadReplica replica : dataSource.replicas()) {
+            Gauge.builder("orders.replicas.lag", replica, ReadReplica::lagSeconds)
+                    .description("Replication lag of a read replica in seconds")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("orders.replicas.fallback", dataSource, ShardRoutingDataSource::replicaFallbacks)
+                .description("Replica-eligible reads served by the primary because no replica was in sync")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.replicas.lag-check-interval:PT2S}")
+    public void check() {
+        for (ReadReplica replica : dataSource.replicas()) {
+            boolean wasInSync = replica.inSync();
+            try {
+                Double lag = new JdbcTemplate(replica.dataSource()).queryForObject(LAG_SQL, Double.class);
+                double seconds = lag == null ? 0d : lag;
+                replica.update(seconds, seconds <= maxLagSeconds);
+            } catch (DataAccessException ex) {
+                replica.update(Double.NaN, false);
+                if (wasInSync) {
+                    LOG.warn("Replica {} unreachable, reading from primary: {}", replica.name(), ex.getMessage());
+                }
+                continue;
+            }
+            if (wasInSync != replica.inSync()) {
+                LOG.info("Replica {} {} (lag {}s)", replica.name(), replica.inSync() ? "back in rotation" : "out of rotation",
+                        replica.lagSeconds());
+            }
+        }
+    }
+}
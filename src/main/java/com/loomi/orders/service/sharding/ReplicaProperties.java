@@ -0,0 +1,32 @@
+package com.loomi.orders.service.sharding;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replicas of the shards. A replica lagging more than {@code maxLag} behind its primary, or not
+ * answering, stops serving reads until it catches up. For {@code stickyWindow} after a customer
+ * creates an order, reads of that customer and order stay on the primary.
+ */
+@ConfigurationProperties(prefix = "orders.replicas")
+public record ReplicaProperties(
+        @DefaultValue("PT5S") Duration maxLag,
+        @DefaultValue("PT10S") Duration stickyWindow,
+        @DefaultValue List<Endpoint> endpoints) {
+
+    public ReplicaProperties {
+        if (maxLag.isNegative() || stickyWindow.isNegative()) {
+            throw new IllegalArgumentException("orders.replicas.max-lag and sticky-window must not be negative");
+        }
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.shard() < 0 || endpoint.url() == null || endpoint.url().isBlank()) {
+                throw new IllegalArgumentException("orders.replicas.endpoints[] needs a url and a shard >= 0");
+            }
+        }
+    }
+
+    public record Endpoint(@DefaultValue("0") int shard, String url, String username, String password) {
+    }
+}
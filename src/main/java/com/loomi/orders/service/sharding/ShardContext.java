@@ -0,0 +1,42 @@
+package com.loomi.orders.service.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread talks to, and whether a read replica may serve it. Read by
+ * {@link ShardRoutingDataSource} when a connection is acquired, so it must be set before a
+ * transaction starts; {@link ShardRouter} takes care of that.
+ */
+final class ShardContext {
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        Route route = CURRENT.get();
+        return route == null ? null : route.shard();
+    }
+
+    static boolean replicaAllowed() {
+        Route route = CURRENT.get();
+        return route != null && route.replica();
+    }
+
+    static <T> T call(int shard, boolean replica, Supplier<T> action) {
+        Route previous = CURRENT.get();
+        CURRENT.set(new Route(shard, replica));
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private record Route(int shard, boolean replica) {
+    }
+}
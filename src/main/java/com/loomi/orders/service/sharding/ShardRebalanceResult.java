@@ -0,0 +1,4 @@
+package com.loomi.orders.service.sharding;
+
+public record ShardRebalanceResult(boolean dryRun, int shards, int misplacedOrders, int movedOrders) {
+}
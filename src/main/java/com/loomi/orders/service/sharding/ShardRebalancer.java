@@ -0,0 +1,150 @@
+package com.loomi.orders.service.sharding;
+
+import com.loomi.orders.domain.ShardKeys;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves orders that sit on a shard which no longer owns their bucket, typically after shards were
+ * added. Rows are copied to the owner with {@code ON CONFLICT DO NOTHING} and then deleted from the
+ * source while the source rows are locked, so an interrupted run can simply be repeated. Orders
+ * created before sharding stay on shard 0, see {@link LegacyOrders}.
+ *
+ * <p>While a run is moving a bucket, reads by id on this instance look for its orders on every shard
+ * (see {@link #moving}); otherwise they only ask the owner, and an order not moved yet is not found by
+ * id. Its events are processed against the owner too. Run this before traffic resumes after changing
+ * the shard list.
+ */
+@Service
+public class ShardRebalancer {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final int MAX_BATCH_SIZE = 5000;
+    // ordem de inserção respeita as FKs para orders; a remoção usa a ordem inversa
+    private static final List<String> TABLES = List.of("orders", "order_items", "idempotency_keys", "processed_events");
+
+    private final ShardRouter router;
+    private final List<NamedParameterJdbcTemplate> jdbc = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final Set<Integer> moving = ConcurrentHashMap.newKeySet();
+
+    public ShardRebalancer(ShardRoutingDataSource dataSource, ShardRouter router) {
+        this.router = router;
+        for (DataSource shard : dataSource.shards()) {
+            jdbc.add(new NamedParameterJdbcTemplate(shard));
+            transactions.add(new TransactionTemplate(new DataSourceTransactionManager(shard)));
+        }
+    }
+
+    public synchronized ShardRebalanceResult rebalance(boolean dryRun, int batchSize) {
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and %d".formatted(MAX_BATCH_SIZE));
+        }
+        Set<Integer> marked = dryRun ? Set.of() : markMoving();
+        try {
+            return run(dryRun, batchSize);
+        } finally {
+            moving.removeAll(marked);
+        }
+    }
+
+    /**
+     * @return true while a run on this instance is moving orders of {@code bucket} to their owner
+     */
+    public boolean moving(int bucket) {
+        return moving.contains(bucket);
+    }
+
+    private Set<Integer> markMoving() {
+        Set<Integer> marked = new HashSet<>();
+        for (int source = 0; source < jdbc.size(); source++) {
+            jdbc.get(source).queryForList("SELECT DISTINCT left(order_id, 2) FROM orders WHERE left(order_id, 3) IN (:prefixes)",
+                            Map.of("prefixes", foreignPrefixes(source)), String.class)
+                    .forEach(bucket -> marked.add(Integer.parseInt(bucket, 16)));
+        }
+        moving.addAll(marked);
+        return marked;
+    }
+
+    private ShardRebalanceResult run(boolean dryRun, int batchSize) {
+        int misplaced = 0;
+        int moved = 0;
+        for (int source = 0; source < jdbc.size(); source++) {
+            Map<String, Object> foreign = Map.of("prefixes", foreignPrefixes(source));
+            if (dryRun) {
+                misplaced += jdbc.get(source).queryForObject(
+                        "SELECT count(*) FROM orders WHERE left(order_id, 3) IN (:prefixes)", foreign, Integer.class);
+                continue;
+            }
+            List<String> batch;
+            while (!(batch = misplacedOrderIds(source, foreign, batchSize)).isEmpty()) {
+                Map<Integer, List<String>> byTarget = batch.stream()
+                        .collect(Collectors.groupingBy(router::shardForOrder, LinkedHashMap::new, Collectors.toList()));
+                for (Map.Entry<Integer, List<String>> entry : byTarget.entrySet()) {
+                    move(source, entry.getKey(), entry.getValue());
+                }
+                misplaced += batch.size();
+                moved += batch.size();
+            }
+        }
+        LOG.info("Shard rebalance over {} shards: {} misplaced orders, {} moved", jdbc.size(), misplaced, moved);
+        return new ShardRebalanceResult(dryRun, jdbc.size(), misplaced, moved);
+    }
+
+    private List<String> foreignPrefixes(int shard) {
+        List<String> prefixes = new ArrayList<>();
+        for (int bucket = 0; bucket < ShardKeys.BUCKETS; bucket++) {
+            if (router.shardOfBucket(bucket) != shard) {
+                prefixes.add(ShardKeys.orderIdPrefix(bucket));
+            }
+        }
+        // com um único shard nenhum bucket é estrangeiro; IN () não é SQL válido
+        if (prefixes.isEmpty()) {
+            prefixes.add("");
+        }
+        return prefixes;
+    }
+
+    private List<String> misplacedOrderIds(int source, Map<String, Object> foreign, int batchSize) {
+        Map<String, Object> params = new LinkedHashMap<>(foreign);
+        params.put("limit", batchSize);
+        return jdbc.get(source).queryForList(
+                "SELECT order_id FROM orders WHERE left(order_id, 3) IN (:prefixes) LIMIT :limit", params, String.class);
+    }
+
+    private void move(int source, int target, List<String> orderIds) {
+        Map<String, Object> ids = Map.of("ids", orderIds);
+        transactions.get(source).executeWithoutResult(sourceTx -> {
+            jdbc.get(source).queryForList("SELECT order_id FROM orders WHERE order_id IN (:ids) FOR UPDATE", ids, String.class);
+            transactions.get(target).executeWithoutResult(targetTx -> TABLES.forEach(table -> copy(table, source, target, ids)));
+            for (int i = TABLES.size() - 1; i >= 0; i--) {
+                jdbc.get(source).update("DELETE FROM " + TABLES.get(i) + " WHERE order_id IN (:ids)", ids);
+            }
+        });
+    }
+
+    private void copy(String table, int source, int target, Map<String, Object> ids) {
+        List<Map<String, Object>> rows = jdbc.get(source).queryForList("SELECT * FROM " + table + " WHERE order_id IN (:ids)", ids);
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> columns = rows.get(0).keySet();
+        String sql = "INSERT INTO %s (%s) VALUES (%s) ON CONFLICT DO NOTHING".formatted(table, String.join(", ", columns),
+                columns.stream().map(column -> ":" + column).collect(Collectors.joining(", ")));
+        jdbc.get(target).batchUpdate(sql, rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new));
+    }
+}
@@ -0,0 +1,128 @@
+package com.loomi.orders.service.sharding;
+
+import com.loomi.orders.domain.ShardKeys;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes work to the shard owning a customer or order. Virtual bucket {@code b} belongs to shard
+ * {@code b % shardCount}; orders whose id predates sharding live on shard 0. Every call binds the
+ * shard before its transaction starts, so repositories keep working unchanged inside the callback.
+ */
+@Component
+public class ShardRouter {
+    private final int shardCount;
+    private final TransactionOperations writes;
+    private final TransactionOperations reads;
+
+    @Autowired
+    public ShardRouter(ShardRoutingDataSource dataSource, PlatformTransactionManager transactionManager) {
+        this(dataSource.shardCount(), new TransactionTemplate(transactionManager), readOnly(transactionManager));
+    }
+
+    public ShardRouter(int shardCount, TransactionOperations writes, TransactionOperations reads) {
+        this.shardCount = shardCount;
+        this.writes = writes;
+        this.reads = reads;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOfBucket(int bucket) {
+        return bucket == ShardKeys.LEGACY_BUCKET ? 0 : bucket % shardCount;
+    }
+
+    public int shardForCustomer(String customerId) {
+        return shardOfBucket(ShardKeys.bucketOfCustomer(customerId));
+    }
+
+    public int shardForOrder(String orderId) {
+        return shardOfBucket(ShardKeys.bucketOfOrder(orderId));
+    }
+
+    public <T> T write(int shard, TransactionCallback<T> action) {
+        return on(shard, () -> writes.execute(action));
+    }
+
+    public <T> T read(int shard, TransactionCallback<T> action) {
+        return on(shard, () -> reads.execute(action));
+    }
+
+    /**
+     * Like {@link #read} but may be served by an in-sync replica of the shard, so it can miss writes
+     * from the last few seconds. See {@link RecentWrites} for callers that must see their own writes.
+     */
+    public <T> T readReplica(int shard, TransactionCallback<T> action) {
+        return route(shard, true, () -> reads.execute(action));
+    }
+
+    /**
+     * Runs {@code action} against {@code shard} without opening a transaction, for repository calls
+     * that are cheap enough to run in their own.
+     */
+    public <T> T on(int shard, Supplier<T> action) {
+        return route(shard, false, action);
+    }
+
+    private <T> T route(int shard, boolean replica, Supplier<T> action) {
+        Integer current = ShardContext.current();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && (current == null ? 0 : current) != shard) {
+            throw new IllegalStateException("Cannot switch to shard %d inside a transaction on shard %d"
+                    .formatted(shard, current == null ? 0 : current));
+        }
+        return ShardContext.call(shard, replica, action);
+    }
+
+    /**
+     * Runs {@code action} in a read-only transaction on every shard in parallel, on replicas where
+     * one is in sync.
+     *
+     * @return one result per shard, in shard order
+     */
+    public <T> List<T> readAll(TransactionCallback<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        if (shardCount == 1) {
+            results.add(readReplica(0, action));
+            return results;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int target = shard;
+                futures.add(executor.submit(() -> readReplica(target, action)));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return results;
+    }
+
+    private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
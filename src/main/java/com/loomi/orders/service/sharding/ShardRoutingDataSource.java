@@ -0,0 +1,117 @@
+package com.loomi.orders.service.sharding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Application {@link DataSource} that picks one shard per connection from {@link ShardContext}.
+ * Shard 0 is {@code spring.datasource}; without a shard in context connections go there, which keeps
+ * a single-database deployment unchanged. Reads the context marks as replica-eligible go round-robin
+ * to the shard's in-sync replicas and fall back to the primary when there is none.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private final List<DataSource> shards;
+    private final List<ReadReplica> replicas;
+    private final List<List<ReadReplica>> replicasByShard = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong replicaFallbacks = new AtomicLong();
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this(shards, List.of());
+    }
+
+    public ShardRoutingDataSource(List<DataSource> shards, List<ReadReplica> replicas) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard datasource is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.replicas = List.copyOf(replicas);
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            replicasByShard.add(replicas.stream().filter(replica -> replica.shard() == shard).toList());
+        }
+        for (ReadReplica replica : replicas) {
+            if (replica.shard() >= shards.size()) {
+                throw new IllegalArgumentException("Replica %s points to unknown shard %d".formatted(replica.name(), replica.shard()));
+            }
+        }
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @return the physical datasource of each shard, indexed by shard number
+     */
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    public List<ReadReplica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * @return replica-eligible connections served by a primary because no replica of the shard was in sync
+     */
+    public long replicaFallbacks() {
+        return replicaFallbacks.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        if (ShardContext.replicaAllowed() && !replicas.isEmpty()) {
+            List<ReadReplica> candidates = replicasByShard.get(ShardContext.current());
+            int start = nextReplica.getAndIncrement();
+            for (int i = 0; i < candidates.size(); i++) {
+                ReadReplica replica = candidates.get(Math.floorMod(start + i, candidates.size()));
+                if (replica.inSync()) {
+                    return replica.dataSource();
+                }
+            }
+            if (!candidates.isEmpty()) {
+                replicaFallbacks.incrementAndGet();
+            }
+        }
+        return super.determineTargetDataSource();
+    }
+
+    @Override
+    public void close() {
+        List<DataSource> pools = new ArrayList<>(shards);
+        replicas.forEach(replica -> pools.add(replica.dataSource()));
+        for (DataSource shard : pools) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    LOG.warn("Could not close shard datasource: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.loomi.orders.service.sharding;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Extra Postgres databases for orders, idempotency keys and processed events. Shard 0 is always
+ * {@code spring.datasource}; the entries here become shards 1..N and reuse its Hikari settings.
+ * {@code legacyOrders} says shard 0 may still hold orders created before sharding, see {@link LegacyOrders}.
+ */
+@ConfigurationProperties(prefix = "orders.sharding")
+public record ShardingProperties(@DefaultValue List<Shard> shards, @DefaultValue("true") boolean legacyOrders) {
+
+    public ShardingProperties {
+        for (Shard shard : shards) {
+            if (shard.url() == null || shard.url().isBlank()) {
+                throw new IllegalArgumentException("orders.sharding.shards[].url is required");
+            }
+        }
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.loomi.orders.service.stream;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.service.events.OrderResultEvent;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single order-results consumer per instance feeding {@link OrderStatusHub}. The group id is random
+ * so every instance sees every result; see {@code orderResultBroadcastContainerFactory}.
+ */
+@Component
+public class OrderResultStreamListener {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderResultStreamListener.class);
+    private static final String EVENT_TYPE_PREFIX = "ORDER_";
+
+    private final OrderStatusHub hub;
+
+    public OrderResultStreamListener(OrderStatusHub hub) {
+        this.hub = hub;
+    }
+
+    @KafkaListener(id = "orderResultsStream", topics = "order-results", groupId = "order-results-stream-${random.uuid}",
+            containerFactory = "orderResultBroadcastContainerFactory")
+    public void consume(ConsumerRecord<String, OrderResultEvent> record) {
+        OrderResultEvent event = record.value();
+        OrderStatus status = toStatus(event.eventType());
+        if (status == null) {
+            LOG.debug("Ignoring order result {} of type {}", event.eventId(), event.eventType());
+            return;
+        }
+        hub.publish(new OrderStatusUpdate(event.eventId(), record.key(), event.customerId(), status,
+                reason(event.payload()), event.timestamp()));
+    }
+
+    private static OrderStatus toStatus(String eventType) {
+        if (eventType == null || !eventType.startsWith(EVENT_TYPE_PREFIX)) {
+            return null;
+        }
+        try {
+            return OrderStatus.valueOf(eventType.substring(EVENT_TYPE_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String reason(Object payload) {
+        // payload chega como Map: o JsonDeserializer não conhece o tipo concreto
+        return payload instanceof Map<?, ?> map
+                ? Optional.ofNullable(map.get("reason")).map(Object::toString).orElse(null)
+                : null;
+    }
+}
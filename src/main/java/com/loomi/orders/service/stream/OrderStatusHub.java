@@ -0,0 +1,154 @@
+package com.loomi.orders.service.stream;
+
+import com.loomi.orders.service.admission.AdmissionRejectedException;
+import com.loomi.orders.service.admission.RejectionReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans order status changes out to SSE subscribers, indexed by order id and by customer id. It is
+ * fed by a single order-results consumer per instance ({@link OrderResultStreamListener}); each
+ * subscriber has its own bounded drop-oldest buffer, and the number of open streams is capped.
+ */
+@Component
+public class OrderStatusHub {
+    static final String STATUS_EVENT = "status";
+
+    private final OrderStreamProperties properties;
+    private final Executor executor;
+    private final Function<Long, SseEmitter> emitterFactory;
+    private final Map<String, Set<Subscriber>> byOrder = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byCustomer = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+
+    @Autowired
+    public OrderStatusHub(OrderStreamProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-stream-", 0).factory()),
+                SseEmitter::new);
+    }
+
+    OrderStatusHub(OrderStreamProperties properties, MeterRegistry meterRegistry, Executor executor,
+                   Function<Long, SseEmitter> emitterFactory) {
+        this.properties = properties;
+        this.executor = executor;
+        this.emitterFactory = emitterFactory;
+        this.dropped = Counter.builder("orders.stream.dropped")
+                .description("Status events dropped because a subscriber buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("orders.stream.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for one order. The subscription is registered before {@code snapshot} is read so
+     * a result published in between is not lost; the stream ends after a final status.
+     */
+    public SseEmitter subscribeOrder(String orderId, Supplier<OrderStatusUpdate> snapshot) {
+        Subscriber subscriber = register(byOrder, orderId);
+        OrderStatusUpdate current;
+        try {
+            current = snapshot.get();
+        } catch (RuntimeException ex) {
+            unregister(byOrder, subscriber);
+            throw ex;
+        }
+        deliver(subscriber, current);
+        if (current.isFinal()) {
+            subscriber.completeWhenDrained();
+        }
+        return subscriber.emitter();
+    }
+
+    public SseEmitter subscribeCustomer(String customerId) {
+        return register(byCustomer, customerId).emitter();
+    }
+
+    public void publish(OrderStatusUpdate update) {
+        Set<Subscriber> orderSubscribers = byOrder.get(update.orderId());
+        if (orderSubscribers != null) {
+            for (Subscriber subscriber : orderSubscribers) {
+                deliver(subscriber, update);
+                if (update.isFinal()) {
+                    subscriber.completeWhenDrained();
+                }
+            }
+        }
+        Set<Subscriber> customerSubscribers = update.customerId() == null ? null : byCustomer.get(update.customerId());
+        if (customerSubscribers != null) {
+            customerSubscribers.forEach(subscriber -> deliver(subscriber, update));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        // comentário SSE mantém proxies abertos e revela clientes desconectados
+        byOrder.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keepalive"))));
+        byCustomer.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keepalive"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byOrder.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter().complete()));
+        byCustomer.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter().complete()));
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.get();
+    }
+
+    private Subscriber register(Map<String, Set<Subscriber>> index, String key) {
+        if (subscribers.incrementAndGet() > properties.maxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new AdmissionRejectedException(RejectionReason.CONCURRENCY_LIMIT, properties.retryAfter(),
+                    "Too many open order streams");
+        }
+        SseEmitter emitter = emitterFactory.apply(properties.timeout().toMillis());
+        Subscriber subscriber = new Subscriber(key, emitter, executor, properties.bufferSize());
+        index.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable cleanup = () -> unregister(index, subscriber);
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(error -> cleanup.run());
+        return subscriber;
+    }
+
+    private void unregister(Map<String, Set<Subscriber>> index, Subscriber subscriber) {
+        subscriber.close();
+        boolean[] removed = new boolean[1];
+        index.computeIfPresent(subscriber.key(), (key, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, OrderStatusUpdate update) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(STATUS_EVENT).data(update);
+        if (update.eventId() != null) {
+            event.id(update.eventId());
+        }
+        if (subscriber.offer(event)) {
+            dropped.increment();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.loomi.orders.service.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.loomi.orders.domain.OrderStatus;
+import java.time.OffsetDateTime;
+
+/**
+ * Payload of the {@code status} SSE event. {@code eventId} is the id of the order-results record,
+ * or null for the snapshot sent when a stream is opened.
+ */
+public record OrderStatusUpdate(String eventId, String orderId, String customerId, OrderStatus status,
+                                String reason, OffsetDateTime occurredAt) {
+
+    @JsonIgnore
+    public boolean isFinal() {
+        return status == OrderStatus.PROCESSED || status == OrderStatus.FAILED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.loomi.orders.service.stream;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.stream")
+public record OrderStreamProperties(
+        @DefaultValue("64") int bufferSize,
+        @DefaultValue("10000") int maxSubscribers,
+        @DefaultValue("PT30M") Duration timeout,
+        @DefaultValue("PT15S") Duration heartbeat,
+        @DefaultValue("PT5S") Duration retryAfter) {
+
+    public OrderStreamProperties {
+        if (bufferSize <= 0 || maxSubscribers <= 0) {
+            throw new IllegalArgumentException("orders.stream.buffer-size and max-subscribers must be positive");
+        }
+    }
+}
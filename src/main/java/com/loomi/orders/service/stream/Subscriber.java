@@ -0,0 +1,107 @@
+package com.loomi.orders.service.stream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One SSE client. Events are queued in a bounded buffer that drops the oldest entry when full and
+ * are written by a drain task on the hub executor, so a slow client never blocks the Kafka
+ * consumer thread or other subscribers.
+ */
+final class Subscriber {
+    private final String key;
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final int capacity;
+    private final Deque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+    private boolean draining;
+    private boolean completeWhenDrained;
+    private boolean closed;
+
+    Subscriber(String key, SseEmitter emitter, Executor executor, int capacity) {
+        this.key = key;
+        this.emitter = emitter;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    String key() {
+        return key;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * @return true when an older buffered event had to be dropped to make room
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        boolean dropped = false;
+        boolean schedule;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                dropped = true;
+            }
+            buffer.addLast(event);
+            schedule = !draining;
+            draining = true;
+        }
+        if (schedule) {
+            executor.execute(this::drain);
+        }
+        return dropped;
+    }
+
+    void completeWhenDrained() {
+        boolean completeNow;
+        synchronized (this) {
+            completeWhenDrained = true;
+            completeNow = !draining && !closed;
+            closed |= completeNow;
+        }
+        if (completeNow) {
+            emitter.complete();
+        }
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+            buffer.clear();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            synchronized (this) {
+                next = closed ? null : buffer.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    if (completeWhenDrained && !closed) {
+                        closed = true;
+                        break;
+                    }
+                    return;
+                }
+            }
+            try {
+                emitter.send(next);
+            } catch (IOException | IllegalStateException ex) {
+                // cliente desconectou; o callback de erro do emitter remove a inscrição
+                close();
+                emitter.completeWithError(ex);
+                return;
+            }
+        }
+        emitter.complete();
+    }
+}
@@ -0,0 +1,58 @@
+package com.loomi.orders.service.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.LogMarkers;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CorporateItemHandler implements ItemHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(CorporateItemHandler.class);
+    private static final BigDecimal CORPORATE_CREDIT_LIMIT = new BigDecimal("100000");
+    private static final BigDecimal CORPORATE_APPROVAL_THRESHOLD = new BigDecimal("50000");
+    private static final BigDecimal CORPORATE_VOLUME_DISCOUNT = new BigDecimal("0.85");
+
+    private final ObjectMapper objectMapper;
+
+    public CorporateItemHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductType type() {
+        return ProductType.CORPORATE;
+    }
+
+    @Override
+    public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+        Map<String, Object> metadata = ItemMetadata.parse(objectMapper, item.metadata());
+        String cnpj = Optional.ofNullable(metadata.get("cnpj")).map(Object::toString).orElse("");
+        if (cnpj.isBlank() || !isValidCnpj(cnpj)) {
+            return ItemOutcome.rejected(FailureReason.INVALID_CORPORATE_DATA);
+        }
+        BigDecimal lineTotal = item.priceSnapshot().multiply(BigDecimal.valueOf(item.quantity()));
+        if (lineTotal.compareTo(CORPORATE_CREDIT_LIMIT) > 0) {
+            return ItemOutcome.rejected(FailureReason.CREDIT_LIMIT_EXCEEDED);
+        }
+        BigDecimal discount = BigDecimal.ZERO;
+        if (item.quantity() > 100) {
+            discount = lineTotal.subtract(lineTotal.multiply(CORPORATE_VOLUME_DISCOUNT));
+            LOG.info(LogMarkers.DISCOUNT_APPLIED, "Volume discount applied for {}", item.productId());
+        }
+        FailureReason pending = lineTotal.compareTo(CORPORATE_APPROVAL_THRESHOLD) > 0 ? FailureReason.PENDING_MANUAL_APPROVAL : null;
+        metadata.getOrDefault("paymentTerms", "NET_30");
+        return new ItemOutcome(null, discount, null, pending);
+    }
+
+    private boolean isValidCnpj(String cnpj) {
+        return cnpj.matches("\\d{2}\\.\\d{3}\\.\\d{3}/\\d{4}-\\d{2}") || cnpj.matches("\\d{14}");
+    }
+}
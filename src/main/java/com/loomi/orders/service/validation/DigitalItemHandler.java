@@ -0,0 +1,44 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.LogMarkers;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DigitalItemHandler implements ItemHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(DigitalItemHandler.class);
+
+    @Override
+    public ProductType type() {
+        return ProductType.DIGITAL;
+    }
+
+    @Override
+    public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+        if (item.quantity() > 1) {
+            return ItemOutcome.rejected(FailureReason.ALREADY_OWNED);
+        }
+        Integer licenses = product.licenses();
+        if (licenses != null && licenses < item.quantity()) {
+            return ItemOutcome.rejected(FailureReason.LICENSE_UNAVAILABLE);
+        }
+        generateLicense(item.productId());
+        sendDigitalDelivery(item.productId());
+        return ItemOutcome.accepted();
+    }
+
+    private void generateLicense(String productId) {
+        String license = UUID.randomUUID().toString();
+        LOG.info(LogMarkers.LICENSE_GENERATED, "Generated license {} for product {}", license, productId);
+    }
+
+    private void sendDigitalDelivery(String productId) {
+        LOG.info(LogMarkers.DIGITAL_DELIVERY, "Sent digital delivery email for {}", productId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.util.List;
+
+/**
+ * Checks the items of one {@link ProductType}. {@link OrderItemValidator} picks the handler by type and, for
+ * large orders, runs {@link #check} for every item concurrently on virtual threads.
+ */
+public interface ItemHandler {
+
+    ProductType type();
+
+    /**
+     * Checks one item on its own. May run on another thread than the order's, outside its transaction and
+     * concurrently with the order's other items, so it must not depend on them or on shared mutable state.
+     */
+    ItemOutcome check(OrderItemPayload item, ProductRecord product);
+
+    /**
+     * Rules spanning all items of this type in the order. Runs on the order's thread, inside its transaction,
+     * after the independent checks; {@code items} are in order.
+     */
+    default void checkTogether(String customerId, List<OrderItemPayload> items, Rejections rejections) {
+    }
+
+    interface Rejections {
+
+        /**
+         * @return true when the remaining checks should be skipped
+         */
+        boolean reject(FailureReason reason);
+    }
+}
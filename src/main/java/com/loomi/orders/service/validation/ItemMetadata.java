@@ -0,0 +1,27 @@
+package com.loomi.orders.service.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ItemMetadata {
+    private static final Logger LOG = LoggerFactory.getLogger(ItemMetadata.class);
+
+    private ItemMetadata() {
+    }
+
+    static Map<String, Object> parse(ObjectMapper objectMapper, String metadata) {
+        if (metadata == null || metadata.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(metadata, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            LOG.warn("Invalid metadata, ignoring: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.domain.FailureReason;
+import java.math.BigDecimal;
+
+/**
+ * Result of checking one item.
+ *
+ * @param failure           why the item rejects the order, or null when it is accepted
+ * @param discount          amount to take off the order total
+ * @param lowStockRemaining stock left after this item when it crossed the low-stock threshold, else null
+ * @param pendingReason     set when the item holds the order for manual approval
+ */
+public record ItemOutcome(FailureReason failure, BigDecimal discount, Integer lowStockRemaining, FailureReason pendingReason) {
+    private static final ItemOutcome ACCEPTED = new ItemOutcome(null, BigDecimal.ZERO, null, null);
+
+    public static ItemOutcome accepted() {
+        return ACCEPTED;
+    }
+
+    public static ItemOutcome rejected(FailureReason failure) {
+        return new ItemOutcome(failure, BigDecimal.ZERO, null, null);
+    }
+
+    public static ItemOutcome discounted(BigDecimal discount) {
+        return new ItemOutcome(null, discount, null, null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.domain.FailureReason;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Item outcomes of an order folded together.
+ *
+ * @param failures      reasons the items reject the order, in item order followed by cross-item rules
+ * @param discount      total of the item discounts
+ * @param lowStock      items that left their product below the low-stock threshold
+ * @param pendingReason first reason an item holds the order for manual approval, or null
+ */
+public record ItemValidation(List<FailureReason> failures, BigDecimal discount, List<LowStock> lowStock,
+                             FailureReason pendingReason) {
+
+    public record LowStock(String productId, int remainingStock) {
+    }
+}
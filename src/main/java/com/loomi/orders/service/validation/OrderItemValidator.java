@@ -0,0 +1,218 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.config.OrderValidationProperties;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.MdcPropagation;
+import com.loomi.orders.profiling.ItemCheckEvent;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link ItemHandler}s over the items of an order. Orders with at least
+ * {@code orders.validation.parallel-threshold} items have their independent checks run concurrently, one
+ * virtual thread per item, in a scope that never outlives the call; in fail-fast mode the first rejection
+ * interrupts the remaining checks and, once they have returned, the rejection of the lowest-indexed item
+ * among those that completed is reported. Cross-item rules then run on the caller's thread.
+ */
+@Component
+public class OrderItemValidator {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderItemValidator.class);
+
+    private final Map<ProductType, ItemHandler> handlers = new EnumMap<>(ProductType.class);
+    private final ProductCatalog productCatalog;
+    private final int parallelThreshold;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("order-items-", 0).factory();
+
+    public OrderItemValidator(List<ItemHandler> handlers, ProductCatalog productCatalog, OrderValidationProperties properties) {
+        for (ItemHandler handler : handlers) {
+            if (this.handlers.put(handler.type(), handler) != null) {
+                throw new IllegalStateException("More than one item handler for " + handler.type());
+            }
+        }
+        for (ProductType type : ProductType.values()) {
+            if (!this.handlers.containsKey(type)) {
+                throw new IllegalStateException("No item handler for " + type);
+            }
+        }
+        this.productCatalog = productCatalog;
+        this.parallelThreshold = properties.parallelThreshold();
+    }
+
+    /**
+     * @param collectAllFailures keep checking after the first rejection instead of returning it alone
+     */
+    public ItemValidation validate(OrderCreatedEvent event, boolean collectAllFailures) {
+        List<FailureReason> failures = new ArrayList<>(1);
+        List<OrderItemPayload> items = event.items();
+        ProductRecord[] products = new ProductRecord[items.size()];
+        ProductType[] types = new ProductType[items.size()];
+        for (int i = 0; i < products.length; i++) {
+            OrderItemPayload item = items.get(i);
+            products[i] = productCatalog.findById(item.productId()).orElse(null);
+            if (products[i] == null) {
+                failures.add(FailureReason.WAREHOUSE_UNAVAILABLE);
+                if (!collectAllFailures) {
+                    return rejected(failures);
+                }
+            }
+            // tipo desconhecido é evento inválido: falha aqui, na thread do listener, antes de qualquer checagem
+            types[i] = ProductType.valueOf(item.productType());
+        }
+
+        ItemOutcome[] outcomes = items.size() >= parallelThreshold
+                ? checkConcurrently(items, products, types, collectAllFailures)
+                : checkInOrder(items, products, types, collectAllFailures);
+
+        BigDecimal discount = BigDecimal.ZERO;
+        List<ItemValidation.LowStock> lowStock = new ArrayList<>();
+        FailureReason pendingReason = null;
+        for (int i = 0; i < outcomes.length; i++) {
+            ItemOutcome outcome = outcomes[i];
+            if (outcome == null) {
+                continue;
+            }
+            if (outcome.failure() != null) {
+                failures.add(outcome.failure());
+                if (!collectAllFailures) {
+                    return rejected(failures);
+                }
+                continue;
+            }
+            if (outcome.discount().signum() > 0) {
+                discount = discount.add(outcome.discount());
+            }
+            if (outcome.lowStockRemaining() != null) {
+                lowStock.add(new ItemValidation.LowStock(items.get(i).productId(), outcome.lowStockRemaining()));
+            }
+            if (pendingReason == null) {
+                pendingReason = outcome.pendingReason();
+            }
+        }
+
+        if (!checkTogether(event.customerId(), items, types, failures, collectAllFailures)) {
+            return rejected(failures);
+        }
+        List<ProductType> present = List.of(types);
+        if (present.contains(ProductType.PHYSICAL) && present.contains(ProductType.PRE_ORDER)) {
+            LOG.info("Mixed order with physical and pre-order items will ship separately");
+        }
+        return new ItemValidation(List.copyOf(failures), discount, lowStock, pendingReason);
+    }
+
+    private ItemOutcome[] checkInOrder(List<OrderItemPayload> items, ProductRecord[] products, ProductType[] types,
+                                       boolean collectAllFailures) {
+        ItemOutcome[] outcomes = new ItemOutcome[products.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            if (products[i] == null) {
+                continue;
+            }
+            outcomes[i] = check(handlers.get(types[i]), items.get(i), products[i]);
+            if (outcomes[i].failure() != null && !collectAllFailures) {
+                break;
+            }
+        }
+        return outcomes;
+    }
+
+    private static ItemOutcome check(ItemHandler handler, OrderItemPayload item, ProductRecord product) {
+        ItemCheckEvent event = ItemCheckEvent.start(item.productId(), handler.type().name());
+        ItemOutcome outcome = handler.check(item, product);
+        event.finish(outcome.failure() == null ? null : outcome.failure().name());
+        return outcome;
+    }
+
+    private ItemOutcome[] checkConcurrently(List<OrderItemPayload> items, ProductRecord[] products, ProductType[] types,
+                                            boolean collectAllFailures) {
+        ItemOutcome[] outcomes = new ItemOutcome[products.length];
+        boolean failed = false;
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(threadFactory)) {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(MdcPropagation.withCurrentContext(scope));
+            int submitted = 0;
+            for (int i = 0; i < outcomes.length; i++) {
+                if (products[i] != null) {
+                    int index = i;
+                    ItemHandler handler = handlers.get(types[i]);
+                    completion.submit(() -> {
+                        outcomes[index] = check(handler, items.get(index), products[index]);
+                        return index;
+                    });
+                    submitted++;
+                }
+            }
+            try {
+                for (int done = 0; done < submitted && !failed; done++) {
+                    int index = completion.take().get();
+                    failed = outcomes[index].failure() != null && !collectAllFailures;
+                }
+            } finally {
+                // saída antecipada (falha fatal ou erro) interrompe as checagens restantes; o close() espera elas terminarem
+                scope.shutdownNow();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating items", ex);
+        }
+        if (!failed) {
+            return outcomes;
+        }
+        // a primeira falha a terminar depende do agendamento; entre as checagens concluídas vale a de menor índice,
+        // a mesma que checkInOrder devolveria
+        ItemOutcome[] first = new ItemOutcome[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] != null && outcomes[i].failure() != null) {
+                first[i] = outcomes[i];
+                break;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @return false when a cross-item rule rejected the order and the remaining checks were skipped
+     */
+    private boolean checkTogether(String customerId, List<OrderItemPayload> items, ProductType[] types,
+                                  List<FailureReason> failures, boolean collectAllFailures) {
+        Map<ProductType, List<OrderItemPayload>> byType = new EnumMap<>(ProductType.class);
+        for (int i = 0; i < types.length; i++) {
+            byType.computeIfAbsent(types[i], type -> new ArrayList<>()).add(items.get(i));
+        }
+        boolean[] stopped = new boolean[1];
+        for (Map.Entry<ProductType, List<OrderItemPayload>> entry : byType.entrySet()) {
+            handlers.get(entry.getKey()).checkTogether(customerId, entry.getValue(), reason -> {
+                failures.add(reason);
+                stopped[0] = !collectAllFailures;
+                return stopped[0];
+            });
+            if (stopped[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ItemValidation rejected(List<FailureReason> failures) {
+        return new ItemValidation(List.copyOf(failures), BigDecimal.ZERO, List.of(), null);
+    }
+}
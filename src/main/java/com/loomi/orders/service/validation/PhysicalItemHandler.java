@@ -0,0 +1,55 @@
+package com.loomi.orders.service.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.LogMarkers;
+import com.loomi.orders.service.alerts.LowStockAlertAggregator;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PhysicalItemHandler implements ItemHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(PhysicalItemHandler.class);
+
+    private final LowStockAlertAggregator lowStockAlerts;
+    private final ObjectMapper objectMapper;
+
+    public PhysicalItemHandler(LowStockAlertAggregator lowStockAlerts, ObjectMapper objectMapper) {
+        this.lowStockAlerts = lowStockAlerts;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductType type() {
+        return ProductType.PHYSICAL;
+    }
+
+    @Override
+    public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+        int available = Optional.ofNullable(product.stock()).orElse(0);
+        if (available < item.quantity()) {
+            return ItemOutcome.rejected(FailureReason.OUT_OF_STOCK);
+        }
+        int remaining = available - item.quantity();
+        // Mock de reserva e cálculo de prazo (não altera estoque global)
+        int deliveryDays = estimateDeliveryDays(item.metadata());
+        LOG.info(LogMarkers.ITEM_RESERVED, "Reserved {} units of {}, ETA {} days", item.quantity(), item.productId(), deliveryDays);
+        return lowStockAlerts.isLow(remaining)
+                ? new ItemOutcome(null, BigDecimal.ZERO, remaining, null)
+                : ItemOutcome.accepted();
+    }
+
+    private int estimateDeliveryDays(String metadata) {
+        Map<String, Object> meta = ItemMetadata.parse(objectMapper, metadata);
+        String location = Optional.ofNullable(meta.get("warehouseLocation")).map(Object::toString).orElse("DEFAULT");
+        int hash = Math.abs(location.hashCode());
+        return 5 + (hash % 6); // 5-10 dias
+    }
+}
@@ -0,0 +1,69 @@
+package com.loomi.orders.service.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.LogMarkers;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PreOrderItemHandler implements ItemHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(PreOrderItemHandler.class);
+
+    private final ObjectMapper objectMapper;
+
+    public PreOrderItemHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductType type() {
+        return ProductType.PRE_ORDER;
+    }
+
+    @Override
+    public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+        LocalDate releaseDate = product.releaseDate();
+        if (releaseDate == null) {
+            return ItemOutcome.rejected(FailureReason.INVALID_RELEASE_DATE);
+        }
+        if (!releaseDate.isAfter(LocalDate.now())) {
+            return ItemOutcome.rejected(FailureReason.RELEASE_DATE_PASSED);
+        }
+        Integer slots = product.preOrderSlots();
+        if (slots != null && item.quantity() > slots) {
+            return ItemOutcome.rejected(FailureReason.PRE_ORDER_SOLD_OUT);
+        }
+        BigDecimal discount = resolvePreOrderDiscount(item.metadata(), item.priceSnapshot(), item.quantity());
+        if (discount.compareTo(BigDecimal.ZERO) > 0) {
+            LOG.info(LogMarkers.DISCOUNT_APPLIED, "Pre-order discount applied for {}", item.productId());
+            return ItemOutcome.discounted(discount);
+        }
+        return ItemOutcome.accepted();
+    }
+
+    private BigDecimal resolvePreOrderDiscount(String metadata, BigDecimal price, int qty) {
+        Map<String, Object> meta = ItemMetadata.parse(objectMapper, metadata);
+        Object discountObj = meta.get("preOrderDiscount");
+        if (discountObj == null) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            BigDecimal discount = new BigDecimal(discountObj.toString());
+            if (discount.compareTo(BigDecimal.ONE) < 0) {
+                discount = price.multiply(BigDecimal.valueOf(qty)).multiply(discount); // percentual
+            }
+            return discount.max(BigDecimal.ZERO);
+        } catch (NumberFormatException ex) {
+            LOG.warn("Invalid preOrderDiscount format: {}", discountObj);
+            return BigDecimal.ZERO;
+        }
+    }
+}
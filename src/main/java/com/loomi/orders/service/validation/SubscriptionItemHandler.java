@@ -0,0 +1,98 @@
+package com.loomi.orders.service.validation;
+
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.logging.LogMarkers;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subscriptions are only checked together: duplicates, the per-order limit and incompatible plans depend on
+ * the other items, and the customer's active subscriptions come from the order's shard, plus shard 0 for
+ * orders placed before sharding.
+ */
+@Component
+public class SubscriptionItemHandler implements ItemHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriptionItemHandler.class);
+    private static final int MAX_SUBSCRIPTIONS_PER_ORDER = 5;
+    private static final Set<OrderStatus> ACTIVE = EnumSet.of(OrderStatus.PROCESSED, OrderStatus.PENDING_APPROVAL);
+
+    private final OrderRepository orderRepository;
+    private final LegacyOrders legacyOrders;
+
+    public SubscriptionItemHandler(OrderRepository orderRepository, LegacyOrders legacyOrders) {
+        this.orderRepository = orderRepository;
+        this.legacyOrders = legacyOrders;
+    }
+
+    @Override
+    public ProductType type() {
+        return ProductType.SUBSCRIPTION;
+    }
+
+    @Override
+    public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+        return ItemOutcome.accepted();
+    }
+
+    @Override
+    public void checkTogether(String customerId, List<OrderItemPayload> items, Rejections rejections) {
+        Set<String> active = activeSubscriptions(customerId);
+        Set<String> subscriptions = new HashSet<>();
+        for (OrderItemPayload item : items) {
+            FailureReason failure = check(item.productId(), subscriptions, active);
+            if (failure != null) {
+                if (rejections.reject(failure)) {
+                    return;
+                }
+                continue;
+            }
+            subscriptions.add(item.productId());
+            LOG.info(LogMarkers.BILLING_SCHEDULED, "First billing scheduled for subscription");
+        }
+    }
+
+    private FailureReason check(String productId, Set<String> subscriptions, Set<String> active) {
+        if (subscriptions.contains(productId)) {
+            return FailureReason.DUPLICATE_ACTIVE_SUBSCRIPTION;
+        }
+        if (subscriptions.size() >= MAX_SUBSCRIPTIONS_PER_ORDER) {
+            return FailureReason.SUBSCRIPTION_LIMIT_EXCEEDED;
+        }
+        if (subscriptions.contains("SUB-ENTERPRISE-001") && productId.equals("SUB-BASIC-001")
+                || subscriptions.contains("SUB-BASIC-001") && productId.equals("SUB-ENTERPRISE-001")) {
+            return FailureReason.INCOMPATIBLE_SUBSCRIPTIONS;
+        }
+        if (active.contains(productId)) {
+            return FailureReason.DUPLICATE_ACTIVE_SUBSCRIPTION;
+        }
+        return null;
+    }
+
+    private Set<String> activeSubscriptions(String customerId) {
+        if (customerId == null || customerId.isBlank()) {
+            return Set.of();
+        }
+        // uma consulta por pedido, não por item
+        Set<String> active = orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+                .filter(order -> ACTIVE.contains(order.getStatus()))
+                .flatMap(order -> order.getItems().stream())
+                .map(orderItem -> orderItem.getProductId())
+                .collect(Collectors.toCollection(HashSet::new));
+        if (legacyOrders.outsideShard(customerId)) {
+            active.addAll(legacyOrders.productIds(customerId, ACTIVE));
+        }
+        return active;
+    }
+}
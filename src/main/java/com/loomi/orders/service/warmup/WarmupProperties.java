@@ -0,0 +1,18 @@
+package com.loomi.orders.service.warmup;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "orders.warmup")
+public record WarmupProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5000") int iterations,
+        @DefaultValue("PT30S") Duration maxDuration) {
+
+    public WarmupProperties {
+        if (iterations <= 0 || maxDuration.isNegative() || maxDuration.isZero()) {
+            throw new IllegalArgumentException("orders.warmup.iterations and max-duration must be positive");
+        }
+    }
+}
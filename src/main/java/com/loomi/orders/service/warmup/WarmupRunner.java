@@ -0,0 +1,159 @@
+package com.loomi.orders.service.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.api.dto.OrderRequest;
+import com.loomi.orders.api.dto.OrderResponse;
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.config.OrderEventsListenerErrorHandler;
+import com.loomi.orders.service.OrderMapper;
+import com.loomi.orders.service.OrderProcessor;
+import com.loomi.orders.service.OrderService;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.events.OrderResultEvent;
+import com.loomi.orders.service.replay.ReplayProperties;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional JIT warm-up. Spring Boot only moves readiness to ACCEPTING_TRAFFIC after every
+ * {@link ApplicationRunner} has returned, so running here keeps the instance out of the load
+ * balancer until the hot paths have been exercised.
+ *
+ * <p>Synthetic orders go through request validation, {@link OrderService#preview} (pricing and
+ * {@link OrderMapper} without persisting or publishing), Jackson round-trips of the API and event
+ * records, and {@link OrderProcessor#evaluate} (item handlers only, no fraud, payment or status
+ * change). The customer id is blank so subscription checks never reach the database.
+ *
+ * <p>The order-events listeners are declared with {@code autoStartup = "false"}: this runner starts
+ * them once the warm-up has finished, aborted or been skipped, so the first records of a backlog are
+ * not processed by interpreted code either. In replay mode they stay stopped.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final String CUSTOMER_ID = "";
+
+    private final WarmupProperties properties;
+    private final OrderService orderService;
+    private final OrderProcessor orderProcessor;
+    private final ProductCatalog productCatalog;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ReplayProperties replay;
+    private final List<OrderRequest> samples;
+
+    public WarmupRunner(WarmupProperties properties, OrderService orderService, OrderProcessor orderProcessor,
+                        ProductCatalog productCatalog, ObjectMapper objectMapper, Validator validator,
+                        KafkaListenerEndpointRegistry listenerRegistry, ReplayProperties replay) {
+        this.properties = properties;
+        this.orderService = orderService;
+        this.orderProcessor = orderProcessor;
+        this.productCatalog = productCatalog;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.listenerRegistry = listenerRegistry;
+        this.replay = replay;
+        this.samples = List.of(
+                request(item("BOOK-CC-001", 1, "{\"warehouseLocation\":\"SP\"}")),
+                request(item("LAPTOP-PRO-2024", 4, null), item("EBOOK-JAVA-001", 1, null)),
+                request(item("SUB-PREMIUM-001", 1, null), item("COURSE-KAFKA-001", 1, null)),
+                request(item("PRE-PS6-001", 1, "{\"preOrderDiscount\":\"0.1\"}")),
+                request(item("CORP-CHAIR-ERG-001", 120, "{\"cnpj\":\"12.345.678/0001-99\"}"))
+        );
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            warmUp();
+        } finally {
+            startListeners();
+        }
+    }
+
+    private void warmUp() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.maxDuration().toNanos();
+        int completed = 0;
+        try {
+            while (completed < properties.iterations() && System.nanoTime() < deadline) {
+                exercise(samples.get(completed % samples.size()));
+                completed++;
+            }
+        } catch (RuntimeException | IOException ex) {
+            // aquecimento é best-effort: nunca impede a instância de ficar pronta
+            LOG.warn("JIT warm-up aborted after {} iterations: {}", completed, ex.getMessage());
+            return;
+        }
+        LOG.info("JIT warm-up finished: {} iterations in {} ms", completed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void startListeners() {
+        if (replay.enabled()) {
+            return;
+        }
+        for (String id : List.of(OrderEventsListenerErrorHandler.LISTENER_ID, OrderEventsListenerErrorHandler.PRIORITY_LISTENER_ID)) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null && !container.isRunning()) {
+                container.start();
+            }
+        }
+    }
+
+    private void exercise(OrderRequest sample) throws IOException {
+        OrderRequest request = objectMapper.readValue(objectMapper.writeValueAsBytes(sample), OrderRequest.class);
+        validator.validate(request);
+        OrderResponse response = orderService.preview(request);
+        objectMapper.writeValueAsBytes(response);
+
+        OrderCreatedEvent event = toEvent(request, response);
+        event = objectMapper.readValue(objectMapper.writeValueAsBytes(event), OrderCreatedEvent.class);
+        orderProcessor.evaluate(event);
+        OrderResultEvent result = new OrderResultEvent(UUID.randomUUID().toString(), "ORDER_PROCESSED", OffsetDateTime.now(),
+                request.getCustomerId(), new OrderResultEvent.ProcessedPayload(response.getOrderId(), OffsetDateTime.now()));
+        objectMapper.readValue(objectMapper.writeValueAsBytes(result), OrderResultEvent.class);
+    }
+
+    private OrderCreatedEvent toEvent(OrderRequest request, OrderResponse response) {
+        List<OrderCreatedEvent.OrderItemPayload> items = new ArrayList<>(request.getItems().size());
+        for (OrderRequest.OrderItemRequest item : request.getItems()) {
+            ProductCatalog.ProductRecord product = productCatalog.findById(item.getProductId()).orElseThrow();
+            items.add(new OrderCreatedEvent.OrderItemPayload(product.productId(), product.productType().name(),
+                    item.getQuantity(), product.price(), item.getMetadata()));
+        }
+        return new OrderCreatedEvent(UUID.randomUUID().toString(), response.getOrderId(), CUSTOMER_ID,
+                response.getTotalAmount(), response.getCreatedAt(), items);
+    }
+
+    private static OrderRequest request(OrderRequest.OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId("warmup");
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private static OrderRequest.OrderItemRequest item(String productId, int quantity, String metadata) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setMetadata(metadata);
+        return item;
+    }
+}
@@ -0,0 +1,56 @@
+package com.loomi.orders.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends one JSON span per line to a local file, as a stand-in for a collector.
+ */
+public class FileSpanExporter implements SpanExporter, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    private final ObjectWriter lineWriter;
+    private final Path file;
+    private final Writer out;
+    private boolean failed;
+
+    public FileSpanExporter(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.lineWriter = objectMapper.writer();
+        try {
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot open span file " + file, ex);
+        }
+    }
+
+    @Override
+    public synchronized void export(SpanData span) {
+        try {
+            out.write(lineWriter.writeValueAsString(span));
+            out.write('\n');
+            out.flush();
+            failed = false;
+        } catch (IOException ex) {
+            // um aviso por sequência de falhas, não um por span
+            if (!failed) {
+                LOG.warn("Could not write spans to {}: {}", file, ex.getMessage());
+                failed = true;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
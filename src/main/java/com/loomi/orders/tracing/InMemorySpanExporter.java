@@ -0,0 +1,41 @@
+package com.loomi.orders.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent spans for {@code /actuator/traces}. Meant for local runs and tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    private final int capacity;
+    private final Deque<SpanData> spans;
+
+    public InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+        this.spans = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized void export(SpanData span) {
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * @param traceId null for every retained span
+     * @return spans in the order they ended
+     */
+    public synchronized List<SpanData> spans(String traceId) {
+        List<SpanData> found = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (traceId == null || span.traceId().equals(traceId)) {
+                found.add(span);
+            }
+        }
+        return found;
+    }
+}
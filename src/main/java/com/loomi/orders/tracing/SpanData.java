@@ -0,0 +1,16 @@
+package com.loomi.orders.tracing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A finished span as handed to the {@link SpanExporter}.
+ *
+ * @param parentSpanId null for the root of a trace
+ * @param kind         SERVER, CLIENT, PRODUCER, CONSUMER or INTERNAL, as in OpenTelemetry
+ * @param error        message of the error that ended the observation, else null
+ */
+public record SpanData(String traceId, String spanId, String parentSpanId, String name, String kind,
+                       Instant startTime, Duration duration, Map<String, String> attributes, String error) {
+}
@@ -0,0 +1,12 @@
+package com.loomi.orders.tracing;
+
+/**
+ * Destination of sampled spans. Called on the thread that ends the span, so implementations must not block
+ * on the network; a real collector client is expected to batch behind this interface.
+ */
+public interface SpanExporter {
+    SpanExporter NONE = span -> {
+    };
+
+    void export(SpanData span);
+}
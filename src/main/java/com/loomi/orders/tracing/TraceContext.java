@@ -0,0 +1,70 @@
+package com.loomi.orders.tracing;
+
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace context of one span, carried in the {@code traceparent} header of HTTP requests and Kafka records.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+    public static final String TRACEPARENT = "traceparent";
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    static TraceContext root(boolean sampled) {
+        return new TraceContext(randomHex(16), randomHex(8), sampled);
+    }
+
+    TraceContext child() {
+        return new TraceContext(traceId, randomHex(8), sampled);
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    /**
+     * @return empty for a missing or malformed header, so the receiver starts a new trace
+     */
+    static Optional<TraceContext> parse(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55) {
+            return Optional.empty();
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[0].equals("ff") || parts[1].length() != 32 || parts[2].length() != 16
+                || parts[3].length() != 2 || !isHex(parts[1]) || !isHex(parts[2]) || !isHex(parts[3])
+                || parts[1].equals(INVALID_TRACE_ID) || parts[2].equals(INVALID_SPAN_ID)) {
+            return Optional.empty();
+        }
+        boolean sampled = (HexFormat.fromHexDigits(parts[3]) & 1) == 1;
+        return Optional.of(new TraceContext(parts[1], parts[2], sampled));
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] id = new byte[bytes];
+        do {
+            ThreadLocalRandom.current().nextBytes(id);
+        } while (isZero(id));
+        return HexFormat.of().formatHex(id);
+    }
+
+    private static boolean isZero(byte[] id) {
+        for (byte b : id) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.loomi.orders.tracing;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/traces}: spans kept by the in-memory exporter, all of them or one trace via
+ * {@code /actuator/traces/{traceId}}. 404 when another exporter is configured.
+ */
+@Component
+@WebEndpoint(id = "traces")
+public class TracesEndpoint {
+    private final SpanExporter exporter;
+
+    public TracesEndpoint(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> spans() {
+        return spans(null);
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> trace(@Selector String traceId) {
+        return spans(traceId);
+    }
+
+    private WebEndpointResponse<Object> spans(String traceId) {
+        if (!(exporter instanceof InMemorySpanExporter memory)) {
+            return new WebEndpointResponse<>(Map.of("error", "Spans are kept in memory only with orders.tracing.exporter=MEMORY"),
+                    WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        List<SpanData> spans = memory.spans(traceId);
+        return new WebEndpointResponse<>(spans);
+    }
+}
@@ -0,0 +1,169 @@
+package com.loomi.orders.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns every Micrometer observation into a span: Spring MVC requests, {@code KafkaTemplate} sends,
+ * listener deliveries and the application's own observations. Senders write {@code traceparent} into the
+ * outgoing carrier and receivers continue the trace found there, so an order keeps one trace from the HTTP
+ * request to the processor. While a span is in scope its ids are in the MDC as {@code traceId} and
+ * {@code spanId}.
+ */
+@Component
+public class TracingObservationHandler implements ObservationHandler<Observation.Context> {
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+    private final Clock clock;
+    // escopos abertos nesta thread; cada um guarda o traceId/spanId que estava no MDC antes dele
+    private final ThreadLocal<Deque<String[]>> previousIds = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Autowired
+    public TracingObservationHandler(TracingProperties properties, SpanExporter exporter) {
+        this(properties, exporter, Clock.systemUTC());
+    }
+
+    TracingObservationHandler(TracingProperties properties, SpanExporter exporter, Clock clock) {
+        this.properties = properties;
+        this.exporter = exporter;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return properties.enabled();
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        TraceContext parent = parentOf(context);
+        TraceContext trace = parent == null ? TraceContext.root(sample()) : parent.child();
+        context.put(OpenSpan.class, new OpenSpan(trace, parent == null ? null : parent.spanId(), clock.instant(), System.nanoTime()));
+        if (context instanceof SenderContext<?> sender) {
+            inject(sender, trace);
+        }
+    }
+
+    @Override
+    public void onScopeOpened(Observation.Context context) {
+        OpenSpan span = context.get(OpenSpan.class);
+        if (span == null) {
+            return;
+        }
+        previousIds.get().push(new String[] {MDC.get("traceId"), MDC.get("spanId")});
+        MDC.put("traceId", span.trace().traceId());
+        MDC.put("spanId", span.trace().spanId());
+    }
+
+    @Override
+    public void onScopeClosed(Observation.Context context) {
+        if (context.get(OpenSpan.class) == null) {
+            return;
+        }
+        Deque<String[]> scopes = previousIds.get();
+        String[] previous = scopes.poll();
+        restore("traceId", previous == null ? null : previous[0]);
+        restore("spanId", previous == null ? null : previous[1]);
+        if (scopes.isEmpty()) {
+            previousIds.remove();
+        }
+    }
+
+    @Override
+    public void onScopeReset(Observation.Context context) {
+        previousIds.remove();
+        MDC.remove("traceId");
+        MDC.remove("spanId");
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        OpenSpan span = context.get(OpenSpan.class);
+        if (span == null || !span.trace().sampled()) {
+            return;
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getAllKeyValues()) {
+            attributes.put(keyValue.getKey(), keyValue.getValue());
+        }
+        Throwable error = context.getError();
+        exporter.export(new SpanData(span.trace().traceId(), span.trace().spanId(), span.parentSpanId(), nameOf(context),
+                kindOf(context), span.startTime(), Duration.ofNanos(System.nanoTime() - span.startNanos()), attributes,
+                error == null ? null : String.valueOf(error.getMessage())));
+    }
+
+    private TraceContext parentOf(Observation.Context context) {
+        if (context instanceof ReceiverContext<?> receiver) {
+            TraceContext remote = extract(receiver);
+            if (remote != null) {
+                return remote;
+            }
+        }
+        ObservationView parent = context.getParentObservation();
+        if (parent == null) {
+            return null;
+        }
+        OpenSpan parentSpan = parent.getContextView().get(OpenSpan.class);
+        return parentSpan == null ? null : parentSpan.trace();
+    }
+
+    private static <C> void inject(SenderContext<C> sender, TraceContext trace) {
+        C carrier = sender.getCarrier();
+        if (carrier != null) {
+            sender.getSetter().set(carrier, TraceContext.TRACEPARENT, trace.traceparent());
+        }
+    }
+
+    private static <C> TraceContext extract(ReceiverContext<C> receiver) {
+        C carrier = receiver.getCarrier();
+        if (carrier == null) {
+            return null;
+        }
+        return TraceContext.parse(receiver.getGetter().get(carrier, TraceContext.TRACEPARENT)).orElse(null);
+    }
+
+    private boolean sample() {
+        double probability = properties.samplingProbability();
+        return probability >= 1.0 || ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private static String nameOf(Observation.Context context) {
+        return context.getContextualName() != null ? context.getContextualName() : context.getName();
+    }
+
+    private static String kindOf(Observation.Context context) {
+        if (context instanceof SenderContext<?> sender) {
+            return sender.getKind().name();
+        }
+        if (context instanceof ReceiverContext<?> receiver) {
+            return receiver.getKind().name();
+        }
+        return "INTERNAL";
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+
+    private record OpenSpan(TraceContext trace, String parentSpanId, Instant startTime, long startNanos) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.loomi.orders.tracing;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spans built from Micrometer observations. Unsampled traces still propagate and reach the logs, they
+ * are just not exported. {@code MEMORY} keeps the last {@code memory-capacity} spans for
+ * {@code /actuator/traces}; {@code FILE} appends one JSON span per line to {@code file}.
+ */
+@ConfigurationProperties(prefix = "orders.tracing")
+public record TracingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1.0") double samplingProbability,
+        @DefaultValue("NONE") Exporter exporter,
+        @DefaultValue("2000") int memoryCapacity,
+        @DefaultValue("spans.ndjson") Path file) {
+
+    public TracingProperties {
+        if (samplingProbability < 0 || samplingProbability > 1 || memoryCapacity <= 0) {
+            throw new IllegalArgumentException("orders.tracing.sampling-probability must be within [0, 1] and memory-capacity positive");
+        }
+    }
+
+    public enum Exporter {
+        NONE,
+        MEMORY,
+        FILE
+    }
+}
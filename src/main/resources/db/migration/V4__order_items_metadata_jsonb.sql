@@ -0,0 +1,7 @@
+ALTER TABLE order_items ALTER COLUMN metadata TYPE JSONB USING metadata::jsonb;
+
+-- containment (@>) em qualquer chave: cnpj, warehouseLocation
+CREATE INDEX IF NOT EXISTS idx_order_items_metadata ON order_items USING GIN (metadata jsonb_path_ops);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_pre_order_discount ON order_items (order_id)
+    WHERE (metadata ->> 'preOrderDiscount') IS NOT NULL;
@@ -0,0 +1,16 @@
+-- checkpoint do job de liberação de pré-vendas, por produto e data de lançamento (um por shard)
+CREATE TABLE IF NOT EXISTS pre_order_releases (
+    product_id VARCHAR(255) NOT NULL,
+    release_date DATE NOT NULL,
+    last_order_id VARCHAR(255) NOT NULL DEFAULT '',
+    released_count BIGINT NOT NULL DEFAULT 0,
+    claimed_by VARCHAR(255),
+    claimed_until TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ,
+    updated_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (product_id, release_date)
+);
+
+-- keyset por (product_id, order_id) só sobre itens de pré-venda
+CREATE INDEX IF NOT EXISTS idx_order_items_pre_order_release ON order_items (product_id, order_id)
+    WHERE product_type = 'PRE_ORDER';
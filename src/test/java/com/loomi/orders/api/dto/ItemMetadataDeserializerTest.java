@@ -0,0 +1,96 @@
+package com.loomi.orders.api.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ItemMetadataDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void shouldKeepMetadataAsRawJsonAndEmbedItUnescapedInEvents() throws Exception {
+        OrderRequest request = objectMapper.readValue("""
+                {"customerId":"c-1","items":[{"productId":"CORP-CHAIR-ERG-001","quantity":2,
+                  "metadata":{"cnpj":"12.345.678/0001-99","tags":["a","b"],"limit":10}}]}""", OrderRequest.class);
+
+        String metadata = request.getItems().get(0).getMetadata();
+        assertThat(metadata).isEqualTo("{\"cnpj\":\"12.345.678/0001-99\",\"tags\":[\"a\",\"b\"],\"limit\":10}");
+
+        OrderCreatedEvent event = new OrderCreatedEvent("e-1", "o-1", "c-1", BigDecimal.TEN, OffsetDateTime.now(),
+                List.of(new OrderCreatedEvent.OrderItemPayload("CORP-CHAIR-ERG-001", "CORPORATE", 2, BigDecimal.ONE, metadata)));
+        String json = objectMapper.writeValueAsString(event);
+        JsonNode embedded = objectMapper.readTree(json).at("/items/0/metadata");
+        assertThat(embedded.isObject()).isTrue();
+        assertThat(embedded.get("limit").asInt()).isEqualTo(10);
+
+        OrderCreatedEvent read = objectMapper.readValue(json, OrderCreatedEvent.class);
+        assertThat(read.items().get(0).metadata()).isEqualTo(metadata);
+    }
+
+    @Test
+    void shouldStillReadEventsCarryingMetadataAsEscapedString() throws Exception {
+        OrderCreatedEvent event = objectMapper.readValue("""
+                {"eventId":"e-1","orderId":"o-1","customerId":"c-1","totalAmount":10,"items":[
+                  {"productId":"PRE-PS6-001","productType":"PRE_ORDER","quantity":1,"priceSnapshot":10,
+                   "metadata":"{\\"preOrderDiscount\\":\\"0.1\\"}"},
+                  {"productId":"EBOOK-JAVA-001","productType":"DIGITAL","quantity":1,"priceSnapshot":10,"metadata":null}]}""",
+                OrderCreatedEvent.class);
+
+        assertThat(event.items().get(0).metadata()).isEqualTo("{\"preOrderDiscount\":\"0.1\"}");
+        assertThat(event.items().get(1).metadata()).isNull();
+    }
+
+    @Test
+    void shouldRejectMetadataThatIsNotAnObjectOrTooLarge() {
+        assertThatThrownBy(() -> objectMapper.readValue(
+                "{\"customerId\":\"c-1\",\"items\":[{\"productId\":\"p\",\"quantity\":1,\"metadata\":\"SP\"}]}", OrderRequest.class))
+                .isInstanceOf(MismatchedInputException.class)
+                .hasMessageContaining("must be a JSON object");
+
+        String large = "{\"notes\":\"" + "x".repeat(ItemMetadataDeserializer.MAX_LENGTH) + "\"}";
+        assertThatThrownBy(() -> objectMapper.readValue(
+                "{\"customerId\":\"c-1\",\"items\":[{\"productId\":\"p\",\"quantity\":1,\"metadata\":" + large + "}]}", OrderRequest.class))
+                .isInstanceOf(MismatchedInputException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void shouldStopReadingOversizedMetadataAtTheLimit() {
+        int oneMiB = 1024 * 1024;
+        String huge = "{\"tags\":[" + "\"x\",".repeat(oneMiB / 4) + "\"x\"]}";
+        String body = "{\"customerId\":\"c-1\",\"items\":[{\"productId\":\"p\",\"quantity\":1,\"metadata\":" + huge + "}]}";
+        AtomicLong consumed = new AtomicLong();
+
+        assertThatThrownBy(() -> objectMapper.readValue(new FilterReader(new StringReader(body)) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                consumed.addAndGet(Math.max(read, 0));
+                return read;
+            }
+        }, OrderRequest.class))
+                .isInstanceOf(MismatchedInputException.class)
+                .hasMessageContaining("exceeds");
+        // só o limite mais um buffer do parser foi lido, não o 1 MiB inteiro
+        assertThat(consumed.get()).isLessThan(4L * ItemMetadataDeserializer.MAX_LENGTH);
+
+        String longString = "{\"notes\":\"" + "x".repeat(oneMiB) + "\"}";
+        assertThatThrownBy(() -> objectMapper.readValue(
+                "{\"customerId\":\"c-1\",\"items\":[{\"productId\":\"p\",\"quantity\":1,\"metadata\":" + longString + "}]}", OrderRequest.class))
+                .isInstanceOf(MismatchedInputException.class)
+                .hasMessageContaining("exceeds");
+    }
+}
@@ -0,0 +1,84 @@
+package com.loomi.orders.benchmark;
+
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.domain.model.OrderEntity;
+import com.loomi.orders.domain.model.OrderItemEntity;
+import com.loomi.orders.repository.OrderRepository;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Insert throughput of the order aggregate. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark}. Compare against the unbatched baseline by adding
+ * {@code -Dspring.jpa.properties.hibernate.jdbc.batch_size=1}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+class OrderInsertBenchmarkTest {
+    private static final Logger LOG = LoggerFactory.getLogger(OrderInsertBenchmarkTest.class);
+    private static final int WARMUP_ORDERS = 300;
+    private static final int MEASURED_ORDERS = 2000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void measureOrderInsertThroughput(int itemsPerOrder) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            tx.executeWithoutResult(status -> orderRepository.save(order(itemsPerOrder)));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            tx.executeWithoutResult(status -> orderRepository.save(order(itemsPerOrder)));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        LOG.info("Inserted {} orders x {} items in {}s: {} orders/s, {} rows/s", MEASURED_ORDERS, itemsPerOrder,
+                "%.2f".formatted(seconds), Math.round(MEASURED_ORDERS / seconds),
+                Math.round(MEASURED_ORDERS * (itemsPerOrder + 1) / seconds));
+    }
+
+    private static OrderEntity order(int items) {
+        OrderEntity order = OrderEntity.create("customer-bench");
+        for (int i = 0; i < items; i++) {
+            order.addItem(OrderItemEntity.from("BOOK-CC-001", ProductType.PHYSICAL, 1, new BigDecimal("10.00"), null));
+        }
+        order.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(items)));
+        return order;
+    }
+}
@@ -0,0 +1,108 @@
+package com.loomi.orders.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.api.dto.OrderRequest;
+import com.loomi.orders.api.dto.OrderResponse;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderMetadataSearchIntegrationTest {
+
+    private static final String CNPJ = "12345678000190";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.3"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldSearchOrdersByItemMetadata() {
+        String corporate = create("customer-meta-corp", "CORP-CHAIR-ERG-001",
+                "{\"cnpj\":\"" + CNPJ + "\",\"paymentTerms\":\"NET_30\"}");
+        String physical = create("customer-meta-book", "BOOK-CC-001", "{\"warehouseLocation\":\"RJ\"}");
+        String preOrder = create("customer-meta-pre", "PRE-PS6-001",
+                "{\"preOrderDiscount\":0.1,\"warehouseLocation\":\"RJ\"}");
+
+        assertThat(search("cnpj=" + CNPJ)).containsExactly(corporate);
+        assertThat(search("warehouseLocation=RJ")).containsExactlyInAnyOrder(physical, preOrder);
+        assertThat(search("preOrderDiscount=true")).containsExactly(preOrder);
+        assertThat(search("warehouseLocation=RJ&preOrderDiscount=true")).containsExactly(preOrder);
+    }
+
+    @Test
+    void shouldServeMetadataSearchFromItsIndexes() {
+        // as mesmas subconsultas de OrderRepository; sem seq scan o plano precisa cair nos índices da V4
+        assertThat(explain("SELECT i.order_id FROM order_items i WHERE i.metadata @> CAST(? AS jsonb)",
+                "{\"cnpj\":\"" + CNPJ + "\"}"))
+                .contains("idx_order_items_metadata");
+        assertThat(explain("SELECT i.order_id FROM order_items i WHERE i.metadata @> CAST(? AS jsonb)",
+                "{\"warehouseLocation\":\"RJ\"}"))
+                .contains("idx_order_items_metadata");
+        assertThat(explain("SELECT i.order_id FROM order_items i WHERE (i.metadata ->> 'preOrderDiscount') IS NOT NULL "
+                + "AND i.metadata @> CAST(? AS jsonb)", "{}"))
+                .contains("idx_order_items_pre_order_discount");
+    }
+
+    private String create(String customerId, String productId, String metadata) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setMetadata(metadata);
+        request.setItems(List.of(item));
+        ResponseEntity<OrderResponse> response = restTemplate.postForEntity("/api/orders", request, OrderResponse.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return response.getBody().getOrderId();
+    }
+
+    private List<String> search(String query) {
+        ResponseEntity<OrderResponse[]> response = restTemplate.getForEntity("/api/orders/search?" + query, OrderResponse[].class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return Arrays.stream(response.getBody()).map(OrderResponse::getOrderId).toList();
+    }
+
+    private static String explain(String sql, String contains) {
+        // SET e EXPLAIN precisam da mesma conexão
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("SET enable_seqscan = off");
+            return String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class, contains));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.loomi.orders.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.domain.model.OrderEntity;
+import com.loomi.orders.domain.model.OrderItemEntity;
+import com.loomi.orders.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class OrderPersistenceBatchingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldInsertOrderWithFiftyItemsUsingTwoBatchedStatements() {
+        OrderEntity order = corporateOrder(50);
+        statistics.clear();
+
+        orderRepository.saveAndFlush(order);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(51);
+        // um INSERT em orders e um INSERT em lote em order_items, sem SELECT de merge
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTransitionStatusWithSingleStatement() {
+        OrderEntity order = orderRepository.saveAndFlush(corporateOrder(3));
+        entityManager.clear();
+        statistics.clear();
+
+        int updated = orderRepository.transition(order.getOrderId(), OrderStatus.PENDING, OrderStatus.PROCESSED,
+                new BigDecimal("30.00"), OffsetDateTime.now());
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(orderRepository.findByOrderId(order.getOrderId()).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    private OrderEntity corporateOrder(int lines) {
+        OrderEntity order = OrderEntity.create("customer-batch");
+        for (int i = 0; i < lines; i++) {
+            order.addItem(OrderItemEntity.from("CORP-LICENSE-ENT", ProductType.CORPORATE, 1, new BigDecimal("10.00"), null));
+        }
+        order.setTotalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(lines)));
+        return order;
+    }
+}
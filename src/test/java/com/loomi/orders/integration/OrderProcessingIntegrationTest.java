@@ -12,7 +12,6 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
@@ -66,7 +65,7 @@ class OrderProcessingIntegrationTest {
         OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
         item.setProductId("BOOK-CC-001");
         item.setQuantity(1);
-        item.setMetadata(Map.of("warehouseLocation", "SP"));
+        item.setMetadata("{\"warehouseLocation\":\"SP\"}");
         request.setItems(List.of(item));
 
         ResponseEntity<OrderResponse> response = restTemplate.postForEntity("/api/orders", request, OrderResponse.class);
@@ -91,12 +90,12 @@ class OrderProcessingIntegrationTest {
         OrderRequest.OrderItemRequest enterprise = new OrderRequest.OrderItemRequest();
         enterprise.setProductId("SUB-ENTERPRISE-001");
         enterprise.setQuantity(1);
-        enterprise.setMetadata(Map.of("billingCycle", "ANNUAL"));
+        enterprise.setMetadata("{\"billingCycle\":\"ANNUAL\"}");
 
         OrderRequest.OrderItemRequest basic = new OrderRequest.OrderItemRequest();
         basic.setProductId("SUB-BASIC-001");
         basic.setQuantity(1);
-        basic.setMetadata(Map.of("billingCycle", "MONTHLY"));
+        basic.setMetadata("{\"billingCycle\":\"MONTHLY\"}");
 
         request.setItems(List.of(enterprise, basic));
 
@@ -0,0 +1,166 @@
+package com.loomi.orders.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.api.dto.OrderRequest;
+import com.loomi.orders.api.dto.OrderResponse;
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.service.sharding.ShardRebalanceResult;
+import com.loomi.orders.service.sharding.ShardRebalancer;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> shard0 = new PostgreSQLContainer<>("postgres:16");
+
+    @Container
+    static PostgreSQLContainer<?> shard1 = new PostgreSQLContainer<>("postgres:16");
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.3"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", shard0::getJdbcUrl);
+        registry.add("spring.datasource.username", shard0::getUsername);
+        registry.add("spring.datasource.password", shard0::getPassword);
+        registry.add("orders.sharding.shards[0].url", shard1::getJdbcUrl);
+        registry.add("orders.sharding.shards[0].username", shard1::getUsername);
+        registry.add("orders.sharding.shards[0].password", shard1::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Test
+    void shouldStoreOrdersOnTheShardOfTheirCustomerAndListAcrossShards() {
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orderIds.add(create("customer-shard-" + i).getOrderId());
+        }
+
+        for (String orderId : orderIds) {
+            int owner = shardRouter.shardForOrder(orderId);
+            assertThat(countOrders(owner, orderId)).isEqualTo(1);
+            assertThat(countOrders(1 - owner, orderId)).isZero();
+            awaitStatus(orderId, OrderStatus.PROCESSED);
+        }
+        assertThat(orderIds).extracting(shardRouter::shardForOrder).contains(0, 1);
+
+        OrderResponse[] all = restTemplate.getForObject("/api/orders?page=0&size=50", OrderResponse[].class);
+        assertThat(all).extracting(OrderResponse::getOrderId).containsAll(orderIds);
+    }
+
+    @Test
+    void shouldMoveMisplacedOrdersToTheirOwner() {
+        String customerId = customerOnShard("customer-rebalance-", 1);
+        OrderResponse order = create(customerId);
+        awaitStatus(order.getOrderId(), OrderStatus.PROCESSED);
+        // simula um pedido gravado antes de o shard 1 existir
+        jdbc(0).update("INSERT INTO orders (order_id, customer_id, status, total_amount, created_at, updated_at, version) "
+                + "VALUES (?, ?, 'PROCESSED', 10, now(), now(), 0)", misplacedId(order.getOrderId()), customerId);
+
+        ShardRebalanceResult result = rebalancer.rebalance(false, 10);
+
+        assertThat(result.movedOrders()).isEqualTo(1);
+        assertThat(countOrders(0, misplacedId(order.getOrderId()))).isZero();
+        assertThat(countOrders(1, misplacedId(order.getOrderId()))).isEqualTo(1);
+        assertThat(rebalancer.rebalance(true, 10).misplacedOrders()).isZero();
+    }
+
+    @Test
+    void shouldFindLegacyOrdersOnShardZeroForCustomersOfOtherShards() {
+        String customerId = customerOnShard("customer-legacy-", 1);
+        String legacyId = UUID.randomUUID().toString();
+        // pedido de antes do sharding: id sem bucket, fica no shard 0
+        jdbc(0).update("INSERT INTO orders (order_id, customer_id, status, total_amount, created_at, updated_at, version) "
+                + "VALUES (?, ?, 'PROCESSED', 49.90, now() - interval '1 day', now(), 0)", legacyId, customerId);
+        jdbc(0).update("INSERT INTO order_items (item_id, order_id, product_id, product_type, quantity, price_snapshot) "
+                + "VALUES (?, ?, 'SUB-PREMIUM-001', 'SUBSCRIPTION', 1, 49.90)", UUID.randomUUID().toString(), legacyId);
+        OrderResponse recent = create(customerId);
+        awaitStatus(recent.getOrderId(), OrderStatus.PROCESSED);
+
+        OrderResponse[] listed = restTemplate.getForObject("/api/orders?customerId=" + customerId + "&page=0&size=10",
+                OrderResponse[].class);
+        assertThat(listed).extracting(OrderResponse::getOrderId).containsExactly(recent.getOrderId(), legacyId);
+
+        OrderResponse duplicate = create(customerId, "SUB-PREMIUM-001");
+        awaitStatus(duplicate.getOrderId(), OrderStatus.FAILED);
+        assertThat(rebalancer.rebalance(true, 10).misplacedOrders()).isZero();
+    }
+
+    private OrderResponse create(String customerId) {
+        return create(customerId, "BOOK-CC-001");
+    }
+
+    private OrderResponse create(String customerId, String productId) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        request.setItems(List.of(item));
+        ResponseEntity<OrderResponse> response = restTemplate.postForEntity("/api/orders", request, OrderResponse.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return response.getBody();
+    }
+
+    private String customerOnShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            if (shardRouter.shardForCustomer(prefix + i) == shard) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private static String misplacedId(String orderId) {
+        return orderId.substring(0, 3) + "misplaced";
+    }
+
+    private void awaitStatus(String orderId, OrderStatus expected) {
+        Awaitility.await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+            OrderResponse order = restTemplate.getForObject("/api/orders/" + orderId, OrderResponse.class);
+            assertThat(order.getStatus()).isEqualTo(expected);
+        });
+    }
+
+    private int countOrders(int shard, String orderId) {
+        return jdbc(shard).queryForObject("SELECT count(*) FROM orders WHERE order_id = ?", Integer.class, orderId);
+    }
+
+    private static JdbcTemplate jdbc(int shard) {
+        PostgreSQLContainer<?> container = shard == 0 ? shard0 : shard1;
+        return new JdbcTemplate(new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+    }
+}
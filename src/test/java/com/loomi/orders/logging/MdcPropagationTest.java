@@ -0,0 +1,37 @@
+package com.loomi.orders.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class MdcPropagationTest {
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        worker.shutdownNow();
+    }
+
+    @Test
+    void shouldRunContinuationsWithCallerContextEvenWhenCompletedFromAnotherThread() {
+        CompletableFuture<String> gatewayCall = new CompletableFuture<>();
+        MDC.put("orderId", "order-1");
+        Executor executor = MdcPropagation.withCurrentContext(worker);
+        CompletableFuture<String> seen = gatewayCall.thenApplyAsync(ignored -> MDC.get("orderId"), executor);
+        MDC.clear();
+
+        // completado por uma thread sem MDC, como o timer do orTimeout
+        new Thread(() -> gatewayCall.complete("ok")).start();
+
+        assertThat(seen.join()).isEqualTo("order-1");
+        assertThat(CompletableFuture.supplyAsync(() -> MDC.get("orderId"), worker).join()).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package com.loomi.orders.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingTurboFilterTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T10:00:00Z"));
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("test");
+        logger.setLevel(Level.INFO);
+    }
+
+    @Test
+    void shouldKeepOneInEveryNEventsOfASampledMarker() {
+        SamplingTurboFilter filter = filter("ITEM_RESERVED=10", null);
+
+        long accepted = IntStream.range(0, 100)
+                .filter(i -> decide(filter, Level.INFO) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(accepted).isEqualTo(10);
+        assertThat(filter.suppressedCount()).isEqualTo(90);
+    }
+
+    @Test
+    void shouldCapEventsPerSecondAndResetOnNextSecond() {
+        SamplingTurboFilter filter = filter(null, "ITEM_RESERVED=3");
+
+        assertThat(IntStream.range(0, 5).filter(i -> decide(filter, Level.INFO) == FilterReply.NEUTRAL).count()).isEqualTo(3);
+        now.updateAndGet(instant -> instant.plus(Duration.ofSeconds(1)));
+        assertThat(decide(filter, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void shouldNeverDropWarningsUnmarkedOrDisabledEvents() {
+        SamplingTurboFilter filter = filter("ITEM_RESERVED=1000", "ITEM_RESERVED=1");
+        decide(filter, Level.INFO);
+
+        assertThat(decide(filter, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(filter, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, logger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(LogMarkers.ITEM_RESERVED, logger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(filter, Level.INFO)).isEqualTo(FilterReply.DENY);
+    }
+
+    private FilterReply decide(SamplingTurboFilter filter, Level level) {
+        return filter.decide(LogMarkers.ITEM_RESERVED, logger, level, "Reserved {} units", null, null);
+    }
+
+    private SamplingTurboFilter filter(String sample, String rateLimit) {
+        SamplingTurboFilter filter = new SamplingTurboFilter(clock());
+        if (sample != null) {
+            filter.addSample(sample);
+        }
+        if (rateLimit != null) {
+            filter.addRateLimit(rateLimit);
+        }
+        filter.start();
+        return filter;
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+}
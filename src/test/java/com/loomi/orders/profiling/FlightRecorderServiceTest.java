@@ -0,0 +1,80 @@
+package com.loomi.orders.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecorderServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderService recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.discard();
+        }
+    }
+
+    @Test
+    void shouldRecordOrderEventsUntilStopped() throws Exception {
+        recorder = new FlightRecorderService(new ProfilingProperties(Duration.ofMinutes(1), Duration.ofMinutes(10), directory));
+        FlightRecorderService.RecordingStatus started = recorder.start(RecordingProfile.CPU, Duration.ofMinutes(1));
+        assertThat(recorder.isRunning(started.file())).isTrue();
+        assertThat(recorder.finishedRecording(started.file())).isEmpty();
+
+        OrderCreateEvent event = OrderCreateEvent.start("customer-1", 2);
+        event.finish("order-1");
+
+        FlightRecorderService.RecordingStatus stopped = recorder.stop().orElseThrow();
+        assertThat(stopped.state()).isIn(RecordingState.STOPPED, RecordingState.CLOSED);
+        Path file = recorder.finishedRecording(started.file()).orElseThrow();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events)
+                .filteredOn(recorded -> recorded.getEventType().getName().equals("com.loomi.orders.OrderCreate"))
+                .singleElement()
+                .satisfies(recorded -> {
+                    assertThat(recorded.getString("orderId")).isEqualTo("order-1");
+                    assertThat(recorded.getInt("items")).isEqualTo(2);
+                });
+        assertThat(events).extracting(recorded -> recorded.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.InitialSecurityProperty");
+    }
+
+    @Test
+    void shouldNeverRecordStartupEnvironmentOrProperties() {
+        for (RecordingProfile profile : RecordingProfile.values()) {
+            assertThat(profile.settings())
+                    .containsEntry("jdk.InitialEnvironmentVariable#enabled", "false")
+                    .containsEntry("jdk.InitialSystemProperty#enabled", "false")
+                    .containsEntry("jdk.InitialSecurityProperty#enabled", "false");
+        }
+    }
+
+    @Test
+    void shouldRejectDurationsAboveMaxAndConcurrentRecordings() {
+        recorder = new FlightRecorderService(new ProfilingProperties(Duration.ofSeconds(30), Duration.ofMinutes(1), directory));
+        assertThatThrownBy(() -> recorder.start(RecordingProfile.LOCKS, Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        String first = recorder.start(RecordingProfile.LOCKS, null).file();
+        assertThatThrownBy(() -> recorder.start(RecordingProfile.ALLOCATION, null))
+                .isInstanceOf(IllegalStateException.class);
+
+        recorder.stop();
+        recorder.start(RecordingProfile.ALLOCATION, null);
+        assertThat(Files.exists(directory.resolve(first))).isFalse();
+    }
+}
@@ -3,6 +3,7 @@ package com.loomi.orders.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,31 +11,59 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.loomi.orders.catalog.ProductCatalog;
 import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.config.OrderValidationProperties;
+import com.loomi.orders.domain.FailureReason;
 import com.loomi.orders.domain.OrderStatus;
 import com.loomi.orders.domain.ProductType;
-import com.loomi.orders.domain.model.OrderEntity;
 import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.alerts.LowStockAlertAggregator;
+import com.loomi.orders.service.alerts.LowStockAlertProperties;
+import com.loomi.orders.service.dedup.EventDeduplicator;
 import com.loomi.orders.service.events.FraudAlertEvent;
 import com.loomi.orders.service.events.LowStockAlertEvent;
 import com.loomi.orders.service.events.OrderCreatedEvent;
 import com.loomi.orders.service.events.OrderResultEvent;
+import com.loomi.orders.service.fraud.FraudAssessment;
+import com.loomi.orders.service.fraud.FraudEngine;
+import com.loomi.orders.service.monitoring.StartupTimer;
+import com.loomi.orders.service.payment.PaymentAuthorization;
+import com.loomi.orders.service.payment.PaymentAuthorizer;
+import com.loomi.orders.service.payment.PaymentProperties;
+import com.loomi.orders.service.payment.PaymentUnavailableException;
+import com.loomi.orders.service.scaling.ListenerAutoscaler;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import com.loomi.orders.service.sharding.ShardRouter;
+import com.loomi.orders.service.validation.CorporateItemHandler;
+import com.loomi.orders.service.validation.DigitalItemHandler;
+import com.loomi.orders.service.validation.OrderItemValidator;
+import com.loomi.orders.service.validation.PhysicalItemHandler;
+import com.loomi.orders.service.validation.PreOrderItemHandler;
+import com.loomi.orders.service.validation.SubscriptionItemHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionOperations;
 
 class OrderProcessorTest {
 
     @Mock
     private OrderRepository orderRepository;
     @Mock
+    private LegacyOrders legacyOrders;
+    @Mock
     private KafkaTemplate<String, OrderResultEvent> kafkaTemplate;
     @Mock
     private KafkaTemplate<String, LowStockAlertEvent> lowStockKafkaTemplate;
@@ -42,26 +71,34 @@ class OrderProcessorTest {
     private KafkaTemplate<String, FraudAlertEvent> fraudKafkaTemplate;
     @Mock
     private ProductCatalog productCatalog;
+    @Mock
+    private FraudEngine fraudEngine;
+    @Mock
+    private PaymentAuthorizer paymentAuthorizer;
+    @Mock
+    private EventDeduplicator deduplicator;
+    @Mock
+    private ListenerAutoscaler listenerAutoscaler;
 
     private OrderProcessor processor;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        processor = new OrderProcessor(orderRepository, kafkaTemplate, lowStockKafkaTemplate, fraudKafkaTemplate, productCatalog, new ObjectMapper());
-        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        processor = processor(false);
         when(kafkaTemplate.send(any(), any(), any())).thenReturn(null);
         when(lowStockKafkaTemplate.send(any(), any(), any())).thenReturn(null);
         when(fraudKafkaTemplate.send(any(), any(), any())).thenReturn(null);
         when(orderRepository.findByCustomerIdOrderByCreatedAtDesc(any())).thenReturn(List.of());
+        when(fraudEngine.assess(any())).thenReturn(new FraudAssessment(0, List.of(), false));
+        when(paymentAuthorizer.authorize(any())).thenReturn(CompletableFuture.completedFuture(PaymentAuthorization.approved("auth-1")));
+        when(deduplicator.begin(any())).thenReturn(true);
+        when(deduplicator.claim(any())).thenReturn(true);
     }
 
     @Test
     void shouldMarkCorporateOrderAsPendingApproval() {
-        OrderEntity entity = OrderEntity.create("customer");
-        entity.setTotalAmount(new BigDecimal("60000"));
-        String orderId = setOrderId(entity, "corp-approval-123");
-        when(orderRepository.findByOrderId(orderId)).thenReturn(Optional.of(entity));
+        String orderId = pendingOrder("corp-approval-123");
 
         when(productCatalog.findById("CORP-LICENSE-ENT"))
                 .thenReturn(Optional.of(new ProductRecord("CORP-LICENSE-ENT", "Enterprise License", ProductType.CORPORATE,
@@ -77,18 +114,15 @@ class OrderProcessorTest {
                         new BigDecimal("15000.00"), "{\"cnpj\":\"12345678000199\"}"))
         );
 
-        processor.consume(event);
+        processor.consume(event).join();
 
-        assertThat(entity.getStatus()).isEqualTo(OrderStatus.PENDING_APPROVAL);
+        verify(orderRepository).transition(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.PENDING_APPROVAL), eq(new BigDecimal("60000")), any());
         verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_PENDING_APPROVAL"));
     }
 
     @Test
     void shouldProcessPhysicalOrderAndPublishLowStockAlert() {
-        OrderEntity entity = OrderEntity.create("customer");
-        entity.setTotalAmount(new BigDecimal("1200"));
-        String orderId = setOrderId(entity, "physical-low-stock-1");
-        when(orderRepository.findByOrderId(orderId)).thenReturn(Optional.of(entity));
+        String orderId = pendingOrder("physical-low-stock-1");
 
         when(productCatalog.findById("LAPTOP-PRO-2024"))
                 .thenReturn(Optional.of(new ProductRecord("LAPTOP-PRO-2024", "Laptop Pro", ProductType.PHYSICAL,
@@ -104,19 +138,16 @@ class OrderProcessorTest {
                         new BigDecimal("300.00"), "{\"warehouseLocation\":\"SP\"}"))
         );
 
-        processor.consume(event);
+        processor.consume(event).join();
 
-        assertThat(entity.getStatus()).isEqualTo(OrderStatus.PROCESSED);
+        verify(orderRepository).transition(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.PROCESSED), eq(new BigDecimal("1200")), any());
         verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_PROCESSED"));
-        verify(lowStockKafkaTemplate).send(eq("order-alerts"), eq(orderId), any(LowStockAlertEvent.class));
+        verify(lowStockKafkaTemplate).send(eq("order-alerts"), eq("LAPTOP-PRO-2024"), any(LowStockAlertEvent.class));
     }
 
     @Test
     void shouldFailForIncompatibleSubscriptions() {
-        OrderEntity entity = OrderEntity.create("customer");
-        entity.setTotalAmount(new BigDecimal("500"));
-        String orderId = setOrderId(entity, "sub-incompat");
-        when(orderRepository.findByOrderId(orderId)).thenReturn(Optional.of(entity));
+        String orderId = pendingOrder("sub-incompat");
 
         when(productCatalog.findById("SUB-ENTERPRISE-001"))
                 .thenReturn(Optional.of(new ProductRecord("SUB-ENTERPRISE-001", "Enterprise", ProductType.SUBSCRIPTION,
@@ -137,18 +168,15 @@ class OrderProcessorTest {
                 )
         );
 
-        processor.consume(event);
+        processor.consume(event).join();
 
-        assertThat(entity.getStatus()).isEqualTo(OrderStatus.FAILED);
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
         verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_FAILED"));
     }
 
     @Test
     void shouldFailForDigitalWithoutLicense() {
-        OrderEntity entity = OrderEntity.create("customer");
-        entity.setTotalAmount(new BigDecimal("59.90"));
-        String orderId = setOrderId(entity, "digital-license");
-        when(orderRepository.findByOrderId(orderId)).thenReturn(Optional.of(entity));
+        String orderId = pendingOrder("digital-license");
 
         when(productCatalog.findById("EBOOK-DDD-001"))
                 .thenReturn(Optional.of(new ProductRecord("EBOOK-DDD-001", "DDD", ProductType.DIGITAL,
@@ -163,18 +191,15 @@ class OrderProcessorTest {
                 List.of(new OrderCreatedEvent.OrderItemPayload("EBOOK-DDD-001", "DIGITAL", 1, new BigDecimal("59.90"), "{}"))
         );
 
-        processor.consume(event);
+        processor.consume(event).join();
 
-        assertThat(entity.getStatus()).isEqualTo(OrderStatus.FAILED);
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
         verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_FAILED"));
     }
 
     @Test
     void shouldFailForPreOrderPastReleaseDate() {
-        OrderEntity entity = OrderEntity.create("customer");
-        entity.setTotalAmount(new BigDecimal("100"));
-        String orderId = setOrderId(entity, "preorder-invalid");
-        when(orderRepository.findByOrderId(orderId)).thenReturn(Optional.of(entity));
+        String orderId = pendingOrder("preorder-invalid");
 
         when(productCatalog.findById("GAME-2020-001"))
                 .thenReturn(Optional.of(new ProductRecord("GAME-2020-001", "Old Game", ProductType.PRE_ORDER,
@@ -189,31 +214,207 @@ class OrderProcessorTest {
                 List.of(new OrderCreatedEvent.OrderItemPayload("GAME-2020-001", "PRE_ORDER", 1, new BigDecimal("100.00"), "{}"))
         );
 
-        processor.consume(event);
+        processor.consume(event).join();
+
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
+        verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_FAILED"));
+    }
+
+    @Test
+    void shouldFailAndRaiseFraudAlertWhenScoredAsSuspicious() {
+        String orderId = pendingOrder("fraud-velocity");
+        when(fraudEngine.assess(any())).thenReturn(new FraudAssessment(120, List.of("ORDER_COUNT_VELOCITY", "AMOUNT_VELOCITY"), true));
+
+        OrderCreatedEvent event = new OrderCreatedEvent(
+                "evt-6",
+                orderId,
+                "customer",
+                new BigDecimal("89.90"),
+                OffsetDateTime.now(),
+                List.of(new OrderCreatedEvent.OrderItemPayload("BOOK-CC-001", "PHYSICAL", 1, new BigDecimal("89.90"), "{}"))
+        );
+
+        processor.consume(event).join();
+
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
+        verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_FAILED"));
+        verify(fraudKafkaTemplate).send(eq("order-alerts"), eq(orderId), any(FraudAlertEvent.class));
+    }
+
+    @Test
+    void shouldFailWhenPaymentIsDeclined() {
+        String orderId = pendingOrder("payment-declined");
+        when(paymentAuthorizer.authorize(any())).thenReturn(CompletableFuture.completedFuture(PaymentAuthorization.declined("DECLINED_BY_ISSUER")));
 
-        assertThat(entity.getStatus()).isEqualTo(OrderStatus.FAILED);
+        processor.consume(physicalEvent("evt-7", orderId)).join();
+
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
         verify(kafkaTemplate).send(eq("order-results"), eq(orderId), argWithType("ORDER_FAILED"));
     }
 
+    @Test
+    void shouldLeaveOrderPendingWhenPaymentGatewayIsUnavailable() {
+        String orderId = pendingOrder("payment-unavailable");
+        when(paymentAuthorizer.authorize(any())).thenReturn(CompletableFuture.failedFuture(new PaymentUnavailableException("Payment circuit open")));
+
+        CompletableFuture<Void> result = processor.consume(physicalEvent("evt-8", orderId));
+
+        assertThat(result).isCompletedExceptionally();
+        verifyNoTransition();
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    @Test
+    void shouldDropRedeliveredEventBeforeAnyDatabaseWork() {
+        when(deduplicator.isDuplicate("evt-9")).thenReturn(true);
+
+        processor.consume(physicalEvent("evt-9", "order-redelivered")).join();
+
+        verify(orderRepository, never()).findStatusByOrderId(any());
+        verify(paymentAuthorizer, never()).authorize(any());
+        verify(deduplicator, never()).begin(any());
+    }
+
+    @Test
+    void shouldNotChangeOrderWhenAnotherDeliveryClaimedTheEvent() {
+        String orderId = pendingOrder("claimed-elsewhere");
+        when(deduplicator.claim(any())).thenReturn(false);
+
+        processor.consume(physicalEvent("evt-10", orderId)).join();
+
+        verifyNoTransition();
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        verify(deduplicator).complete("evt-10");
+    }
+
+    private OrderCreatedEvent physicalEvent(String eventId, String orderId) {
+        when(productCatalog.findById("BOOK-CC-001"))
+                .thenReturn(Optional.of(new ProductRecord("BOOK-CC-001", "Clean Code", ProductType.PHYSICAL,
+                        new BigDecimal("89.90"), 150, true, null, null, null)));
+        return new OrderCreatedEvent(
+                eventId,
+                orderId,
+                "customer",
+                new BigDecimal("89.90"),
+                OffsetDateTime.now(),
+                List.of(new OrderCreatedEvent.OrderItemPayload("BOOK-CC-001", "PHYSICAL", 1, new BigDecimal("89.90"), "{}"))
+        );
+    }
+
     private OrderResultEvent argWithType(String eventType) {
         return org.mockito.ArgumentMatchers.argThat((ArgumentMatcher<OrderResultEvent>) event ->
                 event != null && event.eventType().equals(eventType));
     }
 
-    private String setOrderId(OrderEntity entity, String orderId) {
+    @Test
+    void shouldNotPublishWhenOrderWasTransitionedConcurrently() {
+        String orderId = pendingOrder("lost-race");
+        when(orderRepository.transition(eq(orderId), any(), any(), any(), any())).thenReturn(0);
+
+        processor.consume(physicalEvent("evt-11", orderId)).join();
+
+        verify(orderRepository, never()).findByOrderId(any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipOrdersThatAreNoLongerPendingWithoutLoadingThem() {
+        when(orderRepository.findStatusByOrderId("already-done")).thenReturn(Optional.of(OrderStatus.PROCESSED));
+
+        processor.consume(physicalEvent("evt-12", "already-done")).join();
+
+        verify(paymentAuthorizer, never()).authorize(any());
+        verify(orderRepository, never()).findByOrderId(any());
+        verifyNoTransition();
+    }
+
+    @Test
+    void shouldStopAtFirstFailureByDefault() {
+        String orderId = pendingOrder("fail-fast");
+        when(paymentAuthorizer.authorize(any())).thenReturn(CompletableFuture.completedFuture(PaymentAuthorization.declined("DECLINED_BY_ISSUER")));
+
+        processor.consume(multiFailureEvent("evt-13", orderId)).join();
+
+        OrderResultEvent.FailedPayload payload = failedPayload(orderId);
+        assertThat(payload.reason()).isEqualTo("PAYMENT_FAILED");
+        assertThat(payload.reasons()).containsExactly(FailureReason.PAYMENT_FAILED);
+        verify(productCatalog, never()).findById(any());
+    }
+
+    @Test
+    void shouldCollectEveryFailureInOnePassWhenEnabled() {
+        String orderId = pendingOrder("collect-all");
+        when(paymentAuthorizer.authorize(any())).thenReturn(CompletableFuture.completedFuture(PaymentAuthorization.declined("DECLINED_BY_ISSUER")));
+        when(fraudEngine.assess(any())).thenReturn(new FraudAssessment(120, List.of("AMOUNT_VELOCITY"), true));
+
+        processor(true).consume(multiFailureEvent("evt-14", orderId)).join();
+
+        OrderResultEvent.FailedPayload payload = failedPayload(orderId);
+        assertThat(payload.reason()).isEqualTo("PAYMENT_FAILED");
+        assertThat(payload.reasons()).containsExactly(FailureReason.PAYMENT_FAILED, FailureReason.FRAUD_ALERT,
+                FailureReason.OUT_OF_STOCK, FailureReason.ALREADY_OWNED);
+        verify(orderRepository).transitionStatus(eq(orderId), eq(OrderStatus.PENDING), eq(OrderStatus.FAILED), any());
+        verify(fraudKafkaTemplate).send(eq("order-alerts"), eq(orderId), any(FraudAlertEvent.class));
+    }
+
+    @Test
+    void shouldEvaluateItemsWithoutThrowing() {
+        OrderEvaluation evaluation = processor(true).evaluate(multiFailureEvent("evt-15", "evaluate-only"));
+
+        assertThat(evaluation.failed()).isTrue();
+        assertThat(evaluation.failures()).containsExactly(FailureReason.OUT_OF_STOCK, FailureReason.ALREADY_OWNED);
+        verifyNoTransition();
+    }
+
+    private OrderCreatedEvent multiFailureEvent(String eventId, String orderId) {
+        when(productCatalog.findById("BOOK-CC-001"))
+                .thenReturn(Optional.of(new ProductRecord("BOOK-CC-001", "Clean Code", ProductType.PHYSICAL,
+                        new BigDecimal("89.90"), 1, true, null, null, null)));
+        when(productCatalog.findById("EBOOK-JAVA-001"))
+                .thenReturn(Optional.of(new ProductRecord("EBOOK-JAVA-001", "Java", ProductType.DIGITAL,
+                        new BigDecimal("39.90"), null, true, null, null, null)));
+        return new OrderCreatedEvent(eventId, orderId, "customer", new BigDecimal("259.60"), OffsetDateTime.now(),
+                List.of(new OrderCreatedEvent.OrderItemPayload("BOOK-CC-001", "PHYSICAL", 2, new BigDecimal("89.90"), "{}"),
+                        new OrderCreatedEvent.OrderItemPayload("EBOOK-JAVA-001", "DIGITAL", 2, new BigDecimal("39.90"), "{}")));
+    }
+
+    private OrderResultEvent.FailedPayload failedPayload(String orderId) {
+        ArgumentCaptor<OrderResultEvent> captor = ArgumentCaptor.forClass(OrderResultEvent.class);
+        verify(kafkaTemplate).send(eq("order-results"), eq(orderId), captor.capture());
+        assertThat(captor.getValue().eventType()).isEqualTo("ORDER_FAILED");
+        return (OrderResultEvent.FailedPayload) captor.getValue().payload();
+    }
+
+    private OrderProcessor processor(boolean collectAllFailures) {
+        LowStockAlertAggregator lowStockAlerts = new LowStockAlertAggregator(lowStockKafkaTemplate,
+                new LowStockAlertProperties(true, 5, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+        ObjectMapper objectMapper = new ObjectMapper();
+        OrderValidationProperties validation = new OrderValidationProperties(collectAllFailures, 16);
+        OrderItemValidator itemValidator = new OrderItemValidator(List.of(new PhysicalItemHandler(lowStockAlerts, objectMapper),
+                new SubscriptionItemHandler(orderRepository, legacyOrders), new DigitalItemHandler(), new PreOrderItemHandler(objectMapper),
+                new CorporateItemHandler(objectMapper)), productCatalog, validation);
+        return new OrderProcessor(orderRepository, kafkaTemplate, lowStockAlerts, fraudKafkaTemplate, itemValidator, fraudEngine,
+                paymentAuthorizer, new PaymentProperties(Duration.ofSeconds(2), 64, 16, 5, Duration.ofSeconds(30), Duration.ZERO),
+                deduplicator, new StartupTimer(new SimpleMeterRegistry()),
+                new ShardRouter(1, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()),
+                listenerAutoscaler, validation, ObservationRegistry.NOOP);
+    }
+
+    private void verifyNoTransition() {
+        verify(orderRepository, never()).transition(any(), any(), any(), any(), any());
+        verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
+    }
+
+    private String pendingOrder(String orderId) {
         // keep hash values predictable for fraud/payment checks inside processor
         int mod20 = Math.abs(orderId.hashCode()) % 20;
         int mod31 = Math.abs(orderId.hashCode()) % 31;
         if (mod20 == 0 || mod31 == 0) {
             orderId = orderId + "-safe";
         }
-        try {
-            var field = OrderEntity.class.getDeclaredField("orderId");
-            field.setAccessible(true);
-            field.set(entity, orderId);
-            return orderId;
-        } catch (ReflectiveOperationException e) {
-            throw new IllegalStateException(e);
-        }
+        when(orderRepository.findStatusByOrderId(orderId)).thenReturn(Optional.of(OrderStatus.PENDING));
+        when(orderRepository.transition(eq(orderId), eq(OrderStatus.PENDING), any(), any(), any())).thenReturn(1);
+        when(orderRepository.transitionStatus(eq(orderId), eq(OrderStatus.PENDING), any(), any())).thenReturn(1);
+        return orderId;
     }
 }
@@ -3,20 +3,32 @@ package com.loomi.orders.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.loomi.orders.api.dto.OrderRequest;
+import com.loomi.orders.api.dto.OrderResponse;
 import com.loomi.orders.catalog.ProductCatalog;
 import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.domain.OrderVersion;
 import com.loomi.orders.domain.ProductType;
 import com.loomi.orders.domain.model.OrderEntity;
 import com.loomi.orders.repository.IdempotencyKeyRepository;
 import com.loomi.orders.repository.OrderRepository;
 import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import com.loomi.orders.service.sharding.RecentWrites;
+import com.loomi.orders.service.sharding.ReplicaProperties;
+import com.loomi.orders.service.sharding.ShardRebalancer;
+import com.loomi.orders.service.sharding.ShardRouter;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,13 +36,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionOperations;
 
 class OrderServiceTest {
 
     @Mock
     private ProductCatalog productCatalog;
     @Mock
+    private LegacyOrders legacyOrders;
+    @Mock
+    private ShardRebalancer shardRebalancer;
+    @Mock
     private OrderRepository orderRepository;
     @Mock
     private IdempotencyKeyRepository idempotencyKeyRepository;
@@ -42,7 +62,10 @@ class OrderServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        service = new OrderService(productCatalog, orderRepository, new OrderMapper(new ObjectMapper()), idempotencyKeyRepository, kafkaTemplate);
+        service = new OrderService(productCatalog, orderRepository, new OrderMapper(new ObjectMapper()), idempotencyKeyRepository, kafkaTemplate,
+                new ShardRouter(1, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()),
+                new RecentWrites(new ReplicaProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), List.of())), legacyOrders,
+                shardRebalancer);
         when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(kafkaTemplate.send(any(), any(), any())).thenReturn(null);
     }
@@ -82,4 +105,88 @@ class OrderServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Product MISSING not found");
     }
+
+    @Test
+    void shouldSearchItemMetadataByContainment() {
+        service.searchByMetadata("12.345.678/0001-90", " ", false, 0, 20);
+        service.searchByMetadata(null, "SP", true, 0, 20);
+
+        verify(orderRepository).findByItemMetadata(eq("{\"cnpj\":\"12.345.678/0001-90\"}"), any());
+        verify(orderRepository).findByItemMetadataWithPreOrderDiscount(eq("{\"warehouseLocation\":\"SP\"}"), any());
+        assertThatThrownBy(() -> service.searchByMetadata(null, null, false, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldPublishCorporateAndHighValueOrdersToPriorityLane() {
+        when(productCatalog.findById("BOOK-CC-001"))
+                .thenReturn(Optional.of(new ProductRecord("BOOK-CC-001", "Clean Code", ProductType.PHYSICAL, new BigDecimal("10.00"), 10, true, null, null, null)));
+        when(productCatalog.findById("CORP-CHAIR-ERG-001"))
+                .thenReturn(Optional.of(new ProductRecord("CORP-CHAIR-ERG-001", "Ergonomic Chair Bulk", ProductType.CORPORATE, new BigDecimal("899.00"), 500, true, null, null, null)));
+        when(productCatalog.findById("LAPTOP-PRO-2024"))
+                .thenReturn(Optional.of(new ProductRecord("LAPTOP-PRO-2024", "Laptop Pro", ProductType.PHYSICAL, new BigDecimal("5499.00"), 8, true, null, null, null)));
+
+        service.create(request("BOOK-CC-001", 1));
+        service.create(request("CORP-CHAIR-ERG-001", 1));
+        service.create(request("LAPTOP-PRO-2024", 2));
+
+        verify(kafkaTemplate).send(eq("order-events"), any(), any());
+        verify(kafkaTemplate, times(2)).send(eq("order-events-priority"), any(), any());
+    }
+
+    private static OrderRequest request(String productId, int quantity) {
+        OrderRequest request = new OrderRequest();
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        request.setCustomerId("customer-1");
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    @Test
+    void shouldMergeLegacyShardZeroOrdersIntoCustomerListing() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OrderEntity recent = OrderEntity.pending("3f-recent", "customer-1", BigDecimal.TEN, now);
+        OrderEntity legacy = OrderEntity.pending("0b6f4c1e-legacy", "customer-1", BigDecimal.TEN, now.minusDays(400));
+        when(legacyOrders.outsideShard("customer-1")).thenReturn(true);
+        // o segundo shard ainda devolve o pedido recente, como no meio de um rebalance
+        when(orderRepository.findByCustomerIdOrderByCreatedAtDesc(eq("customer-1"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(recent)), new PageImpl<>(List.of(recent, legacy)));
+
+        List<OrderResponse> page = service.findByCustomer("customer-1", 1, 1, null);
+
+        assertThat(page).extracting(OrderResponse::getOrderId).containsExactly("0b6f4c1e-legacy");
+        verify(orderRepository, times(2)).findByCustomerIdOrderByCreatedAtDesc("customer-1", PageRequest.of(0, 2));
+    }
+
+    @Test
+    void shouldResolveOrderVersionWithoutLoadingItems() {
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-01-10T12:00:00.123456Z");
+        when(orderRepository.findVersionByOrderId("o-1")).thenReturn(Optional.of(new OrderVersion(3L, updatedAt)));
+
+        Optional<OrderVersion> version = service.findVersion("o-1", null);
+
+        assertThat(version).map(OrderVersion::eTag).contains("\"3-1768046400123\"");
+        assertThat(new OrderVersion(4L, updatedAt).eTag()).isNotEqualTo(version.get().eTag());
+        assertThat(service.findVersion("missing", null)).isEmpty();
+        verify(orderRepository, never()).findByOrderId(any());
+    }
+
+    @Test
+    void shouldLookForMissingOrderOnOtherShardsOnlyWhileItsBucketIsMoving() {
+        OrderService sharded = new OrderService(productCatalog, orderRepository, new OrderMapper(new ObjectMapper()),
+                idempotencyKeyRepository, kafkaTemplate,
+                new ShardRouter(4, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()),
+                new RecentWrites(new ReplicaProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), List.of())), legacyOrders,
+                shardRebalancer);
+
+        // réplica e primário do dono, nada mais
+        assertThat(sharded.findVersion("0a-missing", null)).isEmpty();
+        verify(orderRepository, times(2)).findVersionByOrderId("0a-missing");
+
+        when(shardRebalancer.moving(0x0a)).thenReturn(true);
+        assertThat(sharded.findVersion("0a-moving", null)).isEmpty();
+        verify(orderRepository, times(5)).findVersionByOrderId("0a-moving");
+    }
 }
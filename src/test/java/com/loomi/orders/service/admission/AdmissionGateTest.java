@@ -0,0 +1,151 @@
+package com.loomi.orders.service.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor.Lane;
+import com.loomi.orders.service.monitoring.DatabasePoolMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class AdmissionGateTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private ConsumerLagMonitor lagMonitor;
+
+    @Mock
+    private DatabasePoolMonitor poolMonitor;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(lagMonitor.currentLag(Lane.RETAIL)).thenReturn(0L);
+        when(lagMonitor.currentLag(Lane.PRIORITY)).thenReturn(0L);
+    }
+
+    @Test
+    void shouldRateLimitCustomerAfterBurstAndRefillOverTime() {
+        AdmissionGate gate = gate(new AdmissionProperties(true, 2, 3, 10, 100, 1000, 0.95, Duration.ofSeconds(5)));
+
+        for (int i = 0; i < 3; i++) {
+            gate.admit("customer-1").close();
+        }
+        assertThatThrownBy(() -> gate.admit("customer-1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, ex -> {
+                    assertThat(ex.reason()).isEqualTo(RejectionReason.CUSTOMER_RATE_LIMIT);
+                    assertThat(ex.retryAfter()).isEqualTo(Duration.ofMillis(500));
+                });
+        gate.admit("customer-2").close();
+
+        now.set(START.plusMillis(500));
+        gate.admit("customer-1").close();
+        assertThat(gate.inFlight()).isZero();
+        assertThat(meterRegistry.get("orders.admission.rejected").tag("reason", "CUSTOMER_RATE_LIMIT").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldLimitConcurrentRequestsUntilPermitsAreReleased() {
+        AdmissionGate gate = gate(new AdmissionProperties(true, 100, 100, 10, 2, 1000, 0.95, Duration.ofSeconds(5)));
+
+        AdmissionGate.Permit first = gate.admit("customer-1");
+        AdmissionGate.Permit second = gate.admit("customer-2");
+
+        assertThatThrownBy(() -> gate.admit("customer-3"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        ex -> assertThat(ex.reason()).isEqualTo(RejectionReason.CONCURRENCY_LIMIT));
+
+        first.close();
+        gate.admit("customer-3").close();
+        second.close();
+        assertThat(gate.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldShedLoadWhenConsumerLagOrPoolSaturationIsHigh() {
+        AdmissionGate gate = gate(new AdmissionProperties(true, 100, 100, 10, 10, 1000, 0.9, Duration.ofSeconds(5)));
+
+        when(lagMonitor.currentLag(Lane.PRIORITY)).thenReturn(1000L);
+        gate.admit("customer-1").close();
+
+        when(lagMonitor.currentLag(Lane.RETAIL)).thenReturn(1001L);
+        assertThatThrownBy(() -> gate.admit("customer-1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, ex -> {
+                    assertThat(ex.reason()).isEqualTo(RejectionReason.CONSUMER_LAG);
+                    assertThat(ex.retryAfter()).isEqualTo(Duration.ofSeconds(5));
+                });
+
+        // a faixa prioritária disputa os mesmos shards: atrasada, também barra novos pedidos
+        when(lagMonitor.currentLag(Lane.RETAIL)).thenReturn(0L);
+        when(lagMonitor.currentLag(Lane.PRIORITY)).thenReturn(5000L);
+        assertThatThrownBy(() -> gate.admit("customer-1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        ex -> assertThat(ex.reason()).isEqualTo(RejectionReason.CONSUMER_LAG));
+
+        when(lagMonitor.currentLag(Lane.RETAIL)).thenReturn(ConsumerLagMonitor.UNKNOWN);
+        when(lagMonitor.currentLag(Lane.PRIORITY)).thenReturn(ConsumerLagMonitor.UNKNOWN);
+        when(poolMonitor.saturation()).thenReturn(1.0);
+        when(poolMonitor.threadsAwaitingConnection()).thenReturn(3);
+        assertThatThrownBy(() -> gate.admit("customer-1"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        ex -> assertThat(ex.reason()).isEqualTo(RejectionReason.DATABASE_SATURATION));
+
+        when(poolMonitor.threadsAwaitingConnection()).thenReturn(0);
+        gate.admit("customer-1").close();
+        assertThat(gate.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldEvictBucketsOnceTheyRefill() {
+        AdmissionGate gate = gate(new AdmissionProperties(true, 1, 5, 10, 10, 1000, 0.95, Duration.ofSeconds(5)));
+        gate.admit("customer-1").close();
+        gate.admit("customer-1").close();
+
+        now.set(START.plusSeconds(1));
+        gate.evictIdle();
+        assertThat(gate.trackedCustomers()).isEqualTo(1);
+
+        now.set(START.plusSeconds(2));
+        gate.evictIdle();
+        assertThat(gate.trackedCustomers()).isZero();
+    }
+
+    private AdmissionGate gate(AdmissionProperties properties) {
+        return new AdmissionGate(properties, lagMonitor, poolMonitor, meterRegistry, clock());
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.loomi.orders.service.alerts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.loomi.orders.service.events.LowStockAlertEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+class LowStockAlertAggregatorTest {
+
+    @Mock
+    private KafkaTemplate<String, LowStockAlertEvent> kafkaTemplate;
+
+    private LowStockAlertAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        aggregator = aggregator(true);
+    }
+
+    @Test
+    void shouldPublishThresholdCrossingOnceAndCoalesceRepeats() {
+        for (int i = 0; i < 1000; i++) {
+            aggregator.record("order-" + i, "SKU-1", 4);
+        }
+        aggregator.flush();
+
+        assertThat(published()).extracting(LowStockAlertEvent::remainingStock).containsExactly(4);
+    }
+
+    @Test
+    void shouldPublishWindowMinimumOnFlushAndStockOutImmediately() {
+        aggregator.record("order-1", "SKU-1", 4);
+        aggregator.record("order-2", "SKU-1", 2);
+        aggregator.record("order-3", "SKU-1", 3);
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+
+        aggregator.flush();
+        aggregator.record("order-4", "SKU-1", 0);
+        aggregator.record("order-5", "SKU-1", 0);
+
+        List<LowStockAlertEvent> events = published();
+        assertThat(events).extracting(LowStockAlertEvent::remainingStock).containsExactly(4, 2, 0);
+        assertThat(events).extracting(LowStockAlertEvent::orderId).containsExactly("order-1", "order-2", "order-4");
+    }
+
+    @Test
+    void shouldForgetProductsIdleForAWholeWindow() {
+        aggregator.record("order-1", "SKU-1", 4);
+        aggregator.record("order-2", "SKU-2", 1);
+        aggregator.flush();
+        aggregator.record("order-3", "SKU-2", 1);
+        aggregator.flush();
+
+        assertThat(aggregator.trackedProducts()).isEqualTo(1);
+        aggregator.record("order-4", "SKU-1", 4);
+        verify(kafkaTemplate, times(2)).send(eq(LowStockAlertAggregator.TOPIC), eq("SKU-1"), any());
+    }
+
+    @Test
+    void shouldPublishEveryAlertWhenDisabled() {
+        LowStockAlertAggregator passthrough = aggregator(false);
+
+        passthrough.record("order-1", "SKU-1", 4);
+        passthrough.record("order-2", "SKU-1", 4);
+
+        verify(kafkaTemplate, times(2)).send(eq(LowStockAlertAggregator.TOPIC), eq("SKU-1"), any());
+        assertThat(passthrough.trackedProducts()).isZero();
+    }
+
+    private List<LowStockAlertEvent> published() {
+        ArgumentCaptor<LowStockAlertEvent> captor = ArgumentCaptor.forClass(LowStockAlertEvent.class);
+        verify(kafkaTemplate, atLeast(0)).send(eq(LowStockAlertAggregator.TOPIC), anyString(), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private LowStockAlertAggregator aggregator(boolean enabled) {
+        return new LowStockAlertAggregator(kafkaTemplate, new LowStockAlertProperties(enabled, 5, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,136 @@
+package com.loomi.orders.service.deadletter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+class DeadLetterReplayServiceTest {
+
+    private static final String DLT = "order-events-dlt";
+    private static final TopicPartition PARTITION = new TopicPartition(DLT, 0);
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> replayTemplate;
+
+    private MockConsumer<String, byte[]> consumer;
+    private DeadLetterReplayService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void close() {
+                // mantém o consumer aberto para inspecionar os offsets comitados
+            }
+        };
+        Node node = new Node(0, "localhost", 9092);
+        consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, node, new Node[]{node}, new Node[]{node})));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        when(consumerFactory.createConsumer(eq("order-processor-dlt-replay"), any())).thenReturn(consumer);
+        service = new DeadLetterReplayService(consumerFactory, replayTemplate);
+    }
+
+    @Test
+    void shouldExposeFailureMetadataWhenPeeking() {
+        ConsumerRecord<String, byte[]> record = record(0, "order-1");
+        record.headers().add(KafkaHeaders.ORIGINAL_TOPIC, bytes("order-events"));
+        record.headers().add(KafkaHeaders.EXCEPTION_MESSAGE, bytes("boom"));
+        consumer.schedulePollTask(() -> consumer.addRecord(record));
+
+        List<DeadLetterRecord> records = service.peek(DLT, 10);
+
+        assertThat(records).singleElement().satisfies(dead -> {
+            assertThat(dead.key()).isEqualTo("order-1");
+            assertThat(dead.originalTopic()).isEqualTo("order-events");
+            assertThat(dead.exceptionMessage()).isEqualTo("boom");
+        });
+        assertThat(consumer.committed(Set.of(PARTITION))).isEmpty();
+    }
+
+    @Test
+    void shouldRepublishWithoutRetryHeadersAndCommit() {
+        ConsumerRecord<String, byte[]> record = record(0, "order-1");
+        record.headers().add(KafkaHeaders.ORIGINAL_TOPIC, bytes("order-events"));
+        record.headers().add("retry_topic-attempts", new byte[]{3});
+        record.headers().add("traceparent", bytes("00-abc"));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record);
+            consumer.addRecord(record(1, "order-2"));
+        });
+        when(replayTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        DeadLetterReplayResult result = service.replay(DLT, 1);
+
+        assertThat(result.targetTopic()).isEqualTo("order-events");
+        assertThat(result.replayed()).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(replayTemplate).send(captor.capture());
+        ProducerRecord<String, byte[]> replayed = captor.getValue();
+        assertThat(replayed.topic()).isEqualTo("order-events");
+        assertThat(replayed.key()).isEqualTo("order-1");
+        assertThat(replayed.headers().toArray()).extracting(header -> header.key()).containsExactly("traceparent");
+        assertThat(consumer.committed(Set.of(PARTITION)).get(PARTITION).offset()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectReplayWhileAnotherIsRunning() {
+        AtomicReference<Throwable> concurrent = new AtomicReference<>();
+        consumer.schedulePollTask(() -> {
+            try {
+                service.replay(DLT, 10);
+            } catch (RuntimeException ex) {
+                concurrent.set(ex);
+            }
+        });
+
+        service.replay(DLT, 10);
+
+        assertThat(concurrent.get()).isInstanceOf(ReplayInProgressException.class);
+    }
+
+    @Test
+    void shouldRejectTopicsThatAreNotDeadLetterTopics() {
+        assertThatThrownBy(() -> service.replay("order-events", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(consumerFactory, never()).createConsumer(any(), any());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String key) {
+        return new ConsumerRecord<>(DLT, 0, offset, key, bytes("{}"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
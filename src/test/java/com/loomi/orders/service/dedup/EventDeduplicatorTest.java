@@ -0,0 +1,147 @@
+package com.loomi.orders.service.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loomi.orders.repository.ProcessedEventRepository;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+class EventDeduplicatorTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private ProcessedEventRepository repository;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private EventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        deduplicator = new EventDeduplicator(repository, new DedupProperties(true, Duration.ofHours(1), 1000, 0.01),
+                new ShardRouter(1, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()), clock());
+    }
+
+    @Test
+    void shouldSkipDatabaseLookupForUnseenEvents() {
+        assertThat(deduplicator.isDuplicate("evt-unseen")).isFalse();
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void shouldConfirmFilterHitsAgainstProcessedEvents() {
+        when(repository.claim(eq("evt-1"), eq("order-1"), any())).thenReturn(1);
+        when(repository.existsById("evt-1")).thenReturn(true);
+
+        assertThat(deduplicator.claim(event("evt-1"))).isTrue();
+
+        assertThat(deduplicator.isDuplicate("evt-1")).isTrue();
+        verify(repository).existsById("evt-1");
+    }
+
+    @Test
+    void shouldRejectSecondConcurrentDeliveryUntilCompleted() {
+        assertThat(deduplicator.begin("evt-2")).isTrue();
+        assertThat(deduplicator.begin("evt-2")).isFalse();
+
+        deduplicator.complete("evt-2");
+
+        assertThat(deduplicator.begin("evt-2")).isTrue();
+    }
+
+    @Test
+    void shouldWarmFilterFromPersistedEventsAndForgetThemAfterTwoRotations() {
+        when(repository.streamEventIdsSince(any())).thenReturn(Stream.of("evt-3"));
+        when(repository.existsById("evt-3")).thenReturn(true);
+        deduplicator.afterSingletonsInstantiated();
+        assertThat(deduplicator.isDuplicate("evt-3")).isTrue();
+
+        now.set(START.plus(Duration.ofHours(1)));
+        deduplicator.purgeAndRotate();
+        assertThat(deduplicator.isDuplicate("evt-3")).isTrue();
+
+        now.set(START.plus(Duration.ofHours(2)));
+        deduplicator.purgeAndRotate();
+        assertThat(deduplicator.isDuplicate("evt-3")).isFalse();
+        verify(repository).deleteProcessedBefore(OffsetDateTime.ofInstant(START.plus(Duration.ofHours(1)), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldFillFilterOnPartitionAssignmentWithEventsProcessedElsewhere() {
+        when(repository.streamEventIdsSince(any())).thenReturn(Stream.empty(), Stream.of("evt-elsewhere"));
+        when(repository.existsById("evt-elsewhere")).thenReturn(true);
+        deduplicator.afterSingletonsInstantiated();
+        // outra instância processou o evento depois do preenchimento inicial
+        assertThat(deduplicator.isDuplicate("evt-elsewhere")).isFalse();
+
+        now.set(START.plus(Duration.ofMinutes(30)));
+        deduplicator.onPartitionsAssigned(List.of(new TopicPartition("order-events", 0)));
+
+        assertThat(deduplicator.isDuplicate("evt-elsewhere")).isTrue();
+        // só relê o que foi processado desde o preenchimento anterior
+        verify(repository).streamEventIdsSince(OffsetDateTime.ofInstant(START.minus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("evt-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("evt-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(filter.mightContain("evt-42")).isTrue();
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    private OrderCreatedEvent event(String eventId) {
+        return new OrderCreatedEvent(eventId, "order-1", "customer", BigDecimal.TEN, OffsetDateTime.now(),
+                List.of(new OrderCreatedEvent.OrderItemPayload("BOOK-CC-001", "PHYSICAL", 1, BigDecimal.TEN, null)));
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+}
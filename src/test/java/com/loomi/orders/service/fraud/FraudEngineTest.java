@@ -0,0 +1,149 @@
+package com.loomi.orders.service.fraud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FraudEngineTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private final AtomicInteger sequence = new AtomicInteger();
+    private FraudProperties properties;
+    private FraudEngine engine;
+
+    @BeforeEach
+    void setup() {
+        properties = new FraudProperties(Duration.ofMinutes(10), 10, 2, 100,
+                new FraudProperties.CountThreshold(3, 60),
+                new FraudProperties.AmountThreshold(new BigDecimal("1000"), 60),
+                new FraudProperties.CountThreshold(2, 40),
+                new FraudProperties.AmountThreshold(new BigDecimal("20000"), 40));
+        engine = new FraudEngine(properties, List.of(
+                new OrderCountVelocityRule(properties),
+                new AmountVelocityRule(properties),
+                new DistinctProductsVelocityRule(properties),
+                new HighValueOrderRule(properties)), clock());
+    }
+
+    @Test
+    void shouldFlagCustomerExceedingOrderAndAmountVelocity() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(engine.assess(event("customer-1", "300.00", "BOOK-CC-001")).suspected()).isFalse();
+        }
+
+        FraudAssessment assessment = engine.assess(event("customer-1", "300.00", "BOOK-CC-001"));
+
+        assertThat(assessment.suspected()).isTrue();
+        assertThat(assessment.triggeredRules()).containsExactly("ORDER_COUNT_VELOCITY", "AMOUNT_VELOCITY");
+    }
+
+    @Test
+    void shouldForgetActivityOlderThanWindow() {
+        for (int i = 0; i < 3; i++) {
+            engine.assess(event("customer-1", "300.00", "BOOK-CC-001"));
+        }
+        now.set(START.plus(Duration.ofMinutes(11)));
+
+        FraudAssessment assessment = engine.assess(event("customer-1", "300.00", "BOOK-CC-001"));
+
+        assertThat(assessment.score()).isZero();
+    }
+
+    @Test
+    void shouldCountDistinctProductsAcrossBuckets() {
+        engine.assess(event("customer-1", "10.00", "BOOK-CC-001"));
+        now.set(START.plus(Duration.ofMinutes(3)));
+        engine.assess(event("customer-1", "10.00", "EBOOK-JAVA-001"));
+        now.set(START.plus(Duration.ofMinutes(6)));
+
+        FraudAssessment assessment = engine.assess(event("customer-1", "10.00", "SUB-BASIC-001"));
+
+        assertThat(assessment.triggeredRules()).containsExactly("DISTINCT_PRODUCTS_VELOCITY");
+    }
+
+    @Test
+    void shouldBoundTrackedCustomersAndEvictIdleWindows() {
+        engine.assess(event("customer-1", "10.00", "BOOK-CC-001"));
+        engine.assess(event("customer-2", "10.00", "BOOK-CC-001"));
+        engine.assess(event("customer-3", "10.00", "BOOK-CC-001"));
+        assertThat(engine.trackedCustomers()).isEqualTo(2);
+
+        now.set(START.plus(Duration.ofMinutes(11)));
+        engine.assess(event("customer-4", "10.00", "BOOK-CC-001"));
+
+        assertThat(engine.trackedCustomers()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldScoreReplayedEventsByTheirOwnTimestamps() {
+        Instant recorded = START.minus(Duration.ofDays(365));
+        for (int i = 0; i < 3; i++) {
+            engine.assess(event("customer-1", "300.00", "BOOK-CC-001", recorded.plusSeconds(i)));
+        }
+        engine.evictIdle();
+
+        FraudAssessment assessment = engine.assess(event("customer-1", "300.00", "BOOK-CC-001", recorded.plusSeconds(3)));
+
+        assertThat(assessment.triggeredRules()).containsExactly("ORDER_COUNT_VELOCITY", "AMOUNT_VELOCITY");
+    }
+
+    @Test
+    void shouldCountRedeliveredEventOnce() {
+        OrderCreatedEvent event = event("customer-1", "300.00", "BOOK-CC-001");
+        for (int i = 0; i < 5; i++) {
+            // retry-topic após timeout do pagamento: mesmo eventId
+            assertThat(engine.assess(event).suspected()).isFalse();
+        }
+        engine.assess(event("customer-1", "300.00", "BOOK-CC-001"));
+
+        FraudAssessment assessment = engine.assess(event("customer-1", "300.00", "BOOK-CC-001"));
+
+        assertThat(assessment.triggeredRules()).isEmpty();
+        assertThat(engine.assess(event("customer-1", "300.00", "BOOK-CC-001")).triggeredRules())
+                .containsExactly("ORDER_COUNT_VELOCITY", "AMOUNT_VELOCITY");
+    }
+
+    private OrderCreatedEvent event(String customerId, String amount, String productId) {
+        return event(customerId, amount, productId, now.get());
+    }
+
+    private OrderCreatedEvent event(String customerId, String amount, String productId, Instant createdAt) {
+        BigDecimal total = new BigDecimal(amount);
+        return new OrderCreatedEvent("evt-" + sequence.incrementAndGet(), "order", customerId, total,
+                OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC),
+                List.of(new OrderCreatedEvent.OrderItemPayload(productId, "PHYSICAL", 1, total, null)));
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.loomi.orders.service.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class StartupTimerTest {
+
+    private static final Instant JVM_START = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(JVM_START);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRecordOnlyTheFirstProcessedEvent() {
+        StartupTimer timer = new StartupTimer(meterRegistry, clock(), JVM_START.toEpochMilli());
+        TimeGauge gauge = meterRegistry.get("orders.startup.first-event").timeGauge();
+        assertThat(gauge.value(TimeUnit.MILLISECONDS)).isNaN();
+
+        now.set(JVM_START.plus(Duration.ofMillis(4200)));
+        timer.firstEventProcessed();
+        now.set(JVM_START.plus(Duration.ofMinutes(5)));
+        timer.firstEventProcessed();
+
+        assertThat(gauge.value(TimeUnit.MILLISECONDS)).isEqualTo(4200);
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+}
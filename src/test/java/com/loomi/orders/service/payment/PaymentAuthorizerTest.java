@@ -0,0 +1,70 @@
+package com.loomi.orders.service.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.loomi.orders.support.MutableClock;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PaymentAuthorizerTest {
+
+    private static final PaymentRequest REQUEST = new PaymentRequest("order-1", "customer-1", new BigDecimal("100.00"));
+
+    @Test
+    void shouldTimeOutSlowGatewayCalls() {
+        PaymentAuthorizer authorizer = new PaymentAuthorizer(request -> new CompletableFuture<>(),
+                properties(Duration.ofMillis(50), 4, 5), Clock.systemUTC());
+
+        assertThatThrownBy(() -> authorizer.authorize(REQUEST).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PaymentUnavailableException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkheadCapacity() {
+        CompletableFuture<PaymentAuthorization> pending = new CompletableFuture<>();
+        PaymentAuthorizer authorizer = new PaymentAuthorizer(request -> pending, properties(Duration.ofSeconds(5), 1, 5), Clock.systemUTC());
+
+        CompletableFuture<PaymentAuthorization> first = authorizer.authorize(REQUEST);
+        CompletableFuture<PaymentAuthorization> second = authorizer.authorize(REQUEST);
+
+        assertThat(second).isCompletedExceptionally();
+        pending.complete(PaymentAuthorization.approved("auth-1"));
+        assertThat(first.join().approved()).isTrue();
+        assertThat(authorizer.authorize(REQUEST).join().approved()).isTrue();
+    }
+
+    @Test
+    void shouldOpenCircuitAfterConsecutiveFailuresAndRecoverAfterOpenDuration() {
+        AtomicInteger calls = new AtomicInteger();
+        MutableClock clock = new MutableClock();
+        PaymentAuthorizer authorizer = new PaymentAuthorizer(request -> {
+            if (calls.incrementAndGet() <= 2) {
+                return CompletableFuture.failedFuture(new IllegalStateException("gateway down"));
+            }
+            return CompletableFuture.completedFuture(PaymentAuthorization.approved("auth-" + calls.get()));
+        }, properties(Duration.ofSeconds(1), 4, 2), clock);
+
+        assertThatThrownBy(() -> authorizer.authorize(REQUEST).join()).hasCauseInstanceOf(PaymentUnavailableException.class);
+        assertThatThrownBy(() -> authorizer.authorize(REQUEST).join()).hasCauseInstanceOf(PaymentUnavailableException.class);
+        assertThat(authorizer.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> authorizer.authorize(REQUEST).join()).hasMessageContaining("circuit open");
+        assertThat(calls.get()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(authorizer.authorize(REQUEST).join().approved()).isTrue();
+        assertThat(authorizer.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static PaymentProperties properties(Duration timeout, int maxConcurrentCalls, int failureThreshold) {
+        return new PaymentProperties(timeout, maxConcurrentCalls, 16, failureThreshold, Duration.ofSeconds(30), Duration.ZERO);
+    }
+}
@@ -0,0 +1,128 @@
+package com.loomi.orders.service.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.service.events.PreOrderReleasedEvent;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor.Lane;
+import com.loomi.orders.service.release.PreOrderReleaseStore.Checkpoint;
+import com.loomi.orders.service.release.PreOrderReleaseStore.DueOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+class PreOrderReleaseJobTest {
+    // GAME-2025-001 sai em 2025-06-01; PRE-IPHONE16-001 em 2025-09-20 e PRE-PS6-001 ainda não
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-10-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final String GAME = "GAME-2025-001";
+    private static final LocalDate GAME_RELEASE = LocalDate.parse("2025-06-01");
+
+    @Mock
+    private PreOrderReleaseStore store;
+    @Mock
+    private KafkaTemplate<String, PreOrderReleasedEvent> kafkaTemplate;
+    @Mock
+    private ConsumerLagMonitor lagMonitor;
+
+    private PreOrderReleaseJob job;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(store.shardCount()).thenReturn(1);
+        when(store.claim(anyInt(), anyString(), any(), anyString(), any())).thenReturn(Optional.empty());
+        when(store.advance(anyInt(), anyString(), any(), anyString(), anyString(), anyInt(), any())).thenReturn(true);
+        when(lagMonitor.currentLag(any())).thenReturn(ConsumerLagMonitor.UNKNOWN);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        PreOrderReleaseProperties properties = new PreOrderReleaseProperties(true, Duration.ofMinutes(5), 2, 2, 100_000,
+                1000, Duration.ofMillis(10), Duration.ofMinutes(2), Duration.ofSeconds(5));
+        job = new PreOrderReleaseJob(new ProductCatalog(), store, kafkaTemplate, lagMonitor, properties,
+                new SimpleMeterRegistry(), CLOCK, false);
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAndAdvanceOnlyAfterEachChunk() {
+        when(store.claim(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), any())).thenReturn(Optional.of(new Checkpoint("order-10", 10)));
+        when(store.nextChunk(0, GAME, "order-10", 2)).thenReturn(List.of(due("order-11"), due("order-12")));
+        when(store.nextChunk(0, GAME, "order-12", 2)).thenReturn(List.of(due("order-13")));
+        when(store.nextChunk(0, GAME, "order-13", 2)).thenReturn(List.of());
+
+        assertThat(job.releaseDue()).isEqualTo(3);
+
+        ArgumentCaptor<PreOrderReleasedEvent> events = ArgumentCaptor.forClass(PreOrderReleasedEvent.class);
+        verify(kafkaTemplate, times(3)).send(eq(PreOrderReleaseJob.TOPIC), anyString(), events.capture());
+        assertThat(events.getAllValues()).extracting(PreOrderReleasedEvent::orderId).containsExactly("order-11", "order-12", "order-13");
+        assertThat(events.getAllValues().get(0).eventId())
+                .isEqualTo(PreOrderReleaseJob.eventId(new ProductCatalog().findById(GAME).orElseThrow(), "order-11"));
+        verify(store).advance(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), eq("order-12"), eq(2), any());
+        verify(store).advance(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), eq("order-13"), eq(1), any());
+        verify(store).complete(eq(0), eq(GAME), eq(GAME_RELEASE), anyString());
+        verify(store).claim(eq(0), eq("PRE-IPHONE16-001"), any(), anyString(), any());
+        verify(store, never()).claim(anyInt(), eq("PRE-PS6-001"), any(), anyString(), any());
+    }
+
+    @Test
+    void shouldKeepCheckpointAndGiveLeaseUpWhenBrokerDoesNotAcknowledge() {
+        when(store.claim(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), any())).thenReturn(Optional.of(new Checkpoint("", 0)));
+        when(store.nextChunk(0, GAME, "", 2)).thenReturn(List.of(due("order-1"), due("order-2")));
+        when(kafkaTemplate.send(anyString(), eq("order-2"), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(job.releaseDue()).isZero();
+
+        verify(store, never()).advance(anyInt(), anyString(), any(), anyString(), anyString(), anyInt(), any());
+        verify(store, never()).complete(anyInt(), anyString(), any(), anyString());
+        verify(store).unclaim(eq(0), eq(GAME), eq(GAME_RELEASE), anyString());
+    }
+
+    @Test
+    void shouldStopWhenLeaseIsLost() {
+        when(store.claim(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), any())).thenReturn(Optional.of(new Checkpoint("", 0)));
+        when(store.nextChunk(0, GAME, "", 2)).thenReturn(List.of(due("order-1"), due("order-2")));
+        when(store.advance(anyInt(), anyString(), any(), anyString(), anyString(), anyInt(), any())).thenReturn(false);
+
+        assertThat(job.releaseDue()).isZero();
+
+        verify(store, never()).nextChunk(0, GAME, "order-2", 2);
+        verify(store, never()).complete(anyInt(), anyString(), any(), anyString());
+    }
+
+    @Test
+    void shouldPauseWhileThePriorityLaneIsBehind() {
+        when(store.claim(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), any())).thenReturn(Optional.of(new Checkpoint("", 0)));
+        when(store.nextChunk(0, GAME, "", 2)).thenReturn(List.of(due("order-1")));
+        when(store.nextChunk(0, GAME, "order-1", 2)).thenReturn(List.of());
+        when(lagMonitor.currentLag(Lane.RETAIL)).thenReturn(0L);
+        when(lagMonitor.currentLag(Lane.PRIORITY)).thenReturn(5000L, 5000L, 0L);
+
+        assertThat(job.releaseDue()).isEqualTo(1);
+
+        // cada pausa renova o lease sem mover o checkpoint
+        verify(store, times(2)).advance(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), eq(""), eq(0), any());
+        verify(store).advance(eq(0), eq(GAME), eq(GAME_RELEASE), anyString(), eq("order-1"), eq(1), any());
+    }
+
+    private static DueOrder due(String orderId) {
+        return new DueOrder(orderId, "customer-" + orderId, 1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.loomi.orders.service.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.domain.model.OrderEntity;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.OrderProcessor;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.sharding.ShardRouter;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+class TrafficReplayerTest {
+
+    private static final OffsetDateTime RECORDED_AT = OffsetDateTime.parse("2024-03-01T10:00:00Z");
+
+    @Mock
+    private OrderProcessor orderProcessor;
+    @Mock
+    private OrderRepository orderRepository;
+
+    private TrafficReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        replayer = new TrafficReplayer(orderProcessor, orderRepository,
+                new ShardRouter(1, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderProcessor.consume(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(orderProcessor.consumePriority(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void shouldReplayThroughLaneListenersAndDiffStatuses() {
+        when(orderRepository.findStatusByOrderId("aa-1")).thenReturn(Optional.of(OrderStatus.PROCESSED));
+        when(orderRepository.findStatusByOrderId("aa-2")).thenReturn(Optional.of(OrderStatus.PENDING));
+
+        ReplayReport report = replayer.replay(List.of(
+                captured("order-events-priority", "aa-2", 1, OrderStatus.PENDING_APPROVAL),
+                captured("order-events", "aa-1", 0, OrderStatus.PROCESSED)), ReplayProperties.Pacing.MAX, 1.0, Duration.ofSeconds(5));
+
+        verify(orderProcessor).consume(any());
+        verify(orderProcessor).consumePriority(any());
+        assertThat(report.events()).isEqualTo(2);
+        assertThat(report.errors()).isEqualTo(1);
+        assertThat(report.stages()).containsKeys("seed", "dispatch", "completion", "end-to-end");
+        assertThat(report.stages().get("completion").count()).isEqualTo(2);
+        assertThat(report.replayedStatuses()).containsEntry("PROCESSED", 1L).containsEntry("PENDING", 1L);
+        assertThat(report.mismatchCount()).isEqualTo(1);
+        assertThat(report.mismatches()).containsExactly(new ReplayReport.StatusMismatch("aa-2", "PENDING_APPROVAL", "PENDING"));
+    }
+
+    @Test
+    void shouldRefuseDatabaseThatAlreadyHoldsAnyOrderBeforeSeeding() {
+        when(orderRepository.findExistingOrderIds(anyCollection())).thenReturn(List.of("aa-2"));
+
+        assertThatThrownBy(() -> replayer.replay(List.of(
+                captured("order-events", "aa-1", 0, null),
+                captured("order-events", "aa-2", 1, null)), ReplayProperties.Pacing.MAX, 1.0, Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[aa-2]")
+                .hasMessageContaining("empty scratch database");
+        verify(orderRepository, never()).save(any(OrderEntity.class));
+        verify(orderProcessor, never()).consume(any());
+    }
+
+    @Test
+    void shouldSeedDuplicateEventOnceAndDispatchBoth() {
+        replayer.replay(List.of(captured("order-events", "aa-1", 0, null), captured("order-events", "aa-1", 1, null)),
+                ReplayProperties.Pacing.MAX, 1.0, Duration.ofSeconds(5));
+
+        verify(orderRepository, times(1)).save(any(OrderEntity.class));
+        verify(orderProcessor, times(2)).consume(any());
+    }
+
+    @Test
+    void shouldSummarizeLatencyPercentiles() {
+        long[] nanos = new long[100];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = (i + 1) * 1_000_000L;
+        }
+
+        ReplayReport.StageLatency latency = TrafficReplayer.latency(nanos);
+
+        assertThat(latency).isEqualTo(new ReplayReport.StageLatency(100, 50.0, 95.0, 99.0, 100.0));
+    }
+
+    private static CapturedEvent captured(String topic, String orderId, int secondsAfter, OrderStatus recorded) {
+        OrderCreatedEvent event = new OrderCreatedEvent("evt-" + orderId, orderId, "customer-1", new BigDecimal("10.00"),
+                RECORDED_AT, List.of(new OrderCreatedEvent.OrderItemPayload("BOOK-CC-001", "PHYSICAL", 1, new BigDecimal("10.00"), null)));
+        return new CapturedEvent(topic, RECORDED_AT.plusSeconds(secondsAfter), event, recorded);
+    }
+}
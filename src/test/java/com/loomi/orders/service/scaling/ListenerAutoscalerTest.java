@@ -0,0 +1,87 @@
+package com.loomi.orders.service.scaling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.loomi.orders.service.monitoring.ConsumerLagMonitor;
+import com.loomi.orders.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+class ListenerAutoscalerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong lag = new AtomicLong();
+    @SuppressWarnings("unchecked")
+    private final ConcurrentMessageListenerContainer<String, Object> container = mock(ConcurrentMessageListenerContainer.class);
+    private ListenerAutoscaler autoscaler;
+
+    @BeforeEach
+    void setUp() {
+        when(container.isRunning()).thenReturn(true);
+        when(container.getConcurrency()).thenReturn(1);
+        autoscaler = new ListenerAutoscaler(
+                new ListenerAutoscalingProperties(true, 1, 4, Duration.ofSeconds(30), Duration.ofMinutes(1)),
+                () -> container, lag::get, meterRegistry, clock);
+    }
+
+    @Test
+    void shouldSizeConcurrencyToDrainBacklogWithinTarget() {
+        assertThat(autoscaler.desiredConcurrency(1, 6_000, 100)).isEqualTo(2);
+        assertThat(autoscaler.desiredConcurrency(2, 100_000, 100)).isEqualTo(4);
+        assertThat(autoscaler.desiredConcurrency(3, 500, 100)).isEqualTo(2);
+        assertThat(autoscaler.desiredConcurrency(2, 0, 0)).isEqualTo(1);
+        assertThat(autoscaler.desiredConcurrency(2, 5_000, 0)).isEqualTo(2);
+        assertThat(autoscaler.desiredConcurrency(1, 0, 0)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRestartContainerWithNewConcurrencyAfterCooldown() {
+        lag.set(5_000);
+        recordProcessed(1_500);
+        clock.advance(Duration.ofSeconds(15));
+        autoscaler.evaluate();
+        verify(container, never()).stop();
+
+        clock.advance(Duration.ofSeconds(45));
+        recordProcessed(3_000);
+        autoscaler.evaluate();
+
+        InOrder order = inOrder(container);
+        order.verify(container).stop();
+        order.verify(container).setConcurrency(3);
+        order.verify(container).start();
+        assertThat(meterRegistry.get("orders.listener.scaling").tag("direction", "up").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHoldWhileLagIsUnknownOrDisabled() {
+        lag.set(ConsumerLagMonitor.UNKNOWN);
+        clock.advance(Duration.ofMinutes(2));
+        autoscaler.evaluate();
+
+        ListenerAutoscaler disabled = new ListenerAutoscaler(
+                new ListenerAutoscalingProperties(false, 1, 4, Duration.ofSeconds(30), Duration.ofMinutes(1)),
+                () -> container, () -> 1_000_000L, meterRegistry, clock);
+        clock.advance(Duration.ofMinutes(2));
+        disabled.evaluate();
+
+        verify(container, never()).stop();
+    }
+
+    private void recordProcessed(int records) {
+        for (int i = 0; i < records; i++) {
+            autoscaler.recordProcessed(Duration.ofMillis(20).toNanos());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.loomi.orders.service.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.support.MutableClock;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RecentWritesTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final RecentWrites recentWrites = new RecentWrites(
+            new ReplicaProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), List.of()), clock);
+
+    @Test
+    void shouldKeepKeysStickyUntilWindowExpires() {
+        recentWrites.record("customer-1", "ab-order-1");
+
+        clock.advance(Duration.ofSeconds(9));
+        assertThat(recentWrites.contains("customer-1")).isTrue();
+        assertThat(recentWrites.contains("ab-order-1")).isTrue();
+        assertThat(recentWrites.contains("customer-2")).isFalse();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(recentWrites.contains("customer-1")).isFalse();
+        recentWrites.purgeExpired();
+        assertThat(recentWrites.size()).isZero();
+    }
+
+    @Test
+    void shouldHonourTokenIssuedByAnyInstance() {
+        // outra instância, mesmo relógio: só o token carrega a escrita
+        RecentWrites other = new RecentWrites(
+                new ReplicaProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), List.of()), clock);
+        String token = recentWrites.token();
+
+        clock.advance(Duration.ofSeconds(9));
+        assertThat(other.pending(token)).isTrue();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(other.pending(token)).isFalse();
+        assertThat(other.pending(null)).isFalse();
+        assertThat(other.pending("not-a-time")).isFalse();
+        assertThat(other.pending(Long.toString(clock.millis() + Duration.ofMinutes(1).toMillis()))).isFalse();
+    }
+}
@@ -0,0 +1,46 @@
+package com.loomi.orders.service.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.loomi.orders.domain.ShardKeys;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+class ShardRouterTest {
+
+    private final ShardRouter router = new ShardRouter(4, TransactionOperations.withoutTransaction(),
+            TransactionOperations.withoutTransaction());
+
+    @Test
+    void shouldRouteOrdersToTheShardOfTheirCustomer() {
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String customerId = "customer-" + i;
+            String orderId = ShardKeys.newOrderId(customerId);
+
+            assertThat(ShardKeys.bucketOfOrder(orderId)).isEqualTo(ShardKeys.bucketOfCustomer(customerId));
+            assertThat(router.shardForOrder(orderId)).isEqualTo(router.shardForCustomer(customerId));
+            shards.add(router.shardForCustomer(customerId));
+        }
+        assertThat(shards).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    @Test
+    void shouldKeepLegacyOrderIdsOnFirstShard() {
+        assertThat(ShardKeys.bucketOfOrder("0b6f4c1e-5d0a-4b7e-9a51-0f8e2c9d7a11")).isEqualTo(ShardKeys.LEGACY_BUCKET);
+        assertThat(router.shardForOrder("order-1")).isZero();
+        assertThat(router.shardForOrder("zz-123")).isZero();
+        assertThat(router.shardForOrder("ff-123")).isEqualTo(255 % 4);
+    }
+
+    @Test
+    void shouldRunReadsOnEveryShardWithItsContext() {
+        List<Integer> seen = router.readAll(tx -> ShardContext.current());
+
+        assertThat(seen).containsExactly(0, 1, 2, 3);
+        assertThat(ShardContext.current()).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package com.loomi.orders.service.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReadReplica replica = new ReadReplica(1, "shard-1-replica-0", mock(DataSource.class));
+    private ShardRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource shard0 = mock(DataSource.class);
+        DataSource shard1 = mock(DataSource.class);
+        when(shard1.getConnection()).thenReturn(primaryConnection);
+        when(replica.dataSource().getConnection()).thenReturn(replicaConnection);
+        dataSource = new ShardRoutingDataSource(List.of(shard0, shard1), List.of(replica));
+    }
+
+    @Test
+    void shouldServeReplicaEligibleReadsFromInSyncReplica() {
+        replica.update(0.5, true);
+
+        assertThat(connection(1, true)).isSameAs(replicaConnection);
+        assertThat(connection(1, false)).isSameAs(primaryConnection);
+        assertThat(dataSource.replicaFallbacks()).isZero();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhileReplicaLags() {
+        replica.update(12.0, false);
+
+        assertThat(connection(1, true)).isSameAs(primaryConnection);
+        assertThat(dataSource.replicaFallbacks()).isEqualTo(1);
+    }
+
+    private Connection connection(int shard, boolean replicaAllowed) {
+        return ShardContext.call(shard, replicaAllowed, () -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+}
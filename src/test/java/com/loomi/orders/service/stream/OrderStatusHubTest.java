@@ -0,0 +1,117 @@
+package com.loomi.orders.service.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.loomi.orders.domain.OrderStatus;
+import com.loomi.orders.service.admission.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class OrderStatusHubTest {
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new OrderStatusHub(new OrderStreamProperties(2, 3, Duration.ofMinutes(1), Duration.ofSeconds(15),
+                Duration.ofSeconds(5)), meterRegistry, pending::add, timeout -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        });
+    }
+
+    @Test
+    void shouldRouteUpdatesByOrderAndCustomer() {
+        hub.subscribeOrder("order-1", () -> update("order-1", "customer-1", OrderStatus.PENDING));
+        hub.subscribeCustomer("customer-1");
+        hub.subscribeCustomer("customer-2");
+
+        hub.publish(update("order-1", "customer-1", OrderStatus.PENDING_APPROVAL));
+        hub.publish(update("order-2", "customer-1", OrderStatus.PROCESSED));
+        drain();
+
+        assertThat(emitters.get(0).statuses()).containsExactly(OrderStatus.PENDING, OrderStatus.PENDING_APPROVAL);
+        assertThat(emitters.get(1).statuses()).containsExactly(OrderStatus.PENDING_APPROVAL, OrderStatus.PROCESSED);
+        assertThat(emitters.get(2).statuses()).isEmpty();
+    }
+
+    @Test
+    void shouldDropOldestWhenSubscriberBufferIsFull() {
+        hub.subscribeCustomer("customer-1");
+
+        hub.publish(update("order-1", "customer-1", OrderStatus.PENDING));
+        hub.publish(update("order-2", "customer-1", OrderStatus.PENDING_APPROVAL));
+        hub.publish(update("order-3", "customer-1", OrderStatus.PROCESSED));
+        drain();
+
+        assertThat(emitters.get(0).statuses()).containsExactly(OrderStatus.PENDING_APPROVAL, OrderStatus.PROCESSED);
+        assertThat(meterRegistry.get("orders.stream.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCompleteOrderStreamAfterFinalStatus() {
+        hub.subscribeOrder("order-1", () -> update("order-1", "customer-1", OrderStatus.FAILED));
+        drain();
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertThat(emitter.statuses()).containsExactly(OrderStatus.FAILED);
+        assertThat(emitter.completed).isTrue();
+    }
+
+    @Test
+    void shouldRejectSubscribersOverTheCap() {
+        hub.subscribeCustomer("customer-1");
+        hub.subscribeCustomer("customer-2");
+        hub.subscribeOrder("order-1", () -> update("order-1", "customer-1", OrderStatus.PENDING));
+
+        assertThatThrownBy(() -> hub.subscribeCustomer("customer-3")).isInstanceOf(AdmissionRejectedException.class);
+        assertThat(hub.subscriberCount()).isEqualTo(3);
+    }
+
+    private void drain() {
+        Runnable task;
+        while ((task = pending.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static OrderStatusUpdate update(String orderId, String customerId, OrderStatus status) {
+        return new OrderStatusUpdate(null, orderId, customerId, status, null, OffsetDateTime.now());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(data -> sent.add(data.getData()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        List<OrderStatus> statuses() {
+            return sent.stream()
+                    .filter(OrderStatusUpdate.class::isInstance)
+                    .map(data -> ((OrderStatusUpdate) data).status())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.loomi.orders.service.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.catalog.ProductCatalog.ProductRecord;
+import com.loomi.orders.config.OrderValidationProperties;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.domain.ProductType;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.alerts.LowStockAlertAggregator;
+import com.loomi.orders.service.alerts.LowStockAlertProperties;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.events.OrderCreatedEvent.OrderItemPayload;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.MDC;
+
+class OrderItemValidatorTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LegacyOrders legacyOrders;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductCatalog productCatalog = new ProductCatalog();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(orderRepository.findByCustomerIdOrderByCreatedAtDesc(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void shouldCheckLargeOrdersConcurrentlyOnVirtualThreadsWithCallerMdc() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicBoolean allVirtualWithMdc = new AtomicBoolean(true);
+        ItemHandler digital = new StubHandler(ProductType.DIGITAL, (item, product) -> {
+            threads.add(Thread.currentThread().getName());
+            if (!Thread.currentThread().isVirtual() || !"order-1".equals(MDC.get("orderId"))) {
+                allVirtualWithMdc.set(false);
+            }
+            return ItemOutcome.discounted(BigDecimal.ONE);
+        });
+        List<OrderItemPayload> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            items.add(item("EBOOK-JAVA-001", "DIGITAL", 1));
+        }
+        MDC.put("orderId", "order-1");
+
+        ItemValidation validation = validator(false, 8, digital).validate(event(items), false);
+
+        assertThat(validation.failures()).isEmpty();
+        assertThat(validation.discount()).isEqualByComparingTo("40");
+        assertThat(allVirtualWithMdc).isTrue();
+        assertThat(threads).allMatch(name -> name.startsWith("order-items-")).hasSizeGreaterThan(1);
+        verify(orderRepository, never()).findByCustomerIdOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void shouldFailFastAndInterruptRemainingChecks() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ItemHandler digital = new StubHandler(ProductType.DIGITAL, (item, product) -> {
+            try {
+                blocked.countDown();
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            return ItemOutcome.accepted();
+        });
+        List<OrderItemPayload> items = new ArrayList<>();
+        items.add(item("EBOOK-JAVA-001", "DIGITAL", 1));
+        for (int i = 0; i < 10; i++) {
+            items.add(item("LAPTOP-PRO-2024", "PHYSICAL", 1000));
+        }
+
+        long started = System.nanoTime();
+        ItemValidation validation = validator(false, 4, digital).validate(event(items), false);
+
+        assertThat(validation.failures()).containsExactly(FailureReason.OUT_OF_STOCK);
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(30);
+        // a checagem que chegou a bloquear foi interrompida, e o escopo esperou ela sair
+        if (blocked.getCount() == 0) {
+            assertThat(interrupted).isTrue();
+        }
+    }
+
+    @Test
+    void shouldReportLowestIndexedFailureWhenFailuresFinishOutOfOrder() {
+        CountDownLatch laterItemFailed = new CountDownLatch(1);
+        ItemHandler digital = new StubHandler(ProductType.DIGITAL, (item, product) -> {
+            if ("COURSE-KAFKA-001".equals(item.productId())) {
+                laterItemFailed.countDown();
+                return ItemOutcome.rejected(FailureReason.ALREADY_OWNED);
+            }
+            // primeiro item só termina bem depois do segundo e, como uma checagem de CPU, ignora a interrupção
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (laterItemFailed.getCount() > 0 || System.nanoTime() < until) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ignored) {
+                    // segue até o fim
+                }
+            }
+            return ItemOutcome.rejected(FailureReason.LICENSE_UNAVAILABLE);
+        });
+        List<OrderItemPayload> items = List.of(item("EBOOK-JAVA-001", "DIGITAL", 1), item("COURSE-KAFKA-001", "DIGITAL", 1));
+
+        ItemValidation validation = validator(false, 2, digital).validate(event(items), false);
+
+        assertThat(validation.failures()).containsExactly(FailureReason.LICENSE_UNAVAILABLE);
+    }
+
+    @Test
+    void shouldStillEnforceCrossItemRulesAfterConcurrentChecks() {
+        List<OrderItemPayload> items = new ArrayList<>();
+        items.add(item("SUB-ENTERPRISE-001", "SUBSCRIPTION", 1));
+        for (int i = 0; i < 20; i++) {
+            items.add(item("BOOK-CC-001", "PHYSICAL", 1));
+        }
+        items.add(item("SUB-BASIC-001", "SUBSCRIPTION", 1));
+
+        ItemValidation validation = validator(false, 4, null).validate(event(items), false);
+
+        assertThat(validation.failures()).containsExactly(FailureReason.INCOMPATIBLE_SUBSCRIPTIONS);
+        verify(orderRepository).findByCustomerIdOrderByCreatedAtDesc("customer");
+    }
+
+    @Test
+    void shouldTreatSubscriptionsOnLegacyShardZeroOrdersAsActive() {
+        when(legacyOrders.outsideShard("customer")).thenReturn(true);
+        when(legacyOrders.productIds(eq("customer"), any())).thenReturn(Set.of("SUB-PREMIUM-001"));
+
+        ItemValidation validation = validator(false, 16, null).validate(event(List.of(item("SUB-PREMIUM-001", "SUBSCRIPTION", 1))), false);
+
+        assertThat(validation.failures()).containsExactly(FailureReason.DUPLICATE_ACTIVE_SUBSCRIPTION);
+    }
+
+    @Test
+    void shouldCollectFailuresInItemOrderWhenCheckedConcurrently() {
+        List<OrderItemPayload> items = new ArrayList<>();
+        items.add(item("LAPTOP-PRO-2024", "PHYSICAL", 1000));
+        items.add(item("MISSING-001", "PHYSICAL", 1));
+        items.add(item("BOOK-CC-001", "PHYSICAL", 1));
+        items.add(item("EBOOK-JAVA-001", "DIGITAL", 2));
+        items.add(item("SUB-PREMIUM-001", "SUBSCRIPTION", 1));
+        items.add(item("SUB-PREMIUM-001", "SUBSCRIPTION", 1));
+
+        ItemValidation validation = validator(true, 2, null).validate(event(items), true);
+
+        assertThat(validation.failures()).containsExactly(FailureReason.WAREHOUSE_UNAVAILABLE, FailureReason.OUT_OF_STOCK,
+                FailureReason.ALREADY_OWNED, FailureReason.DUPLICATE_ACTIVE_SUBSCRIPTION);
+    }
+
+    private OrderItemValidator validator(boolean collectAllFailures, int parallelThreshold, ItemHandler override) {
+        List<ItemHandler> handlers = new ArrayList<>(List.of(
+                new PhysicalItemHandler(new LowStockAlertAggregator(null, new LowStockAlertProperties(false, 5, Duration.ofMinutes(1)),
+                        new SimpleMeterRegistry()), objectMapper),
+                new SubscriptionItemHandler(orderRepository, legacyOrders), new DigitalItemHandler(), new PreOrderItemHandler(objectMapper),
+                new CorporateItemHandler(objectMapper)));
+        if (override != null) {
+            handlers.removeIf(handler -> handler.type() == override.type());
+            handlers.add(override);
+        }
+        return new OrderItemValidator(handlers, productCatalog, new OrderValidationProperties(collectAllFailures, parallelThreshold));
+    }
+
+    private static OrderCreatedEvent event(List<OrderItemPayload> items) {
+        return new OrderCreatedEvent("evt-1", "order-1", "customer", BigDecimal.TEN, OffsetDateTime.now(), items);
+    }
+
+    private static OrderItemPayload item(String productId, String type, int quantity) {
+        return new OrderItemPayload(productId, type, quantity, BigDecimal.TEN, null);
+    }
+
+    private record StubHandler(ProductType type, Check check) implements ItemHandler {
+
+        @Override
+        public ItemOutcome check(OrderItemPayload item, ProductRecord product) {
+            return check.run(item, product);
+        }
+    }
+
+    private interface Check {
+        ItemOutcome run(OrderItemPayload item, ProductRecord product);
+    }
+}
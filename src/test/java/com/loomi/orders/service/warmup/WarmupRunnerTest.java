@@ -0,0 +1,138 @@
+package com.loomi.orders.service.warmup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loomi.orders.catalog.ProductCatalog;
+import com.loomi.orders.config.OrderEventsListenerErrorHandler;
+import com.loomi.orders.domain.FailureReason;
+import com.loomi.orders.repository.IdempotencyKeyRepository;
+import com.loomi.orders.repository.OrderRepository;
+import com.loomi.orders.service.OrderEvaluation;
+import com.loomi.orders.service.OrderMapper;
+import com.loomi.orders.service.OrderProcessor;
+import com.loomi.orders.service.OrderService;
+import com.loomi.orders.service.events.OrderCreatedEvent;
+import com.loomi.orders.service.replay.ReplayProperties;
+import com.loomi.orders.service.sharding.LegacyOrders;
+import com.loomi.orders.service.sharding.RecentWrites;
+import com.loomi.orders.service.sharding.ReplicaProperties;
+import com.loomi.orders.service.sharding.ShardRebalancer;
+import com.loomi.orders.service.sharding.ShardRouter;
+import jakarta.validation.Validation;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.transaction.support.TransactionOperations;
+
+class WarmupRunnerTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LegacyOrders legacyOrders;
+    @Mock
+    private ShardRebalancer shardRebalancer;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    @Mock
+    private OrderProcessor orderProcessor;
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+    @Mock
+    private MessageListenerContainer retailListener;
+    @Mock
+    private MessageListenerContainer priorityListener;
+
+    private OrderService orderService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        orderService = new OrderService(new ProductCatalog(), orderRepository, new OrderMapper(objectMapper),
+                idempotencyKeyRepository, kafkaTemplate,
+                new ShardRouter(1, TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction()),
+                new RecentWrites(new ReplicaProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), List.of())), legacyOrders,
+                shardRebalancer);
+        when(orderProcessor.evaluate(any())).thenReturn(new OrderEvaluation(BigDecimal.TEN, List.of(FailureReason.RELEASE_DATE_PASSED), null));
+        when(listenerRegistry.getListenerContainer(OrderEventsListenerErrorHandler.LISTENER_ID)).thenReturn(retailListener);
+        when(listenerRegistry.getListenerContainer(OrderEventsListenerErrorHandler.PRIORITY_LISTENER_ID)).thenReturn(priorityListener);
+    }
+
+    @Test
+    void shouldExerciseHotPathsWithoutSideEffects() {
+        runner(true, 25).run(new DefaultApplicationArguments());
+
+        verify(orderProcessor, times(25)).evaluate(any());
+        verifyNoInteractions(orderRepository, idempotencyKeyRepository, kafkaTemplate);
+    }
+
+    @Test
+    void shouldSkipWarmupWhenDisabled() {
+        runner(false, 25).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(orderProcessor, orderRepository, kafkaTemplate);
+        verify(retailListener).start();
+        verify(priorityListener).start();
+    }
+
+    @Test
+    void shouldStartListenersOnlyAfterWarmup() {
+        runner(true, 5).run(new DefaultApplicationArguments());
+
+        InOrder order = Mockito.inOrder(orderProcessor, retailListener, priorityListener);
+        order.verify(orderProcessor, times(5)).evaluate(any());
+        order.verify(retailListener).start();
+        order.verify(priorityListener).start();
+    }
+
+    @Test
+    void shouldStartListenersWhenWarmupAborts() {
+        doThrow(new IllegalStateException("boom")).when(orderProcessor).evaluate(any());
+
+        runner(true, 5).run(new DefaultApplicationArguments());
+
+        verify(retailListener).start();
+        verify(priorityListener).start();
+    }
+
+    @Test
+    void shouldKeepListenersStoppedInReplayMode() {
+        runner(true, 5, Path.of("capture.jsonl")).run(new DefaultApplicationArguments());
+
+        verify(retailListener, never()).start();
+        verify(priorityListener, never()).start();
+    }
+
+    private WarmupRunner runner(boolean enabled, int iterations) {
+        return runner(enabled, iterations, null);
+    }
+
+    private WarmupRunner runner(boolean enabled, int iterations, Path replayInput) {
+        return new WarmupRunner(new WarmupProperties(enabled, iterations, Duration.ofSeconds(30)), orderService,
+                orderProcessor, new ProductCatalog(), objectMapper, Validation.buildDefaultValidatorFactory().getValidator(),
+                listenerRegistry, new ReplayProperties(replayInput, ReplayProperties.Pacing.MAX, 1.0,
+                        Path.of("replay-report.json"), Duration.ofMinutes(5)));
+    }
+}
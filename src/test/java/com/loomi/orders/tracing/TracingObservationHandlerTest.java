@@ -0,0 +1,78 @@
+package com.loomi.orders.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class TracingObservationHandlerTest {
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter(100);
+    private final ObservationRegistry registry = ObservationRegistry.create();
+
+    @BeforeEach
+    void setUp() {
+        TracingProperties properties = new TracingProperties(true, 1.0, TracingProperties.Exporter.MEMORY, 100, Path.of("spans.ndjson"));
+        registry.observationConfig().observationHandler(new TracingObservationHandler(properties, exporter));
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void shouldNestSpansAndExposeIdsInMdcOnlyWhileInScope() {
+        MDC.put("traceId", "outer");
+        Observation.createNotStarted("orders.create", registry).observe(() -> {
+            String parentSpan = MDC.get("spanId");
+            Observation.createNotStarted("orders.persist", registry).observe(() ->
+                    assertThat(MDC.get("spanId")).isNotEqualTo(parentSpan));
+            assertThat(MDC.get("spanId")).isEqualTo(parentSpan);
+        });
+
+        assertThat(MDC.get("traceId")).isEqualTo("outer");
+        assertThat(MDC.get("spanId")).isNull();
+        List<SpanData> spans = exporter.spans(null);
+        assertThat(spans).extracting(SpanData::name).containsExactly("orders.persist", "orders.create");
+        assertThat(spans.get(0).traceId()).isEqualTo(spans.get(1).traceId());
+        assertThat(spans.get(0).parentSpanId()).isEqualTo(spans.get(1).spanId());
+        assertThat(spans.get(1).parentSpanId()).isNull();
+    }
+
+    @Test
+    void shouldContinueTraceAcrossCarrierHeaders() {
+        Map<String, String> headers = new HashMap<>();
+        SenderContext<Map<String, String>> send = new SenderContext<>(Map::put);
+        send.setCarrier(headers);
+        Observation.createNotStarted("send", () -> send, registry).observe(() -> { });
+        ReceiverContext<Map<String, String>> receive = new ReceiverContext<>(Map::get);
+        receive.setCarrier(headers);
+        Observation.createNotStarted("receive", () -> receive, registry).observe(() -> { });
+
+        SpanData producer = exporter.spans(null).get(0);
+        SpanData consumer = exporter.spans(producer.traceId()).get(1);
+        assertThat(headers.get(TraceContext.TRACEPARENT)).isEqualTo("00-" + producer.traceId() + "-" + producer.spanId() + "-01");
+        assertThat(producer.kind()).isEqualTo("PRODUCER");
+        assertThat(consumer.kind()).isEqualTo("CONSUMER");
+        assertThat(consumer.parentSpanId()).isEqualTo(producer.spanId());
+    }
+
+    @Test
+    void shouldStartNewTraceForMalformedHeader() {
+        assertThat(TraceContext.parse("00-" + "0".repeat(32) + "-00f067aa0ba902b7-01")).isEmpty();
+        assertThat(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7")).isEmpty();
+        assertThat(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00"))
+                .hasValueSatisfying(trace -> assertThat(trace.sampled()).isFalse());
+    }
+}